@@ -1,13 +1,23 @@
 package com.example.goboard.builder;
 
 
+import com.example.goboard.model.BitboardBoard;
 import com.example.goboard.model.Board;
+import com.example.goboard.model.PackedBoard;
 
 
 public class BoardBuilder {
     private int size = 19; // default
+    private boolean bitboard;
 
 
     public BoardBuilder size(int s) { this.size = s; return this; }
-    public Board build() { return new Board(size); }
-}
\ No newline at end of file
+
+    /** Keep bitboards alongside the packed points, for bulk scoring and move generation. */
+    public BoardBuilder bitboard(boolean b) { this.bitboard = b; return this; }
+
+    /** Bitboard-backed board if requested, otherwise the packed board. */
+    public Board build() {
+        return bitboard ? new BitboardBoard(size) : new PackedBoard(size);
+    }
+}
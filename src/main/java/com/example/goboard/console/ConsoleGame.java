@@ -5,7 +5,7 @@ import com.example.goboard.factory.BoardFactory;
 import com.example.goboard.model.Board;
 import com.example.goboard.model.Player;
 import com.example.goboard.model.Stone;
-import com.example.goboard.strategy.SimpleMoveValidator;
+import com.example.goboard.strategy.RulesMoveValidator;
 import com.example.goboard.view.GameUI;
 import com.example.goboard.view.ConsoleUIFormatter;
 
@@ -24,7 +24,7 @@ public class ConsoleGame {
         board = BoardFactory.small9();
         controller = new GameController(
                 board,
-                new SimpleMoveValidator(),
+                new RulesMoveValidator(),
                 new Player("Black", Stone.Color.BLACK)
         );
     }
@@ -0,0 +1,94 @@
+package com.example.goboard.controller;
+
+import com.example.goboard.model.Stone;
+
+/**
+ * Both players' clocks under one {@link TimeControl}. Only one clock runs
+ * at a time; times are in nanoseconds from a caller-supplied monotonic
+ * clock (normally {@link System#nanoTime()}), so the class does no timing
+ * itself and is not thread-safe.
+ */
+public class GameClock {
+    private final TimeControl control;
+    private final long incrementNanos;
+    private final long periodNanos;
+    private final long[] mainLeft = new long[2];
+    private final int[] periodsLeft = new int[2];
+    private Stone.Color running;
+    private long turnStart;
+
+    public GameClock(TimeControl control) {
+        this.control = control;
+        this.incrementNanos = control.getIncrement().toNanos();
+        this.periodNanos = control.getPeriodTime().toNanos();
+        for (int i = 0; i < 2; i++) {
+            mainLeft[i] = control.getMainTime().toNanos();
+            periodsLeft[i] = control.getPeriods();
+        }
+    }
+
+    private static int index(Stone.Color color) {
+        return color == Stone.Color.BLACK ? 0 : 1;
+    }
+
+    public TimeControl getControl() {
+        return control;
+    }
+
+    /** Color whose clock is running, or null. */
+    public Stone.Color getRunning() {
+        return running;
+    }
+
+    /** Starts {@code color}'s clock, e.g. at the start of the game. */
+    public void start(Stone.Color color, long now) {
+        running = color;
+        turnStart = now;
+    }
+
+    /**
+     * Stops the running clock at the end of a turn, charging the time used
+     * and applying the increment or byo-yomi rules, then starts the other
+     * player's clock.
+     */
+    public void press(long now) {
+        if (running == null) return;
+        int i = index(running);
+        long used = now - turnStart;
+        if (used <= mainLeft[i]) {
+            mainLeft[i] -= used;
+        } else {
+            // Into byo-yomi: every period overrun is lost, the current one starts afresh
+            long over = used - mainLeft[i];
+            mainLeft[i] = 0;
+            periodsLeft[i] -= periodNanos > 0 ? (int) Math.min(periodsLeft[i], over / periodNanos) : periodsLeft[i];
+        }
+        mainLeft[i] += incrementNanos;
+        start(running == Stone.Color.BLACK ? Stone.Color.WHITE : Stone.Color.BLACK, now);
+    }
+
+    /** Stops both clocks, e.g. when the game ends. */
+    public void stop() {
+        running = null;
+    }
+
+    /** Time {@code color} has before losing on time, counting every byo-yomi period; negative once flagged. */
+    public long timeToFlag(Stone.Color color, long now) {
+        int i = index(color);
+        long left = mainLeft[i] + periodsLeft[i] * periodNanos;
+        return color == running ? left - (now - turnStart) : left;
+    }
+
+    public boolean isOutOfTime(Stone.Color color, long now) {
+        return timeToFlag(color, now) <= 0;
+    }
+
+    /** Main time left, ignoring the running turn. */
+    public long getMainTimeLeft(Stone.Color color) {
+        return mainLeft[index(color)];
+    }
+
+    public int getPeriodsLeft(Stone.Color color) {
+        return periodsLeft[index(color)];
+    }
+}
@@ -1,22 +1,47 @@
 package com.example.goboard.controller;
 
+import com.example.goboard.controller.state.GameOverState;
 import com.example.goboard.controller.state.GameState;
 import com.example.goboard.controller.state.PlayingState;
 import com.example.goboard.model.Board;
+import com.example.goboard.model.BoardSnapshot;
+import com.example.goboard.model.MoveJournal;
 import com.example.goboard.model.Player;
 import com.example.goboard.model.Stone;
+import com.example.goboard.model.Zobrist;
+import com.example.goboard.scoring.DeadStoneEstimator;
+import com.example.goboard.scoring.ScoreResult;
+import com.example.goboard.scoring.ScoringEngine;
 import com.example.goboard.strategy.MoveValidator;
+import com.example.goboard.strategy.PositionHistory;
+import com.example.goboard.util.LongHashSet;
 
 /**
  * Game controller using State pattern to manage different game phases.
  * Delegates behavior to current state object, making the code more maintainable
  * and easier to extend with new game phases.
+ *
+ * The controller also remembers the Zobrist hash of every position reached in
+ * this game, so superko can be checked with one hash-set lookup per move,
+ * and exposes the board's move journal as the game history with undo/redo.
+ *
+ * With snapshot publishing on, every change of position also publishes an
+ * immutable {@link BoardSnapshot} that other threads can read without locks.
  */
-public class GameController {
+public class GameController implements PositionHistory {
     private final Board board;
     private final MoveValidator validator;
     private final Player blackPlayer;
     private final Player whitePlayer;
+    private final LongHashSet positions;
+    private final PlayingState playingState;
+    private KoRule koRule = KoRule.POSITIONAL_SUPERKO;
+    private ScoringEngine scoringEngine = new ScoringEngine();
+    private DeadStoneEstimator deadStoneEstimator = new DeadStoneEstimator();
+    private int blackPrisoners;
+    private int whitePrisoners;
+    private boolean snapshotPublishing;
+    private volatile BoardSnapshot snapshot;
     
     private GameState currentState;
 
@@ -27,9 +52,12 @@ public class GameController {
         this.whitePlayer = white;
         
         Player startingPlayer = starting != null ? starting : black;
+        this.positions = new LongHashSet(board.getSize() * board.getSize() * 2);
+        recordPosition(board.getHash(), startingPlayer.getColor());
         // Initialize in playing state
-        this.currentState = new PlayingState(this, board, validator, 
+        this.playingState = new PlayingState(this, board, validator, 
             blackPlayer, whitePlayer, startingPlayer, 0);
+        this.currentState = playingState;
     }
 
     /**
@@ -43,10 +71,13 @@ public class GameController {
             starting : new Player("Black", Stone.Color.BLACK);
         this.whitePlayer = starting.getColor() == Stone.Color.WHITE ? 
             starting : new Player("White", Stone.Color.WHITE);
+        this.positions = new LongHashSet(board.getSize() * board.getSize() * 2);
+        recordPosition(board.getHash(), starting.getColor());
         
         // Initialize in playing state
-        this.currentState = new PlayingState(this, board, validator,
+        this.playingState = new PlayingState(this, board, validator,
             blackPlayer, whitePlayer, starting, 0);
+        this.currentState = playingState;
     }
 
     /**
@@ -89,6 +120,192 @@ public class GameController {
         return currentState.getConsecutivePasses();
     }
     
+    /**
+     * Moves and passes of this game, oldest first. Read-only; entries past
+     * {@code getMoveCount()} are undone moves that {@link #redo()} can replay.
+     */
+    public MoveJournal getHistory() {
+        return board.getJournal();
+    }
+
+    /**
+     * Take back the last move or pass, reopening the game if it had ended.
+     * Returns false if there is nothing to undo.
+     */
+    public boolean undo() {
+        MoveJournal history = board.getJournal();
+        int last = history.getMoveCount() - 1;
+        if (last < 0) return false;
+
+        long leaving = positionKey(board.getHash(), getCurrentPlayer().getColor());
+        board.undo();
+        Player mover = playerFor(history.getColor(last));
+        addPrisoners(mover.getColor(), -history.getCaptureCount(last));
+        long returning = positionKey(board.getHash(), mover.getColor());
+        // After a pass the positional key repeats; keep it for the earlier position
+        if (leaving != returning) {
+            positions.remove(leaving);
+        }
+
+        playingState.resume(mover, history.trailingPasses());
+        currentState = playingState;
+        publishSnapshot();
+        return true;
+    }
+
+    /**
+     * Replay the next undone move or pass. Returns false if there is none.
+     */
+    public boolean redo() {
+        MoveJournal history = board.getJournal();
+        int next = history.getMoveCount();
+        if (next == history.getLength()) return false;
+
+        Player mover = playerFor(history.getColor(next));
+        Player toMove = mover == blackPlayer ? whitePlayer : blackPlayer;
+        board.redo();
+        addPrisoners(mover.getColor(), history.getCaptureCount(next));
+        recordPosition(board.getHash(), toMove.getColor());
+
+        int passes = history.trailingPasses();
+        if (passes >= 2) {
+            currentState = new GameOverState(this, board, validator,
+                blackPlayer, whitePlayer, mover, passes);
+        } else {
+            playingState.resume(toMove, passes);
+            currentState = playingState;
+        }
+        publishSnapshot();
+        return true;
+    }
+
+    /**
+     * Turn publication of a snapshot after every change of position on or off.
+     * Off by default: taking a snapshot makes the next move copy the point array.
+     */
+    public void setSnapshotPublishing(boolean enabled) {
+        this.snapshotPublishing = enabled;
+        this.snapshot = enabled ? board.snapshot() : null;
+    }
+
+    /**
+     * Latest published position. Safe to call from any thread while
+     * publishing is on; otherwise it snapshots the board on the caller's thread.
+     */
+    public BoardSnapshot getSnapshot() {
+        BoardSnapshot published = snapshot;
+        return published != null ? published : board.snapshot();
+    }
+
+    /**
+     * Publish the current position if snapshot publishing is on.
+     * Used by state implementations after every move and pass.
+     */
+    public void publishSnapshot() {
+        if (snapshotPublishing) {
+            snapshot = board.snapshot();
+        }
+    }
+
+    private Player playerFor(Stone.Color color) {
+        return color == Stone.Color.BLACK ? blackPlayer : whitePlayer;
+    }
+
+    public KoRule getKoRule() {
+        return koRule;
+    }
+
+    /**
+     * Choose the repetition rule. Simple ko is always enforced by the board;
+     * the superko rules additionally reject any repeat of a recorded position.
+     * Intended to be set before the first move: earlier positions are dropped.
+     */
+    public void setKoRule(KoRule koRule) {
+        this.koRule = koRule;
+        positions.clear();
+        recordPosition(board.getHash(), getCurrentPlayer().getColor());
+    }
+
+    /**
+     * Whether reaching a position with the given hash, with {@code toMove}
+     * next to play, is forbidden by the current superko rule.
+     * Used by state implementations and superko-aware validators.
+     */
+    @Override
+    public boolean isRepeatedPosition(long hash, Stone.Color toMove) {
+        if (koRule == KoRule.SIMPLE) return false;
+        return positions.contains(positionKey(hash, toMove));
+    }
+
+    /**
+     * Remember a position reached in this game.
+     * Used by state implementations after every move and pass.
+     */
+    public void recordPosition(long hash, Stone.Color toMove) {
+        positions.add(positionKey(hash, toMove));
+    }
+
+    private long positionKey(long hash, Stone.Color toMove) {
+        return koRule == KoRule.SITUATIONAL_SUPERKO ? hash ^ Zobrist.sideToMove(toMove) : hash;
+    }
+
+    /**
+     * Final score of the game, or null while it is still being played.
+     * Delegates to current state.
+     */
+    public ScoreResult getScore() {
+        return currentState.getScore();
+    }
+
+    /**
+     * Score the current position with the configured engine and the
+     * prisoners taken so far, removing the stones the dead-stone estimator
+     * marks as dead. Used by state implementations when the game ends, so the
+     * result can be proposed right after the second pass.
+     */
+    public ScoreResult scorePosition() {
+        boolean[] dead = deadStoneEstimator != null ? deadStoneEstimator.estimate(board) : null;
+        return scoringEngine.score(board, dead, blackPrisoners, whitePrisoners);
+    }
+
+    public ScoringEngine getScoringEngine() {
+        return scoringEngine;
+    }
+
+    /**
+     * Choose how the game is counted (area or territory, komi).
+     */
+    public void setScoringEngine(ScoringEngine scoringEngine) {
+        this.scoringEngine = scoringEngine;
+    }
+
+    /**
+     * Choose how dead stones are found at the end of the game; null scores
+     * every stone on the board as alive (strict Tromp-Taylor).
+     */
+    public void setDeadStoneEstimator(DeadStoneEstimator deadStoneEstimator) {
+        this.deadStoneEstimator = deadStoneEstimator;
+    }
+
+    /**
+     * Number of opponent stones captured by the given color so far.
+     */
+    public int getPrisoners(Stone.Color capturer) {
+        return capturer == Stone.Color.BLACK ? blackPrisoners : whitePrisoners;
+    }
+
+    /**
+     * Credit captured stones to a player.
+     * Used by state implementations after every capturing move.
+     */
+    public void addPrisoners(Stone.Color capturer, int count) {
+        if (capturer == Stone.Color.BLACK) {
+            blackPrisoners += count;
+        } else {
+            whitePrisoners += count;
+        }
+    }
+
     /**
      * Set the current game state.
      * Public for use by state implementations.
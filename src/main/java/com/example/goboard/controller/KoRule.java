@@ -0,0 +1,13 @@
+package com.example.goboard.controller;
+
+/**
+ * Repetition rule enforced by {@link GameController}.
+ */
+public enum KoRule {
+    /** Only immediate ko recapture is forbidden (enforced by the board). */
+    SIMPLE,
+    /** No move may recreate any earlier board position. */
+    POSITIONAL_SUPERKO,
+    /** No move may recreate an earlier board position with the same player to move. */
+    SITUATIONAL_SUPERKO
+}
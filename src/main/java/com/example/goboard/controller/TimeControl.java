@@ -0,0 +1,59 @@
+package com.example.goboard.controller;
+
+import java.time.Duration;
+
+/**
+ * Time control for a game: main time per player, then either nothing more
+ * (absolute), an increment added after each move (Fischer), or a number of
+ * byo-yomi periods, each restored whenever a move is made within it.
+ */
+public final class TimeControl {
+    public enum Type { ABSOLUTE, FISCHER, BYO_YOMI }
+
+    private final Type type;
+    private final Duration mainTime;
+    private final Duration increment;
+    private final int periods;
+    private final Duration periodTime;
+
+    private TimeControl(Type type, Duration mainTime, Duration increment, int periods, Duration periodTime) {
+        this.type = type;
+        this.mainTime = mainTime;
+        this.increment = increment;
+        this.periods = periods;
+        this.periodTime = periodTime;
+    }
+
+    public static TimeControl absolute(Duration mainTime) {
+        return new TimeControl(Type.ABSOLUTE, mainTime, Duration.ZERO, 0, Duration.ZERO);
+    }
+
+    public static TimeControl fischer(Duration mainTime, Duration increment) {
+        return new TimeControl(Type.FISCHER, mainTime, increment, 0, Duration.ZERO);
+    }
+
+    public static TimeControl byoYomi(Duration mainTime, int periods, Duration periodTime) {
+        if (periods < 1) {
+            throw new IllegalArgumentException("Byo-yomi needs at least one period");
+        }
+        return new TimeControl(Type.BYO_YOMI, mainTime, Duration.ZERO, periods, periodTime);
+    }
+
+    public Type getType() { return type; }
+    public Duration getMainTime() { return mainTime; }
+    public Duration getIncrement() { return increment; }
+    public int getPeriods() { return periods; }
+    public Duration getPeriodTime() { return periodTime; }
+
+    @Override
+    public String toString() {
+        switch (type) {
+            case FISCHER:
+                return mainTime.getSeconds() + "s + " + increment.getSeconds() + "s/move";
+            case BYO_YOMI:
+                return mainTime.getSeconds() + "s + " + periods + "x" + periodTime.getSeconds() + "s byo-yomi";
+            default:
+                return mainTime.getSeconds() + "s absolute";
+        }
+    }
+}
@@ -3,6 +3,7 @@ package com.example.goboard.controller.state;
 import com.example.goboard.controller.GameController;
 import com.example.goboard.model.Board;
 import com.example.goboard.model.Player;
+import com.example.goboard.scoring.ScoreResult;
 import com.example.goboard.strategy.MoveValidator;
 
 /**
@@ -47,4 +48,9 @@ public abstract class AbstractGameState implements GameState {
     public int getConsecutivePasses() {
         return consecutivePasses;
     }
+    
+    @Override
+    public ScoreResult getScore() {
+        return null;
+    }
 }
@@ -3,18 +3,22 @@ package com.example.goboard.controller.state;
 import com.example.goboard.controller.GameController;
 import com.example.goboard.model.Board;
 import com.example.goboard.model.Player;
+import com.example.goboard.scoring.ScoreResult;
 import com.example.goboard.strategy.MoveValidator;
 
 /**
  * State representing a finished game.
  * No moves or passes are allowed in this state.
+ * The final position is scored once, on entering the state.
  */
 public class GameOverState extends AbstractGameState {
+    private final ScoreResult score;
     
     public GameOverState(GameController controller, Board board, MoveValidator validator,
                         Player blackPlayer, Player whitePlayer, Player currentPlayer,
                         int consecutivePasses) {
         super(controller, board, validator, blackPlayer, whitePlayer, currentPlayer, consecutivePasses);
+        this.score = controller.scorePosition();
     }
     
     @Override
@@ -33,4 +37,9 @@ public class GameOverState extends AbstractGameState {
     public boolean isGameOver() {
         return true;
     }
+    
+    @Override
+    public ScoreResult getScore() {
+        return score;
+    }
 }
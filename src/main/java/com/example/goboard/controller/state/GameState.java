@@ -1,6 +1,7 @@
 package com.example.goboard.controller.state;
 
 import com.example.goboard.model.Player;
+import com.example.goboard.scoring.ScoreResult;
 
 /**
  * State pattern interface for managing different game phases.
@@ -44,4 +45,11 @@ public interface GameState {
      * @return consecutive pass count
      */
     int getConsecutivePasses();
+    
+    /**
+     * Get the final score, once the game is over.
+     * 
+     * @return score of the finished game, or null while it is being played
+     */
+    ScoreResult getScore();
 }
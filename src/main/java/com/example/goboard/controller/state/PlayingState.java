@@ -9,6 +9,9 @@ import com.example.goboard.strategy.MoveValidator;
 /**
  * State representing active gameplay where players take turns.
  * This is the main state where most of the game happens.
+ *
+ * The same instance stays installed for the whole game and is updated in
+ * place, so a move or pass allocates nothing.
  */
 public class PlayingState extends AbstractGameState {
 
@@ -20,25 +23,32 @@ public class PlayingState extends AbstractGameState {
 
     @Override
     public boolean play(int row, int col) {
-        Stone stone = new Stone(currentPlayer.getColor());
+        Stone stone = Stone.of(currentPlayer.getColor());
 
         // Validate move first using strategy
         if (!validator.isValid(board, row, col, stone)) {
             return false;
         }
 
+        // Reject moves that would recreate an earlier position (superko)
+        Player opponent = currentPlayer == blackPlayer ? whitePlayer : blackPlayer;
+        long nextHash = board.hashAfter(board.pointIndex(row, col), stone.code());
+        if (controller.isRepeatedPosition(nextHash, opponent.getColor())) {
+            return false;
+        }
+
         // placeStone returns int → -1 means illegal move
         int result = board.placeStone(row, col, stone);
         boolean ok = (result != -1);
 
         if (ok) {
+            controller.addPrisoners(currentPlayer.getColor(), result);
             // Reset consecutive passes after a successful move
             consecutivePasses = 0;
             swapPlayer();
-
-            // Stay in playing state
-            controller.setState(new PlayingState(controller, board, validator,
-                    blackPlayer, whitePlayer, currentPlayer, consecutivePasses));
+            controller.recordPosition(board.getHash(), currentPlayer.getColor());
+            controller.publishSnapshot();
+            // Stay in playing state (this instance)
         }
         return ok;
     }
@@ -46,6 +56,8 @@ public class PlayingState extends AbstractGameState {
     @Override
     public boolean pass() {
         consecutivePasses++;
+        board.pass(currentPlayer.getColor());
+        controller.publishSnapshot();
 
         if (consecutivePasses >= 2) {
             // Game ends after two consecutive passes
@@ -54,13 +66,20 @@ public class PlayingState extends AbstractGameState {
             return true;
         } else {
             swapPlayer();
-            // Stay in playing state with updated pass count
-            controller.setState(new PlayingState(controller, board, validator,
-                    blackPlayer, whitePlayer, currentPlayer, consecutivePasses));
+            controller.recordPosition(board.getHash(), currentPlayer.getColor());
+            // Stay in playing state (this instance) with updated pass count
             return false;
         }
     }
 
+    /**
+     * Reinstate this state at an earlier point of the game (used by undo/redo).
+     */
+    public void resume(Player currentPlayer, int consecutivePasses) {
+        this.currentPlayer = currentPlayer;
+        this.consecutivePasses = consecutivePasses;
+    }
+
     @Override
     public boolean isGameOver() {
         return false;
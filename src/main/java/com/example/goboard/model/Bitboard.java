@@ -0,0 +1,136 @@
+package com.example.goboard.model;
+
+
+/**
+ * Geometry and word-parallel operations for bitboards of one board size.
+ *
+ * A bitboard is a {@code long[]} with one bit per point. Rows are
+ * {@code width = size + 1} bits apart, so bit {@code row * width + col} is
+ * (row, col) and the extra column is always clear: a one-bit shift that walks
+ * off the end of a row lands in that column and is masked away instead of
+ * wrapping onto the next row. 19x19 takes six longs, 9x9 two.
+ *
+ * Each operation is a single pass over the words with no allocation; callers
+ * own the arrays (see {@link #newMask()}). Sizes up to 62 are supported, so a
+ * vertical shift never spans more than one word boundary.
+ */
+public final class Bitboard {
+    private final int size;
+    private final int width;
+    private final int words;
+    private final long[] onBoard;
+
+
+    public Bitboard(int size) {
+        if (size <= 0 || size > 62) throw new IllegalArgumentException("Bitboard size must be 1..62");
+        this.size = size;
+        this.width = size + 1;
+        this.words = (size * width + 63) >>> 6;
+        this.onBoard = new long[words];
+        for (int r = 0; r < size; r++) {
+            for (int c = 0; c < size; c++) {
+                set(onBoard, bit(r, c));
+            }
+        }
+    }
+
+
+    public int getSize() { return size; }
+    public int getWidth() { return width; }
+    public int getWords() { return words; }
+
+    public long[] newMask() { return new long[words]; }
+
+    public int bit(int row, int col) { return row * width + col; }
+    public int rowOf(int bit) { return bit / width; }
+    public int colOf(int bit) { return bit % width; }
+
+    public static boolean test(long[] mask, int bit) { return (mask[bit >>> 6] & (1L << bit)) != 0; }
+    public static void set(long[] mask, int bit) { mask[bit >>> 6] |= 1L << bit; }
+    public static void clear(long[] mask, int bit) { mask[bit >>> 6] &= ~(1L << bit); }
+
+    public static int count(long[] mask) {
+        int n = 0;
+        for (long w : mask) n += Long.bitCount(w);
+        return n;
+    }
+
+    /** Lowest set bit, or -1 if the mask is empty. */
+    public static int lowestBit(long[] mask) {
+        for (int i = 0; i < mask.length; i++) {
+            if (mask[i] != 0) return (i << 6) + Long.numberOfTrailingZeros(mask[i]);
+        }
+        return -1;
+    }
+
+    public static void clearAll(long[] mask) {
+        for (int i = 0; i < mask.length; i++) mask[i] = 0;
+    }
+
+    /** {@code dst = a & ~b}; dst may alias either argument. */
+    public static void andNot(long[] a, long[] b, long[] dst) {
+        for (int i = 0; i < dst.length; i++) dst[i] = a[i] & ~b[i];
+    }
+
+    /** {@code dst |= a & b}. */
+    public static void orAnd(long[] a, long[] b, long[] dst) {
+        for (int i = 0; i < dst.length; i++) dst[i] |= a[i] & b[i];
+    }
+
+    /** Empty points of the board given the two stone masks. */
+    public void empty(long[] black, long[] white, long[] dst) {
+        for (int i = 0; i < words; i++) dst[i] = onBoard[i] & ~(black[i] | white[i]);
+    }
+
+    /**
+     * Points orthogonally adjacent to any point of {@code src} (which may
+     * include points of {@code src} itself). {@code dst} must not alias src.
+     */
+    public void neighbours(long[] src, long[] dst) {
+        int up = 64 - width;
+        for (int i = 0; i < words; i++) {
+            long x = src[i];
+            long prev = i > 0 ? src[i - 1] : 0L;
+            long next = i + 1 < words ? src[i + 1] : 0L;
+            long east = (x << 1) | (prev >>> 63);
+            long west = (x >>> 1) | (next << 63);
+            long south = (x << width) | (prev >>> up);
+            long north = (x >>> width) | (next << up);
+            dst[i] = (east | west | south | north) & onBoard[i];
+        }
+    }
+
+    /**
+     * Grows {@code seed} in place to every point of {@code within} connected
+     * to it, i.e. the chains or regions of {@code within} that seed touches.
+     * Takes one pass per step of the longest path, using {@code tmp} as scratch.
+     */
+    public void flood(long[] seed, long[] within, long[] tmp) {
+        for (int i = 0; i < words; i++) seed[i] &= within[i];
+        while (true) {
+            neighbours(seed, tmp);
+            boolean grew = false;
+            for (int i = 0; i < words; i++) {
+                long w = seed[i] | (tmp[i] & within[i]);
+                if (w != seed[i]) {
+                    seed[i] = w;
+                    grew = true;
+                }
+            }
+            if (!grew) return;
+        }
+    }
+
+    /** Re-packs a bitboard as a dense {@code row * size + col} mask. */
+    public void toDense(long[] mask, long[] dense) {
+        clearAll(dense);
+        for (int i = 0; i < words; i++) {
+            long w = mask[i];
+            while (w != 0) {
+                int b = (i << 6) + Long.numberOfTrailingZeros(w);
+                w &= w - 1;
+                set(dense, rowOf(b) * size + colOf(b));
+            }
+        }
+    }
+}
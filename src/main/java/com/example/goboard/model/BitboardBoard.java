@@ -0,0 +1,175 @@
+package com.example.goboard.model;
+
+
+/**
+ * Packed board that also keeps a black and a white {@link Bitboard}, for bulk
+ * queries that look at the whole position at once: chain liberties, captures
+ * and the legal-move mask are computed with shift-and-mask operations over a
+ * handful of longs instead of visiting points one by one. The legal-move
+ * mask takes liberty counts from the packed engine's incrementally kept
+ * chains rather than flooding each chain again.
+ *
+ * Moves, captures, undo and setup edits still go through the
+ * {@link PackedBoard} engine (so the journal, hash and ko state are shared);
+ * the bitboards are updated from its point-change hook. Like the rest of the
+ * board, the query methods use scratch arrays owned by the board and must be
+ * called from the thread that mutates it.
+ */
+public class BitboardBoard extends PackedBoard {
+    private final Bitboard geometry;
+    private final long[] black;
+    private final long[] white;
+
+    // Scratch masks for the queries below
+    private final long[] empty;
+    private final long[] chain;
+    private final long[] libs;
+    private final long[] rest;
+    private final long[] tmp;
+    private final long[] result;
+    private final int[] bitOf;  // bitboard bit of each on-board point index
+
+    public BitboardBoard(int size) {
+        super(size);
+        this.geometry = new Bitboard(size);
+        this.black = geometry.newMask();
+        this.white = geometry.newMask();
+        this.empty = geometry.newMask();
+        this.chain = geometry.newMask();
+        this.libs = geometry.newMask();
+        this.rest = geometry.newMask();
+        this.tmp = geometry.newMask();
+        this.result = geometry.newMask();
+        this.bitOf = new int[getStride() * getStride()];
+        for (int r = 0; r < size; r++) {
+            for (int c = 0; c < size; c++) {
+                bitOf[pointIndex(r, c)] = geometry.bit(r, c);
+            }
+        }
+    }
+
+
+    public Bitboard getGeometry() { return geometry; }
+
+    /** Copies the stones of {@code color} (BLACK or WHITE) into {@code out}. */
+    public void copyStones(byte color, long[] out) {
+        System.arraycopy(color == BLACK ? black : white, 0, out, 0, out.length);
+    }
+
+    @Override
+    protected void onPointChanged(int p, byte color) {
+        int b = geometry.bit(rowOf(p), colOf(p));
+        Bitboard.clear(black, b);
+        Bitboard.clear(white, b);
+        if (color == BLACK) {
+            Bitboard.set(black, b);
+        } else if (color == WHITE) {
+            Bitboard.set(white, b);
+        }
+    }
+
+    /** Liberties of the chain at (row, col) by flood fill, or 0 if empty/off-board. */
+    public int liberties(int row, int col) {
+        if (!isOnBoard(row, col)) return 0;
+        int b = geometry.bit(row, col);
+        long[] own = Bitboard.test(black, b) ? black : Bitboard.test(white, b) ? white : null;
+        if (own == null) return 0;
+        geometry.empty(black, white, empty);
+        return chainLiberties(b, own);
+    }
+
+    /**
+     * Stones {@code color} would capture by playing the empty point
+     * (row, col), written to {@code out}. Returns how many there are.
+     */
+    public int captures(int row, int col, byte color, long[] out) {
+        Bitboard.clearAll(out);
+        if (!isOnBoard(row, col)) return 0;
+        long[] enemy = color == BLACK ? white : black;
+        int b = geometry.bit(row, col);
+        geometry.empty(black, white, empty);
+        Bitboard.clear(empty, b);
+        int width = geometry.getWidth();
+        int size = geometry.getSize();
+        if (col > 0) captureAt(b - 1, enemy, out);
+        if (col + 1 < size) captureAt(b + 1, enemy, out);
+        if (row > 0) captureAt(b - width, enemy, out);
+        if (row + 1 < size) captureAt(b + width, enemy, out);
+        return Bitboard.count(out);
+    }
+
+    /**
+     * Bitboard of the points where {@code color} may play: empty, not a
+     * simple-ko retake, and not suicide. Superko is left to the caller.
+     */
+    public void legalMask(byte color, long[] out) {
+        long[] own = color == BLACK ? black : white;
+        long[] enemy = color == BLACK ? white : black;
+        geometry.empty(black, white, empty);
+
+        // A point with an empty neighbour always has a liberty after the move
+        geometry.neighbours(empty, out);
+        for (int i = 0; i < out.length; i++) out[i] &= empty[i];
+
+        // Joining a chain that keeps another liberty is safe...
+        eachChain(own, 2, out);
+        // ...and so is taking the last liberty of an enemy chain
+        eachChain(enemy, 1, out);
+
+        if (getKoColor() == color && getKoPoint() >= 0) {
+            Bitboard.clear(out, geometry.bit(rowOf(getKoPoint()), colOf(getKoPoint())));
+        }
+    }
+
+    /** {@link #legalMask} as a dense {@code row * size + col} mask, as MoveValidator returns. */
+    public long[] legalMoves(byte color) {
+        int size = geometry.getSize();
+        long[] dense = new long[(size * size + 63) >>> 6];
+        legalMask(color, result);
+        geometry.toDense(result, dense);
+        return dense;
+    }
+
+    /**
+     * For every chain in {@code stones}, adds its liberties to {@code out}
+     * when it has at least {@code min} (min 2) or exactly one (min 1) of them.
+     * The counts come from the packed chains; the stones of the chains that
+     * qualify are gathered and their liberties found with a single neighbour
+     * shift. Expects {@code empty} to be current.
+     */
+    private void eachChain(long[] stones, int min, long[] out) {
+        System.arraycopy(stones, 0, rest, 0, rest.length);
+        Bitboard.clearAll(chain);
+        int b;
+        while ((b = Bitboard.lowestBit(rest)) >= 0) {
+            int start = pointIndex(geometry.rowOf(b), geometry.colOf(b));
+            int n = libertyCount(chainOf(start));
+            boolean wanted = min == 1 ? n == 1 : n >= min;
+            int p = start;
+            do {
+                Bitboard.clear(rest, bitOf[p]);
+                if (wanted) Bitboard.set(chain, bitOf[p]);
+                p = nextInChain(p);
+            } while (p != start);
+        }
+        geometry.neighbours(chain, libs);
+        for (int i = 0; i < out.length; i++) out[i] |= libs[i] & empty[i];
+    }
+
+    /** Floods the chain through bit {@code b} into {@code chain} and its liberties into {@code libs}. */
+    private int chainLiberties(int b, long[] stones) {
+        Bitboard.clearAll(chain);
+        Bitboard.set(chain, b);
+        geometry.flood(chain, stones, tmp);
+        geometry.neighbours(chain, libs);
+        for (int i = 0; i < libs.length; i++) libs[i] &= empty[i];
+        return Bitboard.count(libs);
+    }
+
+    private void captureAt(int b, long[] enemy, long[] out) {
+        if (!Bitboard.test(enemy, b) || Bitboard.test(out, b)) return;
+        if (chainLiberties(b, enemy) == 0) {
+            for (int i = 0; i < out.length; i++) out[i] |= chain[i];
+        }
+    }
+}
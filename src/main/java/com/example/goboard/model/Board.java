@@ -1,99 +1,138 @@
 package com.example.goboard.model;
 
-import java.util.ArrayList;
-import java.util.List;
 import com.example.goboard.observer.BoardListener;
 
-public class Board {
-    private final int size;
-    private final Intersection[][] intersections;
-    private final List<BoardListener> listeners = new ArrayList<>();
+/**
+ * Go board.
+ *
+ * Points are addressed by index into a padded array with a one-point border:
+ * point (row, col) lives at {@code (row + 1) * stride + (col + 1)} where
+ * {@code stride = size + 2}, so neighbours are always at {@code +-1} and
+ * {@code +-stride} and never need a bounds check. Each point holds one of the
+ * packed codes below.
+ *
+ * Implementations are chosen by {@link com.example.goboard.builder.BoardBuilder}:
+ * {@link PackedBoard} for every size, or {@link BitboardBoard} when
+ * bitboards are wanted.
+ */
+public interface Board extends BoardView {
+    byte EMPTY = 0;
+    byte BLACK = 1;
+    byte WHITE = 2;
+    byte BORDER = 3;
 
-    public Board(int size) {
-        if (size <= 0) throw new IllegalArgumentException("Size must be > 0");
-        this.size = size;
-        intersections = new Intersection[size][size];
-        for (int r = 0; r < size; r++) {
-            for (int c = 0; c < size; c++) {
-                intersections[r][c] = new Intersection(r, c);
-            }
-        }
-    }
+    int rowOf(int point);
+    int colOf(int point);
 
-    public int getSize() { return size; }
+    /** View of (row, col) for the UI, or null when off the board. */
+    Intersection getIntersection(int row, int col);
 
-    public Intersection getIntersection(int row, int col) {
-        if (row < 0 || row >= size || col < 0 || col >= size) return null;
-        return intersections[row][col];
-    }
+    // ---- Position state ------------------------------------------------
 
-    public void addListener(BoardListener l) { listeners.add(l); }
-    public void removeListener(BoardListener l) { listeners.remove(l); }
+    /** Moves played on this board, for walking the game history. */
+    MoveJournal getJournal();
 
-    public int placeStone(int row, int col, Stone stone) {
-        return placeSimple(row, col, stone);
-    }
+    /** Modification counter, bumped by every move, pass, undo, redo and edit. */
+    int getVersion();
+
+    /**
+     * Immutable view of the current position. Repeated calls without an
+     * intervening change return the same snapshot. Like every other method,
+     * this must be called by the thread that mutates the board; the returned
+     * snapshot can then be handed to any thread.
+     */
+    BoardSnapshot snapshot();
+
+    /** Point that {@link #getKoColor()} may not play next because of simple ko, or -1. */
+    int getKoPoint();
+
+    /** Color currently barred from retaking the ko, or EMPTY if there is no ko. */
+    byte getKoColor();
+
+    /**
+     * Hash the position would have after {@code color} plays the empty point
+     * {@code p}, including captures, without touching the board. Only
+     * meaningful for moves that are otherwise legal.
+     */
+    long hashAfter(int p, byte color);
+
+    // ---- Chain queries -------------------------------------------------
+
+    /** Id (root point index) of the chain at (row, col), or -1 if empty/off-board. */
+    int getChainId(int row, int col);
+
+    /** Number of stones in the chain at (row, col), or 0 if empty/off-board. */
+    int getChainSize(int row, int col);
+
+    /** Number of distinct liberties of the chain at (row, col), or 0 if empty/off-board. */
+    int getChainLiberties(int row, int col);
+
+    /** Chain root for a padded point index, or -1 if the point holds no stone. */
+    int chainOf(int point);
+
+    /** Stone count of a chain, given its root. */
+    int chainSize(int root);
+
+    /** Liberty count of a chain, given its root. */
+    int libertyCount(int root);
+
+    /** Next stone in the same chain (circular), for walking a chain's stones. */
+    int nextInChain(int point);
+
+    /** Whether {@code point} is a liberty of the chain rooted at {@code root}. */
+    boolean isLiberty(int root, int point);
+
+    // ---- Rules queries -------------------------------------------------
+
+    /** True if {@code color} playing {@code p} would immediately retake a simple ko. */
+    boolean isKo(int p, byte color);
+
+    /**
+     * True if playing {@code color} on the empty point {@code p} would leave
+     * the new chain without liberties and capture nothing.
+     */
+    boolean isSuicide(int p, byte color);
+
+    int countSingleStoneLiberties(int row, int col);
+
+    // ---- Mutation ------------------------------------------------------
+
+    /**
+     * Writes a point directly, without captures or suicide checks.
+     * Used for setting up positions (e.g. from a server board state);
+     * since the edit is not a move, it also clears the journal.
+     */
+    void setStone(int row, int col, Stone stone);
+
+    void addListener(BoardListener l);
+    void removeListener(BoardListener l);
+
+    int placeStone(int row, int col, Stone stone);
 
     // Implements Go rules: stone placement, group capture, suicide prevention
-    public int placeSimple(int row, int col, Stone stone) {
-        Intersection it = getIntersection(row, col);
-        if (it == null || !it.isEmpty()) return -1;
-
-        it.setStone(stone);
-
-        int captured = 0;
-
-        int[][] dirs = {
-                {1, 0}, {-1, 0}, {0, 1}, {0, -1}
-        };
-
-        for (int[] d : dirs) {
-            Intersection n = getIntersection(row + d[0], col + d[1]);
-            if (n == null || n.isEmpty()) continue;
-
-            if (n.getStone().getColor() != stone.getColor()) {
-                if (removeSingleStoneIfDead(n.getRow(), n.getCol())) {
-                    captured++;
-                }
-            }
-        }
-
-        if (countSingleStoneLiberties(row, col) == 0) {
-            it.setStone(null);
-            return -1;
-        }
-
-        return captured;
-    }
-
-    public int countSingleStoneLiberties(int row, int col) {
-        Intersection it = getIntersection(row, col);
-        if (it == null || it.isEmpty()) return 0;
-
-        int liberties = 0;
-
-        int[][] dirs = {
-                {1, 0}, {-1, 0}, {0, 1}, {0, -1}
-        };
-
-        for (int[] d : dirs) {
-            Intersection n = getIntersection(row + d[0], col + d[1]);
-            if (n != null && n.isEmpty()) {
-                liberties++;
-            }
-        }
-
-        return liberties;
-    }
-
-    public boolean removeSingleStoneIfDead(int row, int col) {
-        if (countSingleStoneLiberties(row, col) == 0) {
-            Intersection it = getIntersection(row, col);
-            if (it != null && !it.isEmpty()) {
-                it.setStone(null);
-                return true;
-            }
-        }
-        return false;
-    }
+    int placeSimple(int row, int col, Stone stone);
+
+    /**
+     * Plays {@code color} at a padded point index.
+     * Returns the number of captured stones, or -1 if the point is occupied,
+     * retakes a simple ko, or would be suicide; an illegal move leaves the
+     * board untouched.
+     */
+    int play(int p, byte color);
+
+    /** Records a pass by {@code color}, which lifts any simple-ko restriction. */
+    void pass(Stone.Color color);
+
+    /**
+     * Takes back the last journaled move or pass: lifts the stone, puts back
+     * what it captured and restores the ko state. Returns false at the start
+     * of the journal.
+     */
+    boolean undo();
+
+    /** Replays the next undone move or pass. Returns false if there is none. */
+    boolean redo();
+
+    /** Removes the whole chain at (row, col) if it has no liberties left. */
+    boolean removeSingleStoneIfDead(int row, int col);
 }
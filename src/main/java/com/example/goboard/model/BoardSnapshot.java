@@ -0,0 +1,37 @@
+package com.example.goboard.model;
+
+
+/**
+ * Immutable position taken from a {@link Board}. The snapshot shares the
+ * board's point array; the board copies that array before its next write
+ * (copy-on-write), so taking a snapshot is O(1) and any number of threads can
+ * read it without locks.
+ */
+public final class BoardSnapshot implements BoardView {
+    private final int size;
+    private final int stride;
+    private final byte[] points;
+    private final long hash;
+    private final int version;
+    private final int moveNumber;
+
+    BoardSnapshot(int size, int stride, byte[] points, long hash, int version, int moveNumber) {
+        this.size = size;
+        this.stride = stride;
+        this.points = points;
+        this.hash = hash;
+        this.version = version;
+        this.moveNumber = moveNumber;
+    }
+
+    @Override public int getSize() { return size; }
+    @Override public int getStride() { return stride; }
+    @Override public byte get(int point) { return points[point]; }
+    @Override public long getHash() { return hash; }
+
+    /** Board modification counter at the time the snapshot was taken. */
+    public int getVersion() { return version; }
+
+    /** Number of journaled moves and passes leading to this position. */
+    public int getMoveNumber() { return moveNumber; }
+}
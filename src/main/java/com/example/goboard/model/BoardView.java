@@ -0,0 +1,36 @@
+package com.example.goboard.model;
+
+
+/**
+ * Read-only access to a board position in the packed, padded layout
+ * described on {@link Board}. Implemented by the live board and by its
+ * immutable {@link BoardSnapshot}s, so scorers and serializers can take either.
+ */
+public interface BoardView {
+    int getSize();
+
+    /** Row length of the padded point array. */
+    int getStride();
+
+    /** Packed code (EMPTY, BLACK, WHITE, BORDER) at a padded point index. */
+    byte get(int point);
+
+    /** Zobrist hash of the position. */
+    long getHash();
+
+    /** Index of (row, col) in the padded point array; no bounds check. */
+    default int pointIndex(int row, int col) {
+        return (row + 1) * getStride() + col + 1;
+    }
+
+    default boolean isOnBoard(int row, int col) {
+        int size = getSize();
+        return row >= 0 && row < size && col >= 0 && col < size;
+    }
+
+    /** Packed code at (row, col), or BORDER when off the board. */
+    default byte getColor(int row, int col) {
+        if (!isOnBoard(row, col)) return Board.BORDER;
+        return get(pointIndex(row, col));
+    }
+}
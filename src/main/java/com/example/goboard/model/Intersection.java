@@ -1,13 +1,18 @@
 package com.example.goboard.model;
 
 
+/**
+ * Thin view of a single board point. Holds no stone of its own: reads and
+ * writes go straight to the packed array of the owning {@link Board}.
+ */
 public class Intersection {
+    private final Board board;
     private final int row;
     private final int col;
-    private Stone stone;
 
 
-    public Intersection(int row, int col) {
+    public Intersection(Board board, int row, int col) {
+        this.board = board;
         this.row = row;
         this.col = col;
     }
@@ -17,7 +22,7 @@ public class Intersection {
     public int getCol() { return col; }
 
 
-    public boolean isEmpty() { return stone == null; }
-    public Stone getStone() { return stone; }
-    public void setStone(Stone s) { this.stone = s; }
-}
\ No newline at end of file
+    public boolean isEmpty() { return board.getColor(row, col) == Board.EMPTY; }
+    public Stone getStone() { return Stone.fromCode(board.getColor(row, col)); }
+    public void setStone(Stone s) { board.setStone(row, col, s); }
+}
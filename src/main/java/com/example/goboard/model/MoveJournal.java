@@ -0,0 +1,124 @@
+package com.example.goboard.model;
+
+import java.util.Arrays;
+
+/**
+ * Compact record of the moves played on a {@link Board}: one slot per move or
+ * pass, plus the points each move captured, all in primitive arrays. The board
+ * writes to it; everyone else can walk it read-only.
+ *
+ * <p>Entries {@code [0, getMoveCount())} lead to the current position; entries
+ * {@code [getMoveCount(), getLength())} were undone and can be redone until
+ * a new move is played.
+ */
+public class MoveJournal {
+    /** Point value recorded for a pass. */
+    public static final int PASS = -1;
+
+    private final int stride;
+    private int[] points;
+    private byte[] colors;
+    private int[] koPoints;
+    private byte[] koColors;
+    private int[] captureStart;
+    private int[] captured;
+    private int cursor;
+    private int length;
+
+    MoveJournal(int stride, int expectedMoves) {
+        this.stride = stride;
+        int n = Math.max(16, expectedMoves);
+        points = new int[n];
+        colors = new byte[n];
+        koPoints = new int[n];
+        koColors = new byte[n];
+        captureStart = new int[n + 1];
+        captured = new int[n];
+    }
+
+    /** Number of moves leading to the current position. */
+    public int getMoveCount() { return cursor; }
+
+    /** Number of recorded moves, including undone ones that can be redone. */
+    public int getLength() { return length; }
+
+    public boolean isPass(int move) { return points[move] == PASS; }
+
+    /** Padded point index of a move, or {@link #PASS}. */
+    public int getPoint(int move) { return points[move]; }
+
+    public int getRow(int move) { return isPass(move) ? -1 : points[move] / stride - 1; }
+    public int getCol(int move) { return isPass(move) ? -1 : points[move] % stride - 1; }
+
+    /** Packed color code (Board.BLACK / Board.WHITE) of the player who moved. */
+    public byte getColorCode(int move) { return colors[move]; }
+
+    public Stone.Color getColor(int move) {
+        return colors[move] == Board.BLACK ? Stone.Color.BLACK : Stone.Color.WHITE;
+    }
+
+    public int getCaptureCount(int move) {
+        return captureStart[move + 1] - captureStart[move];
+    }
+
+    /** Padded point index of the {@code i}-th stone captured by a move. */
+    public int getCaptured(int move, int i) {
+        return captured[captureStart[move] + i];
+    }
+
+    /** Trailing passes before the current position (0, 1 or 2+). */
+    public int trailingPasses() {
+        int n = 0;
+        for (int i = cursor - 1; i >= 0 && points[i] == PASS && n < 2; i--) {
+            n++;
+        }
+        return n;
+    }
+
+    // ---- Writes, by the owning board only -------------------------------
+
+    /** Starts a new entry at the cursor; a fresh move discards the redo tail. */
+    void begin(int point, byte color, int koPoint, byte koColor, boolean keepRedo) {
+        if (cursor == points.length) {
+            int n = points.length * 2;
+            points = Arrays.copyOf(points, n);
+            colors = Arrays.copyOf(colors, n);
+            koPoints = Arrays.copyOf(koPoints, n);
+            koColors = Arrays.copyOf(koColors, n);
+            captureStart = Arrays.copyOf(captureStart, n + 1);
+        }
+        points[cursor] = point;
+        colors[cursor] = color;
+        koPoints[cursor] = koPoint;
+        koColors[cursor] = koColor;
+        captureStart[cursor + 1] = captureStart[cursor];
+        if (!keepRedo) {
+            length = cursor + 1;
+        }
+    }
+
+    void addCaptures(int[] stones, int count) {
+        int end = captureStart[cursor + 1];
+        if (end + count > captured.length) {
+            captured = Arrays.copyOf(captured, Math.max(captured.length * 2, end + count));
+        }
+        System.arraycopy(stones, 0, captured, end, count);
+        captureStart[cursor + 1] = end + count;
+    }
+
+    void commit() {
+        cursor++;
+    }
+
+    void stepBack() {
+        cursor--;
+    }
+
+    int koPointBefore(int move) { return koPoints[move]; }
+    byte koColorBefore(int move) { return koColors[move]; }
+
+    void clear() {
+        cursor = 0;
+        length = 0;
+    }
+}
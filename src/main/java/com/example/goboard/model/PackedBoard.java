@@ -0,0 +1,512 @@
+package com.example.goboard.model;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import com.example.goboard.observer.BoardListener;
+
+/**
+ * Go board backed by a single flat byte array with a one-point border.
+ * Point (row, col) lives at index {@code (row + 1) * stride + (col + 1)} where
+ * {@code stride = size + 2}, so neighbours are always at {@code +-1} and
+ * {@code +-stride} and never need a bounds check.
+ *
+ * <p>Stones are grouped into chains with a union-find forest ({@code parent})
+ * plus a circular stone list per chain ({@code next}). Each chain root owns a
+ * liberty bitset and a liberty count that are updated incrementally, so a move
+ * only touches the (at most four) adjacent chains and captures cost time
+ * proportional to the stones removed.
+ *
+ * <p>The board also carries a 64-bit {@link Zobrist} hash of the position,
+ * updated by XOR on every placement and capture (each chain keeps the XOR of
+ * its stones' keys so a capture costs one XOR), and the simple-ko point.
+ *
+ * <p>Every rules move and pass is written to a {@link MoveJournal} together
+ * with the stones it captured, so {@link #undo()} and {@link #redo()} cost time
+ * proportional to the captures (plus the chain the undone stone belonged to,
+ * which has to be re-linked) rather than a board copy.
+ *
+ * <p>{@link #snapshot()} publishes the current position as an immutable
+ * {@link BoardSnapshot} that shares the point array; the first write after a
+ * snapshot copies the array (copy-on-write), so readers never see a change and
+ * never need their own copy.
+ */
+public class PackedBoard implements Board {
+    private final int size;
+    private final int stride;
+    private byte[] points;
+    private boolean pointsShared;    // a snapshot holds the current array
+    private BoardSnapshot snapshot;
+    private int version;
+    private final int[] neighbours;
+    private final Intersection[] views;
+    private final List<BoardListener> listeners = new ArrayList<>();
+
+    // Chain engine, all indexed by padded point index
+    private final int[] parent;
+    private final int[] next;
+    private final int[] chainSize;
+    private final int[] libCount;
+    private final long[] libs;       // libWords longs per chain root
+    private final int libWords;
+    private final long[] chainHash;  // XOR of the chain's stone keys, at the root
+    private final int[] scratch;     // reused when a chain has to be rebuilt
+
+    private final MoveJournal journal;
+
+    private long hash;
+    private int koPoint = -1;        // point the side to move may not retake
+    private byte koColor = EMPTY;    // color that is forbidden to play at koPoint
+
+    public PackedBoard(int size) {
+        if (size <= 0) throw new IllegalArgumentException("Size must be > 0");
+        this.size = size;
+        this.stride = size + 2;
+        int total = stride * stride;
+        this.points = new byte[total];
+        this.neighbours = new int[] { -stride, -1, 1, stride };
+        this.views = new Intersection[size * size];
+        this.parent = new int[total];
+        this.next = new int[total];
+        this.chainSize = new int[total];
+        this.libCount = new int[total];
+        this.libWords = (total + 63) >>> 6;
+        this.libs = new long[total * libWords];
+        this.chainHash = new long[total];
+        this.scratch = new int[total];
+        this.journal = new MoveJournal(stride, size * size * 2);
+        Arrays.fill(points, BORDER);
+        for (int r = 0; r < size; r++) {
+            for (int c = 0; c < size; c++) {
+                points[pointIndex(r, c)] = EMPTY;
+            }
+        }
+    }
+
+    @Override
+    public int getSize() { return size; }
+
+    @Override
+    public int getStride() { return stride; }
+
+    @Override
+    public int pointIndex(int row, int col) {
+        return (row + 1) * stride + col + 1;
+    }
+
+    @Override
+    public int rowOf(int point) { return point / stride - 1; }
+    @Override
+    public int colOf(int point) { return point % stride - 1; }
+
+    @Override
+    public boolean isOnBoard(int row, int col) {
+        return row >= 0 && row < size && col >= 0 && col < size;
+    }
+
+    @Override
+    public byte get(int point) { return points[point]; }
+
+    @Override
+    public byte getColor(int row, int col) {
+        if (!isOnBoard(row, col)) return BORDER;
+        return points[pointIndex(row, col)];
+    }
+
+    @Override
+    public Intersection getIntersection(int row, int col) {
+        if (!isOnBoard(row, col)) return null;
+        int i = row * size + col;
+        Intersection view = views[i];
+        if (view == null) {
+            view = new Intersection(this, row, col);
+            views[i] = view;
+        }
+        return view;
+    }
+
+    @Override
+    public MoveJournal getJournal() { return journal; }
+
+    @Override
+    public long getHash() { return hash; }
+
+    @Override
+    public int getVersion() { return version; }
+
+    @Override
+    public BoardSnapshot snapshot() {
+        if (snapshot == null || snapshot.getVersion() != version) {
+            pointsShared = true;
+            snapshot = new BoardSnapshot(size, stride, points, hash, version, journal.getMoveCount());
+        }
+        return snapshot;
+    }
+
+    @Override
+    public int getKoPoint() { return koPoint; }
+
+    @Override
+    public byte getKoColor() { return koColor; }
+
+    @Override
+    public long hashAfter(int p, byte color) {
+        long h = hash ^ Zobrist.key(p, color);
+        byte enemy = color == BLACK ? WHITE : BLACK;
+        int r0 = -1, r1 = -1, r2 = -1;
+        for (int d : neighbours) {
+            int n = p + d;
+            if (points[n] != enemy) continue;
+            int root = find(n);
+            if (libCount[root] != 1 || root == r0 || root == r1 || root == r2) continue;
+            h ^= chainHash[root];
+            if (r0 < 0) r0 = root; else if (r1 < 0) r1 = root; else r2 = root;
+        }
+        return h;
+    }
+
+    // ---- Chain queries -------------------------------------------------
+
+    @Override
+    public int getChainId(int row, int col) {
+        if (!isOnBoard(row, col)) return -1;
+        return chainOf(pointIndex(row, col));
+    }
+
+    @Override
+    public int getChainSize(int row, int col) {
+        int id = getChainId(row, col);
+        return id < 0 ? 0 : chainSize[id];
+    }
+
+    @Override
+    public int getChainLiberties(int row, int col) {
+        int id = getChainId(row, col);
+        return id < 0 ? 0 : libCount[id];
+    }
+
+    @Override
+    public int chainOf(int point) {
+        byte c = points[point];
+        if (c != BLACK && c != WHITE) return -1;
+        return find(point);
+    }
+
+    @Override
+    public int chainSize(int root) { return chainSize[root]; }
+
+    @Override
+    public int libertyCount(int root) { return libCount[root]; }
+
+    @Override
+    public int nextInChain(int point) { return next[point]; }
+
+    @Override
+    public boolean isLiberty(int root, int point) {
+        return (libs[root * libWords + (point >>> 6)] & (1L << point)) != 0;
+    }
+
+    // ---- Mutation ------------------------------------------------------
+
+    @Override
+    public void setStone(int row, int col, Stone stone) {
+        if (!isOnBoard(row, col)) return;
+        int p = pointIndex(row, col);
+        byte code = stone == null ? EMPTY : stone.code();
+        if (points[p] == code) return;
+        beginWrite();
+        if (points[p] != EMPTY) {
+            removeStone(p);
+        }
+        if (code != EMPTY) {
+            putStone(p, code);
+        }
+        clearKo();
+        journal.clear();
+    }
+
+    @Override
+    public void addListener(BoardListener l) { listeners.add(l); }
+    @Override
+    public void removeListener(BoardListener l) { listeners.remove(l); }
+
+    @Override
+    public int placeStone(int row, int col, Stone stone) {
+        return placeSimple(row, col, stone);
+    }
+
+    @Override
+    public int placeSimple(int row, int col, Stone stone) {
+        if (!isOnBoard(row, col)) return -1;
+        return play(pointIndex(row, col), stone.code());
+    }
+
+    @Override
+    public int play(int p, byte color) {
+        return play(p, color, false);
+    }
+
+    private int play(int p, byte color, boolean redo) {
+        if (points[p] != EMPTY || isKo(p, color) || isSuicide(p, color)) return -1;
+
+        beginWrite();
+        journal.begin(p, color, koPoint, koColor, redo);
+        putStone(p, color);
+
+        byte enemy = color == BLACK ? WHITE : BLACK;
+        int captured = 0;
+        int lastCaptured = -1;
+        for (int d : neighbours) {
+            int n = p + d;
+            if (points[n] == enemy) {
+                int root = find(n);
+                if (libCount[root] == 0) {
+                    lastCaptured = root;
+                    int removed = removeChain(root);
+                    journal.addCaptures(scratch, removed);
+                    captured += removed;
+                }
+            }
+        }
+
+        // A single stone that captured a single stone and now sits in atari is a ko
+        int root = find(p);
+        if (captured == 1 && chainSize[root] == 1 && libCount[root] == 1) {
+            koPoint = lastCaptured;
+            koColor = enemy;
+        } else {
+            clearKo();
+        }
+        journal.commit();
+        return captured;
+    }
+
+    @Override
+    public void pass(Stone.Color color) {
+        pass(Stone.code(color), false);
+    }
+
+    private void pass(byte color, boolean redo) {
+        version++;
+        journal.begin(MoveJournal.PASS, color, koPoint, koColor, redo);
+        clearKo();
+        journal.commit();
+    }
+
+    @Override
+    public boolean undo() {
+        int m = journal.getMoveCount() - 1;
+        if (m < 0) return false;
+        beginWrite();
+        int p = journal.getPoint(m);
+        if (p != MoveJournal.PASS) {
+            byte enemy = journal.getColorCode(m) == BLACK ? WHITE : BLACK;
+            removeStone(p);
+            int n = journal.getCaptureCount(m);
+            for (int i = 0; i < n; i++) {
+                putStone(journal.getCaptured(m, i), enemy);
+            }
+        }
+        koPoint = journal.koPointBefore(m);
+        koColor = journal.koColorBefore(m);
+        journal.stepBack();
+        return true;
+    }
+
+    @Override
+    public boolean redo() {
+        int m = journal.getMoveCount();
+        if (m == journal.getLength()) return false;
+        int p = journal.getPoint(m);
+        if (p == MoveJournal.PASS) {
+            pass(journal.getColorCode(m), true);
+        } else {
+            play(p, journal.getColorCode(m), true);
+        }
+        return true;
+    }
+
+    @Override
+    public boolean isKo(int p, byte color) {
+        return p == koPoint && color == koColor;
+    }
+
+    @Override
+    public boolean isSuicide(int p, byte color) {
+        for (int d : neighbours) {
+            int n = p + d;
+            byte c = points[n];
+            if (c == EMPTY) return false;
+            if (c == BORDER) continue;
+            int lib = libCount[find(n)];
+            if (c == color ? lib > 1 : lib == 1) return false;
+        }
+        return true;
+    }
+
+    @Override
+    public int countSingleStoneLiberties(int row, int col) {
+        if (!isOnBoard(row, col)) return 0;
+        int p = pointIndex(row, col);
+        if (points[p] == EMPTY) return 0;
+        int liberties = 0;
+        for (int d : neighbours) {
+            if (points[p + d] == EMPTY) {
+                liberties++;
+            }
+        }
+        return liberties;
+    }
+
+    @Override
+    public boolean removeSingleStoneIfDead(int row, int col) {
+        int id = getChainId(row, col);
+        if (id < 0 || libCount[id] != 0) return false;
+        beginWrite();
+        removeChain(id);
+        journal.clear();
+        return true;
+    }
+
+    /**
+     * Called for every point the engine writes, after the write. Lets a
+     * subclass keep its own representation of the stones in step with moves,
+     * captures, undo and setup edits without seeing the chain internals.
+     */
+    protected void onPointChanged(int p, byte color) {
+    }
+
+    // ---- Chain engine internals ------------------------------------------
+
+    /** Copies the point array if a snapshot shares it, and bumps the version. */
+    private void beginWrite() {
+        if (pointsShared) {
+            points = points.clone();
+            pointsShared = false;
+        }
+        version++;
+    }
+
+    private void clearKo() {
+        koPoint = -1;
+        koColor = EMPTY;
+    }
+
+    private int find(int p) {
+        while (parent[p] != p) {
+            parent[p] = parent[parent[p]];
+            p = parent[p];
+        }
+        return p;
+    }
+
+    private void addLiberty(int root, int point) {
+        int w = root * libWords + (point >>> 6);
+        long bit = 1L << point;
+        if ((libs[w] & bit) == 0) {
+            libs[w] |= bit;
+            libCount[root]++;
+        }
+    }
+
+    private void removeLiberty(int root, int point) {
+        int w = root * libWords + (point >>> 6);
+        long bit = 1L << point;
+        if ((libs[w] & bit) != 0) {
+            libs[w] &= ~bit;
+            libCount[root]--;
+        }
+    }
+
+    /** Places a stone and joins it to adjacent friendly chains; no captures. */
+    private void putStone(int p, byte color) {
+        long key = Zobrist.key(p, color);
+        points[p] = color;
+        onPointChanged(p, color);
+        hash ^= key;
+        parent[p] = p;
+        next[p] = p;
+        chainSize[p] = 1;
+        chainHash[p] = key;
+        libCount[p] = 0;
+        Arrays.fill(libs, p * libWords, (p + 1) * libWords, 0L);
+
+        for (int d : neighbours) {
+            int n = p + d;
+            byte c = points[n];
+            if (c == EMPTY) {
+                addLiberty(p, n);
+            } else if (c != BORDER) {
+                removeLiberty(find(n), p);
+            }
+        }
+        for (int d : neighbours) {
+            int n = p + d;
+            if (points[n] == color) {
+                union(find(p), find(n));
+            }
+        }
+    }
+
+    private void union(int a, int b) {
+        if (a == b) return;
+        if (chainSize[a] < chainSize[b]) {
+            int t = a; a = b; b = t;
+        }
+        parent[b] = a;
+        chainSize[a] += chainSize[b];
+        chainHash[a] ^= chainHash[b];
+
+        int wa = a * libWords;
+        int wb = b * libWords;
+        int count = 0;
+        for (int i = 0; i < libWords; i++) {
+            libs[wa + i] |= libs[wb + i];
+            count += Long.bitCount(libs[wa + i]);
+        }
+        libCount[a] = count;
+
+        // Splice the two circular stone lists together
+        int t = next[a];
+        next[a] = next[b];
+        next[b] = t;
+    }
+
+    /** Removes every stone of a chain and hands the freed points to neighbours as liberties. */
+    private int removeChain(int root) {
+        hash ^= chainHash[root];
+        int removed = 0;
+        int s = root;
+        do {
+            points[s] = EMPTY;
+            onPointChanged(s, EMPTY);
+            scratch[removed++] = s;
+            s = next[s];
+        } while (s != root);
+
+        for (int i = 0; i < removed; i++) {
+            int p = scratch[i];
+            for (int d : neighbours) {
+                int n = p + d;
+                byte c = points[n];
+                if (c == BLACK || c == WHITE) {
+                    addLiberty(find(n), p);
+                }
+            }
+        }
+        return removed;
+    }
+
+    /** Removes one stone, re-linking what is left of its chain (which may split). */
+    private void removeStone(int p) {
+        byte color = points[p];
+        int root = find(p);
+        // removeChain leaves the chain's stones in scratch, which putStone does not touch
+        int count = removeChain(root);
+        for (int i = 0; i < count; i++) {
+            if (scratch[i] != p) {
+                putStone(scratch[i], color);
+            }
+        }
+    }
+}
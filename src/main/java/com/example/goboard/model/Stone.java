@@ -1,13 +1,52 @@
 package com.example.goboard.model;
 
 
+/**
+ * Stone value object. The board itself stores stones as packed codes
+ * ({@link Board#BLACK}, {@link Board#WHITE}); use {@link #of(Color)} to get the
+ * shared flyweight instead of allocating a new stone per move.
+ */
 public class Stone {
     public enum Color { BLACK, WHITE, UNASSIGNED }
+
+    public static final Stone BLACK = new Stone(Color.BLACK);
+    public static final Stone WHITE = new Stone(Color.WHITE);
+
     private final Color color;
 
 
     public Stone(Color color) { this.color = color; }
     public Color getColor() { return color; }
+
+    /** Shared stone for the given color (null for UNASSIGNED). */
+    public static Stone of(Color color) {
+        if (color == Color.BLACK) return BLACK;
+        if (color == Color.WHITE) return WHITE;
+        return null;
+    }
+
+    /** Shared stone for a packed board code, or null for an empty point. */
+    public static Stone fromCode(byte code) {
+        if (code == Board.BLACK) return BLACK;
+        if (code == Board.WHITE) return WHITE;
+        return null;
+    }
+
+    /** Packed board code for a color. */
+    public static byte code(Color color) {
+        if (color == Color.BLACK) return Board.BLACK;
+        if (color == Color.WHITE) return Board.WHITE;
+        return Board.EMPTY;
+    }
+
+    public byte code() { return code(color); }
+
+    @Override public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof Stone)) return false;
+        return color == ((Stone) o).color;
+    }
+    @Override public int hashCode() { return color.hashCode(); }
     @Override public String toString() {
         if (color == Color.BLACK) return "B";
         if (color == Color.WHITE) return "W";
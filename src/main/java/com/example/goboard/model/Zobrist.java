@@ -0,0 +1,57 @@
+package com.example.goboard.model;
+
+
+/**
+ * Zobrist keys for position hashing. Keys are derived deterministically from
+ * the padded point index and stone color, so the same position hashes to the
+ * same 64-bit value on every board, in every process; the hash is safe to use
+ * as a cache key outside the board that produced it.
+ */
+public final class Zobrist {
+    /** XOR-ed into a position hash when white is to move (situational superko). */
+    public static final long WHITE_TO_MOVE = mix(-1L);
+
+    private static volatile long[] keys = build(2 * 32 * 32);
+
+    private Zobrist() {}
+
+    /** Key for a stone of {@code color} (BLACK or WHITE) on a padded point index. */
+    public static long key(int point, byte color) {
+        int i = (point << 1) + color - 1;
+        long[] k = keys;
+        if (i >= k.length) {
+            k = grow(i + 1);
+        }
+        return k[i];
+    }
+
+    /** Key of the side to move, for situational hashing. */
+    public static long sideToMove(Stone.Color color) {
+        return color == Stone.Color.WHITE ? WHITE_TO_MOVE : 0L;
+    }
+
+    private static synchronized long[] grow(int minLength) {
+        long[] k = keys;
+        if (k.length < minLength) {
+            k = build(Math.max(minLength, k.length * 2));
+            keys = k;
+        }
+        return k;
+    }
+
+    private static long[] build(int length) {
+        long[] k = new long[length];
+        for (int i = 0; i < length; i++) {
+            k[i] = mix(i);
+        }
+        return k;
+    }
+
+    // SplitMix64 finaliser
+    private static long mix(long x) {
+        long z = x * 0x9E3779B97F4A7C15L + 0x632BE59BD9B4E019L;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
@@ -1,131 +1,460 @@
 package com.example.goboard.network;
 
 import java.io.*;
-import java.net.Socket;
-import java.util.HashMap;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
 import com.example.goboard.model.*;
 import com.example.goboard.controller.GameController;
+import com.example.goboard.network.codec.EncodedMessage;
+import com.example.goboard.network.codec.MessageTooLargeException;
 import com.example.goboard.network.handler.*;
+import com.example.goboard.network.transport.Connection;
+import com.example.goboard.network.transport.ConnectionListener;
+import com.example.goboard.network.transport.StreamConnection;
+import com.example.goboard.util.HashedTimerWheel;
 
 /**
  * Handles communication with a single client on the server side.
  * Uses Command/Strategy pattern with MessageHandler implementations
  * to reduce complexity and improve maintainability.
+ *
+ * The handler does not do I/O itself: messages arrive through
+ * {@link #onMessage} from whichever transport owns the {@link Connection}
+ * (its own thread in {@link #run()} for a {@link StreamConnection}, or an
+ * event loop). Sends only queue on the connection, so notifying a slow
+ * opponent never blocks the sender. Once a game starts, its moves, passes,
+ * resigns and resyncs are handed to the game's {@link GameSession} rather
+ * than run on the receiving thread, which is also where premoves wait for
+ * the opponent's move.
+ *
+ * The server sends a HEARTBEAT every heartbeat interval, which clients
+ * echo; a client that has sent nothing for the idle timeout is dropped.
+ *
+ * A player whose connection drops mid-game keeps its place for the
+ * reconnect grace period and forfeits only if it has not come back by
+ * then. It comes back by sending RESUME with the token it was issued at
+ * join on a new connection: this handler then adopts that connection,
+ * and the new connection's own handler just passes messages through to
+ * it, so the game, the opponent and the session never see a different
+ * player. What was missed is replayed from the session's event log.
+ *
+ * Each client has a token bucket of messages: those sent faster than the
+ * configured rate are dropped, with one ERROR per burst rather than one per
+ * message, before they reach a handler or a game's mailbox. Oversized
+ * messages and disallowed serialized classes fail in the codec and close
+ * the connection.
  */
-public class ClientHandler implements Runnable {
-    private Socket socket;
-    private ObjectInputStream in;
-    private ObjectOutputStream out;
+public class ClientHandler implements Runnable, ConnectionListener {
+    // Handlers are stateless, so every connection shares one set
+    private static final Map<GameMessage.MessageType, MessageHandler> HANDLERS =
+        new EnumMap<>(GameMessage.MessageType.class);
+
+    static {
+        HANDLERS.put(GameMessage.MessageType.JOIN_GAME, new JoinGameHandler());
+        HANDLERS.put(GameMessage.MessageType.START_GAME, new StartGameHandler());
+        HANDLERS.put(GameMessage.MessageType.MOVE, new MoveHandler());
+        HANDLERS.put(GameMessage.MessageType.PASS, new PassHandler());
+        HANDLERS.put(GameMessage.MessageType.RESIGN, new ResignHandler());
+        HANDLERS.put(GameMessage.MessageType.RESYNC, new ResyncHandler());
+        HANDLERS.put(GameMessage.MessageType.SPECTATE, new SpectateHandler());
+        HANDLERS.put(GameMessage.MessageType.PREMOVE, new PremoveHandler());
+        HANDLERS.put(GameMessage.MessageType.RESUME, new ResumeHandler());
+    }
+
+    // Messages about a game in progress, run in that game's session
+    private static final Set<GameMessage.MessageType> GAME_MESSAGES = EnumSet.of(
+        GameMessage.MessageType.MOVE, GameMessage.MessageType.PASS,
+        GameMessage.MessageType.RESIGN, GameMessage.MessageType.RESYNC, GameMessage.MessageType.PREMOVE);
+
+    private volatile Connection connection;
+    private final AtomicBoolean disconnected = new AtomicBoolean();
+    private final AtomicReference<Runnable> pendingResume = new AtomicReference<>();
+    private volatile ClientHandler resumed;  // the player this connection took back, if any
+    private volatile String resumeToken;
+    private HashedTimerWheel.Timeout reconnectTimeout;  // game session only
     private GameServer server;
     private String playerName;
-    private ClientHandler opponent;
-    private GameController gameController;
-    private Board board;
-    private Player player;
-    private boolean available = false;
-    private boolean gameActive = false;
+    private volatile ClientHandler opponent;
+    private volatile GameController gameController;
+    private volatile Board board;
+    private volatile Player player;
+    private volatile GameSession session;
+    private volatile GameSession watching;
+    private volatile long lastReceived = System.nanoTime();
+    private volatile HashedTimerWheel.Timeout heartbeat;
+    private volatile boolean available = false;
+    private volatile boolean gameActive = false;
+    private final Premoves premoves = new Premoves();  // game session only
+    private final TokenBucket rateLimit;  // reading thread only
+    private boolean throttled;
     
-    // Message handlers for different message types
-    private final Map<GameMessage.MessageType, MessageHandler> handlers;
     private final MessageHandlerContext handlerContext;
 
-    public ClientHandler(Socket socket, GameServer server) {
-        this.socket = socket;
+    public ClientHandler(Connection connection, GameServer server) {
+        this.connection = connection;
         this.server = server;
         this.handlerContext = new MessageHandlerContext(this, server);
-        this.handlers = new HashMap<>();
-        
-        // Register message handlers
-        handlers.put(GameMessage.MessageType.JOIN_GAME, new JoinGameHandler());
-        handlers.put(GameMessage.MessageType.START_GAME, new StartGameHandler());
-        handlers.put(GameMessage.MessageType.MOVE, new MoveHandler());
-        handlers.put(GameMessage.MessageType.PASS, new PassHandler());
-        handlers.put(GameMessage.MessageType.RESIGN, new ResignHandler());
-        
-        try {
-            out = new ObjectOutputStream(socket.getOutputStream());
-            out.flush();
-            in = new ObjectInputStream(socket.getInputStream());
-        } catch (IOException e) {
-            System.err.println("Error initializing streams: " + e.getMessage());
-        }
+        this.rateLimit = server != null
+            ? new TokenBucket(server.getConfig().getMessagesPerSecond(), server.getConfig().getMessageBurst(), lastReceived)
+            : null;
     }
 
     @Override
     public void run() {
+        StreamConnection stream = (StreamConnection) connection;
         try {
-            while (socket.isConnected()) {
-                GameMessage message = (GameMessage) in.readObject();
-                processMessage(message);
+            while (stream.isOpen()) {
+                onMessage(stream.read());
             }
         } catch (EOFException e) {
             // Normal disconnection
-        } catch (ClassNotFoundException | IOException e) {
-            // Connection error - will be logged in cleanup if needed
+        } catch (IOException e) {
+            onReadError(e);
         } finally {
-            cleanup();
+            onDisconnect();
+        }
+    }
+
+    @Override
+    public void onMessage(GameMessage message) {
+        long now = System.nanoTime();
+        lastReceived = now;
+        if (message.getType() == GameMessage.MessageType.HEARTBEAT) {
+            return;
+        }
+        if (rateLimit != null && !rateLimit.tryAcquire(now)) {
+            server.getStats().rateLimited();
+            if (!throttled) {
+                throttled = true;
+                System.out.println("[SERVER] ⚠ Rate limiting " + describe());
+                sendMessage(new GameMessage.TextMessage(GameMessage.MessageType.ERROR, "Too many messages; slow down"));
+            }
+            return;
         }
+        throttled = false;
+        ClientHandler target = resumed;
+        (target != null ? target : this).dispatch(message);
     }
 
-    private void processMessage(GameMessage message) {
-        MessageHandler handler = handlers.get(message.getType());
-        if (handler != null) {
+    private void dispatch(GameMessage message) {
+        MessageHandler handler = HANDLERS.get(message.getType());
+        GameSession game = session;
+        if (handler != null && game != null && GAME_MESSAGES.contains(message.getType())) {
+            game.execute(() -> {
+                // Sent before the game ended, queued behind its end
+                if (session == game) {
+                    handler.handle(handlerContext, message);
+                }
+            });
+        } else if (handler != null) {
             handler.handle(handlerContext, message);
         } else {
             System.out.println("Unknown message type: " + message.getType());
         }
     }
 
-    public int[][] serializeBoard(Board board) {
+    public int[][] serializeBoard(BoardView board) {
         int size = board.getSize();
         int[][] state = new int[size][size];
         
+        // Packed codes are already 0 = empty, 1 = black, 2 = white
         for (int r = 0; r < size; r++) {
             for (int c = 0; c < size; c++) {
-                Intersection inter = board.getIntersection(r, c);
-                if (inter.isEmpty()) {
-                    state[r][c] = 0;  // Empty
-                } else {
-                    Stone stone = inter.getStone();
-                    state[r][c] = stone.getColor() == Stone.Color.BLACK ? 1 : 2;
-                }
+                state[r][c] = board.get(board.pointIndex(r, c));
             }
         }
         return state;
     }
 
+    /**
+     * The last move or pass of the current game as a delta: the stone played,
+     * what it captured and the resulting version and hash. Read from the move
+     * journal, so it must be called right after the move by the thread that
+     * made it.
+     */
+    public GameMessage.BoardDeltaMessage lastMoveDelta(GameMessage.MessageType type, String text) {
+        MoveJournal journal = gameController.getHistory();
+        int move = journal.getMoveCount() - 1;
+        int[] captured = new int[journal.getCaptureCount(move) * 2];
+        for (int i = 0; i < captured.length / 2; i++) {
+            int p = journal.getCaptured(move, i);
+            captured[i * 2] = board.rowOf(p);
+            captured[i * 2 + 1] = board.colOf(p);
+        }
+        return new GameMessage.BoardDeltaMessage(type, journal.getRow(move), journal.getCol(move),
+            journal.getColorCode(move), captured, move + 1, board.getHash(), text);
+    }
+
+    /** Full board state of the current game, tagged with its version for later deltas. */
+    public GameMessage.BoardStateMessage fullState(GameMessage.MessageType type, String text) {
+        return fullState(gameController, type, text);
+    }
+
+    private GameMessage.BoardStateMessage fullState(GameController controller, GameMessage.MessageType type, String text) {
+        BoardSnapshot snapshot = controller.getSnapshot();
+        GameMessage.BoardStateMessage message = new GameMessage.BoardStateMessage(type, serializeBoard(snapshot), text);
+        message.setVersion(snapshot.getMoveNumber());
+        return message;
+    }
+
     public void sendMessage(GameMessage message) {
-        try {
-            synchronized (out) {
-                out.writeObject(message);
-                out.flush();
-            }
-        } catch (IOException e) {
-            // Client disconnected or unreachable
+        connection.send(message);
+    }
+
+    /** Sends a message shared with other connections, such as a spectator update. */
+    public void sendMessage(EncodedMessage message) {
+        connection.send(message);
+    }
+
+    /** The client could not keep up and its backlog was dropped: bring it back in step. */
+    @Override
+    public void onOutboundOverflow() {
+        ClientHandler target = resumed;
+        if (target != null) {
+            target.onOutboundOverflow();
+            return;
+        }
+        // Runs on whichever thread sent, so the game may end meanwhile: read the controller once
+        GameController controller = gameController;
+        if (gameActive && controller != null) {
+            System.out.println("[SERVER] ⚠ " + playerName + " fell behind; resending full state");
+            sendMessage(fullState(controller, GameMessage.MessageType.GAME_STATE, null));
         }
     }
 
-    private void cleanup() {
-        try {
-            if (socket != null && !socket.isClosed()) {
-                socket.close();
-            }
-        } catch (IOException e) {
-            System.err.println("Error closing socket: " + e.getMessage());
+    /** Counts and logs reads refused by the codec; the connection closes after this. */
+    @Override
+    public void onReadError(IOException e) {
+        if (e instanceof MessageTooLargeException) {
+            server.getStats().oversized();
+        } else if (e instanceof InvalidClassException) {
+            // Raised when the serialization filter rejects a class
+            server.getStats().filtered();
+        } else {
+            return;
         }
+        System.out.println("[SERVER] ⚠ Dropping " + describe() + ": " + e.getMessage());
+    }
+
+    private String describe() {
+        return playerName != null ? playerName : connection.getRemoteAddress();
+    }
+
+    @Override
+    public void onDisconnect() {
+        if (!disconnected.compareAndSet(false, true)) return;
+        HashedTimerWheel.Timeout pendingHeartbeat = heartbeat;
+        if (pendingHeartbeat != null) {
+            pendingHeartbeat.cancel();
+        }
+        connection.close();
+        server.removeHandler(this);
+        server.getMatchmaker().remove(this);
         
         if (playerName != null) {
             server.unregisterClient(playerName);
-            server.removeHandler(this);
         }
         
-        if (opponent != null && gameActive) {
-            GameMessage gameOverMsg = new GameMessage.TextMessage(
-                GameMessage.MessageType.GAME_OVER,
-                "Opponent disconnected");
-            opponent.sendMessage(gameOverMsg);
+        GameSession watched = watching;
+        if (watched != null) {
+            watched.removeSpectator(this);
+        }
+        ClientHandler target = resumed;
+        if (target != null) {
+            // This connection carried another player's game; that player has now dropped
+            target.onDisconnect();
+            return;
+        }
+        GameSession game = session;
+        if (game != null) {
+            game.execute(this::awaitReconnect);
+        } else {
+            server.dropResumeToken(resumeToken);
+        }
+    }
+
+    /**
+     * Holds the game open for the reconnect grace period, or forfeits it at
+     * once if there is none. Runs in the game's session.
+     */
+    private void awaitReconnect() {
+        GameSession game = session;
+        // Already resumed, or a second drop found the first one's timer still waiting
+        if (!disconnected.get() || reconnectTimeout != null) return;
+        long grace = server.getConfig().getReconnectGrace().toNanos();
+        if (game == null || !gameActive || grace <= 0) {
+            server.dropResumeToken(resumeToken);
+            forfeit("disconnected");
+            runPendingResume();  // only to tell a waiting carrier there is nothing to resume
+            return;
         }
+        System.out.println("[GAME] ⚡ " + playerName + " dropped; holding #" + game.getId()
+            + " for " + TimeUnit.NANOSECONDS.toSeconds(grace) + " s");
+        opponent.sendMessage(new GameMessage.TextMessage(GameMessage.MessageType.WAITING,
+            "Opponent disconnected; waiting " + TimeUnit.NANOSECONDS.toSeconds(grace) + " s for them to reconnect"));
+        reconnectTimeout = server.getTimers().schedule(() -> game.execute(this::abandon), grace, TimeUnit.NANOSECONDS);
+        runPendingResume();
+    }
+
+    /** The grace period ran out without a resume. Runs in the game's session. */
+    private void abandon() {
+        reconnectTimeout = null;
+        if (!disconnected.get()) return;
+        server.dropResumeToken(resumeToken);
+        forfeit("disconnected");
+    }
+
+    /** The secret this player can resume its game with from a new connection; issued on first call. */
+    public String getResumeToken() {
+        if (resumeToken == null) {
+            resumeToken = server.issueResumeToken(this);
+        }
+        return resumeToken;
+    }
+
+    /**
+     * Moves this player's game onto {@code carrier}'s connection, replaying
+     * what the client missed since position {@code version}. If this
+     * player's old connection is still open (the server has not noticed the
+     * drop yet), it is closed first and the resume runs once the drop has
+     * been handled. A player with no game (in the lobby, or its game is
+     * over) keeps its connection and {@code carrier} gets an ERROR.
+     */
+    public void resumeOn(ClientHandler carrier, GameMessage.ResumeMessage request) {
+        if (session == null || !request.getToken().equals(resumeToken)) {
+            carrier.sendMessage(reply(request, new GameMessage.TextMessage(GameMessage.MessageType.ERROR,
+                "Nothing to resume; not in a game")));
+            return;
+        }
+        pendingResume.set(() -> resume(carrier, request));
+        if (!disconnected.get()) {
+            connection.close();
+            return;
+        }
+        GameSession game = session;
+        if (game != null) {
+            game.execute(this::runPendingResume);
+        } else {
+            runPendingResume();
+        }
+    }
+
+    private void runPendingResume() {
+        Runnable resume = pendingResume.getAndSet(null);
+        if (resume != null) {
+            resume.run();
+        }
+    }
+
+    /** Runs in the game's session, or directly if the game is already over. */
+    private void resume(ClientHandler carrier, GameMessage.ResumeMessage request) {
+        GameSession game = session;
+        HashedTimerWheel.Timeout timeout = reconnectTimeout;
+        if (game == null || !gameActive || !disconnected.get() || (timeout != null && !timeout.cancel())) {
+            carrier.sendMessage(reply(request, new GameMessage.TextMessage(GameMessage.MessageType.ERROR,
+                "Nothing to resume; the game is over")));
+            return;
+        }
+        reconnectTimeout = null;
+        connection = carrier.connection;
+        carrier.resumed = this;
+        disconnected.set(false);
+        server.registerClient(playerName, this);
+
+        List<EncodedMessage> missed = game.eventsSince(request.getVersion());
+        if (missed != null) {
+            for (EncodedMessage update : missed) {
+                sendMessage(update);
+            }
+        } else {
+            sendMessage(fullState(GameMessage.MessageType.GAME_STATE, null));
+        }
+        boolean myTurn = gameController.getCurrentPlayer().getColor() == player.getColor();
+        GameMessage.BoardStateMessage turn = new GameMessage.BoardStateMessage(
+            myTurn ? GameMessage.MessageType.YOUR_TURN : GameMessage.MessageType.OPPONENT_TURN, null,
+            "Resumed game #" + game.getId());
+        turn.setVersion(gameController.getHistory().getMoveCount());
+        sendMessage(reply(request, turn));
+        opponent.sendMessage(new GameMessage.TextMessage(GameMessage.MessageType.WAITING, "Opponent reconnected"));
+        System.out.println("[GAME] ⚡ " + playerName + " resumed #" + game.getId() + " at move "
+            + request.getVersion() + (missed != null ? ", replaying " + missed.size() : ", sending a snapshot"));
+    }
+
+    private static GameMessage reply(GameMessage request, GameMessage response) {
+        response.setSeq(request.getSeq());
+        return response;
+    }
+
+    /**
+     * Ends the game in progress, if any, as a loss for this player, e.g.
+     * {@code forfeit("ran out of time")}. The winner goes back to the lobby;
+     * the loser does not, as it has most likely gone. Runs in the game's session.
+     */
+    public void forfeit(String reason) {
+        GameSession game = session;
+        ClientHandler winner = opponent;
+        if (game == null || winner == null || !gameActive) return;
+        System.out.println("[GAME] ✗ " + playerName + " " + reason + ". " + winner.getPlayerName() + " wins");
+        server.recordResult(winner.getPlayerName(), playerName, 1);
+        sendMessage(new GameMessage.TextMessage(GameMessage.MessageType.GAME_OVER,
+            "You " + reason + ". You lost."));
+        winner.sendMessage(new GameMessage.TextMessage(GameMessage.MessageType.GAME_OVER,
+            "Opponent " + reason + ". You win!"));
+        game.broadcast(new GameMessage.TextMessage(GameMessage.MessageType.GAME_OVER,
+            playerName + " " + reason + ". " + winner.getPlayerName() + " wins"));
+        server.getSessions().finish(game);
+        winner.setAvailable(true);
+    }
+
+    /** Moves this player has queued for the opponent's next move. */
+    public Premoves getPremoves() {
+        return premoves;
+    }
+
+    /**
+     * Plays the premove answering the opponent's move at (row, col), row -1
+     * for a pass, as if it had just arrived as a MOVE with the premove's seq.
+     * Runs in the game's session right after the opponent's move.
+     *
+     * @return whether there was a premove to play
+     */
+    public boolean playPremove(int row, int col) {
+        GameMessage.PremoveMessage premove = premoves.take(row, col);
+        if (premove == null) return false;
+        GameMessage.MoveMessage move = new GameMessage.MoveMessage(
+            GameMessage.MessageType.MOVE, premove.getRow(), premove.getCol());
+        move.setSeq(premove.getSeq());
+        HANDLERS.get(GameMessage.MessageType.MOVE).handle(handlerContext, move);
+        return true;
+    }
+
+    /** Schedules the next heartbeat on the server's timer wheel. */
+    public void startHeartbeat() {
+        long interval = server.getConfig().getHeartbeatInterval().toNanos();
+        heartbeat = server.getTimers().schedule(this::heartbeat, interval, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Runs on the timer thread, so it only queues work. An idle client's
+     * connection is just closed: the connection's own reader thread or event
+     * loop then sees the close and runs {@link #onDisconnect()}.
+     */
+    private void heartbeat() {
+        if (disconnected.get()) return;
+        if (System.nanoTime() - lastReceived > server.getConfig().getIdleTimeout().toNanos()) {
+            System.out.println("[SERVER] ⚠ " + (playerName != null ? playerName : connection.getRemoteAddress())
+                + " idle too long; disconnecting");
+            connection.close();
+            return;
+        }
+        sendMessage(new GameMessage.SimpleMessage(GameMessage.MessageType.HEARTBEAT));
+        startHeartbeat();
     }
 
     // Getters and Setters
@@ -137,16 +466,69 @@ public class ClientHandler implements Runnable {
         return available;
     }
 
+    /**
+     * Marks the player as looking for a game or not. Becoming available
+     * joins the server's matchmaking queue, which may start a game before
+     * this returns.
+     */
     public void setAvailable(boolean available) {
         this.available = available;
+        if (available && !gameActive && !disconnected.get()) {
+            server.getMatchmaker().enqueue(this);
+        } else {
+            server.getMatchmaker().remove(this);
+        }
     }
 
     public boolean isGameActive() {
         return gameActive;
     }
 
+    /** Also leaves the game's session when the game ends. */
     public void setGameActive(boolean gameActive) {
         this.gameActive = gameActive;
+        if (!gameActive) {
+            session = null;
+        }
+    }
+
+    /**
+     * Detaches this player from a finished game, dropping its references to
+     * the board and controller. Does nothing if the player has already
+     * moved on to another game.
+     */
+    public void leaveGame(GameSession game) {
+        if (session != game) return;
+        session = null;
+        gameActive = false;
+        premoves.clear();
+        opponent = null;
+        gameController = null;
+        board = null;
+    }
+
+    /** The game this client is spectating, or null. */
+    public GameSession getWatching() {
+        return watching;
+    }
+
+    public void setWatching(GameSession watching) {
+        this.watching = watching;
+    }
+
+    /** Stops spectating a game that has ended, unless already watching another. */
+    public void stopWatching(GameSession game) {
+        if (watching == game) {
+            watching = null;
+        }
+    }
+
+    public GameSession getSession() {
+        return session;
+    }
+
+    public void setSession(GameSession session) {
+        this.session = session;
     }
 
     public ClientHandler getOpponent() {
@@ -183,7 +565,7 @@ public class ClientHandler implements Runnable {
     }
 
     public void initiateGameStart(String opponentName) {
-        MessageHandler handler = handlers.get(GameMessage.MessageType.START_GAME);
+        MessageHandler handler = HANDLERS.get(GameMessage.MessageType.START_GAME);
         GameMessage message = new GameMessage.TextMessage(
             GameMessage.MessageType.START_GAME, opponentName);
         handler.handle(handlerContext, message);
@@ -2,26 +2,49 @@ package com.example.goboard.network;
 
 import java.io.*;
 import java.net.Socket;
+import java.util.Map;
 import java.util.Scanner;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+import com.example.goboard.factory.BoardFactory;
 import com.example.goboard.model.Board;
-import com.example.goboard.model.Intersection;
 import com.example.goboard.model.Stone;
+import com.example.goboard.network.codec.BinaryMessageCodec;
+import com.example.goboard.network.codec.MessageCodec;
 import com.example.goboard.view.AsciiBoardRenderer;
 import com.example.goboard.view.ConsoleUIFormatter;
 
 /**
  * Game client that connects to the server and handles local player input.
+ *
+ * Moves, passes and premoves are numbered, and the server echoes the number
+ * on its answer, so the client never waits on a round trip before taking
+ * more input: while the opponent is to play, what the player types is sent
+ * as a premove ({@code D4}, or {@code D4 if C3} to answer only C3), which
+ * the server plays the moment the opponent moves.
+ *
+ * If the connection drops mid-game, the client reconnects and resumes the
+ * game with the token it got at join, reporting the last position it saw;
+ * the server replays the moves it missed.
  */
 public class GameClient {
     private static final String SERVER_HOST = "localhost";
     private static final int SERVER_PORT = 5555;
+    private static final int RECONNECT_ATTEMPTS = 5;
     
     private Socket socket;
-    private ObjectOutputStream out;
-    private ObjectInputStream in;
+    private final MessageCodec codec;
+    private MessageCodec.Writer out;
+    private MessageCodec.Reader in;
+    private final ReentrantLock writeLock = new ReentrantLock();
+    private final AtomicInteger nextSeq = new AtomicInteger();
+    private final Map<Integer, String> pending = new ConcurrentHashMap<>();  // seq -> request, until answered
     private String playerName;
     private String playerColor;
     private Board board;
+    private int boardVersion;       // move number of the last state or delta applied
+    private volatile String resumeToken;
     private volatile boolean connected = false;
     private volatile boolean gameActive = false;
     private volatile boolean myTurn = false;
@@ -31,31 +54,49 @@ public class GameClient {
     private final Scanner scanner = new Scanner(System.in);
 
     public GameClient(String name, String color) {
-        this.playerName = name;
-        this.playerColor = color;
-        this.board = new Board(9);
+        this(name, color, new BinaryMessageCodec());
     }
 
     public GameClient(String name) {
+        this(name, "RANDOM");
+    }
+
+    /** The codec must match the one the server was started with. */
+    public GameClient(String name, String color, MessageCodec codec) {
         this.playerName = name;
-        this.playerColor = "RANDOM";
-        this.board = new Board(9);
+        this.playerColor = color;
+        this.codec = codec;
+        this.board = BoardFactory.small9();
     }
 
     public boolean connect() {
+        if (!open()) {
+            return false;
+        }
+        GameMessage joinMsg = new GameMessage.JoinGameMessage(playerName);
+        sendMessage(joinMsg);
+        return true;
+    }
+
+    /** Connects as a spectator of a game, given its id or one of its players' names. */
+    public boolean watch(String target) {
+        if (!open()) {
+            return false;
+        }
+        sendMessage(new GameMessage.TextMessage(GameMessage.MessageType.SPECTATE, target));
+        return true;
+    }
+
+    private boolean open() {
         try {
             ConsoleUIFormatter.printConnecting(SERVER_HOST, SERVER_PORT);
             socket = new Socket(SERVER_HOST, SERVER_PORT);
-            out = new ObjectOutputStream(socket.getOutputStream());
-            out.flush();
-            in = new ObjectInputStream(socket.getInputStream());
+            out = codec.newWriter(socket.getOutputStream());
+            in = codec.newReader(socket.getInputStream());
             connected = true;
             
             ConsoleUIFormatter.printConnected(SERVER_HOST, SERVER_PORT, playerName);
             
-            GameMessage joinMsg = new GameMessage.JoinGameMessage(playerName);
-            sendMessage(joinMsg);
-            
             // Start listening for server messages
             Thread listenerThread = new Thread(this::listenForMessages);
             listenerThread.setDaemon(true);
@@ -70,22 +111,57 @@ public class GameClient {
     }
 
     private void listenForMessages() {
-        try {
-            while (connected) {
-                GameMessage message = (GameMessage) in.readObject();
+        while (connected) {
+            try {
+                GameMessage message = in.read();
                 handleServerMessage(message);
+            } catch (IOException e) {
+                if (connected && gameActive && resumeToken != null && reconnect()) {
+                    continue;
+                }
+                if (e instanceof EOFException) {
+                    ConsoleUIFormatter.printDisconnected("Server closed connection");
+                } else if (connected) {
+                    ConsoleUIFormatter.printError("Error receiving message: " + e.getMessage());
+                }
+                connected = false;
             }
-        } catch (EOFException e) {
-            ConsoleUIFormatter.printDisconnected("Server closed connection");
-            connected = false;
-        } catch (ClassNotFoundException | IOException e) {
-            if (connected) {
-                ConsoleUIFormatter.printError("Error receiving message: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Opens a new connection after losing one mid-game and asks to resume
+     * the game on it from the last position seen. Retries with a growing
+     * pause, staying well inside the server's grace period.
+     */
+    private boolean reconnect() {
+        ConsoleUIFormatter.printWaiting("Connection lost; reconnecting...");
+        for (int attempt = 1; attempt <= RECONNECT_ATTEMPTS; attempt++) {
+            try {
+                Thread.sleep(attempt * 1000L);
+                Socket newSocket = new Socket(SERVER_HOST, SERVER_PORT);
+                writeLock.lock();
+                try {
+                    socket = newSocket;
+                    out = codec.newWriter(newSocket.getOutputStream());
+                } finally {
+                    writeLock.unlock();
+                }
+                in = codec.newReader(newSocket.getInputStream());
+                sendRequest(new GameMessage.ResumeMessage(resumeToken, boardVersion), "resume");
+                return true;
+            } catch (IOException e) {
+                // Server still unreachable; try again
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return false;
             }
         }
+        return false;
     }
 
     private void handleServerMessage(GameMessage message) {
+        String request = message.getSeq() != 0 ? pending.remove(message.getSeq()) : null;
         switch (message.getType()) {
             case WAITING:
                 if (message instanceof GameMessage.TextMessage) {
@@ -94,35 +170,51 @@ public class GameClient {
                 break;
             case YOUR_TURN:
                 myTurn = true;
+                gameActive = true;
                 ConsoleUIFormatter.printTurnInfo(playerName, playerColor, true);
                 if (message instanceof GameMessage.BoardStateMessage) {
                     GameMessage.BoardStateMessage stateMsg = (GameMessage.BoardStateMessage) message;
+                    // No board after a resume: the missed moves came just before
                     if (stateMsg.getBoardState() != null) {
                         updateBoardState(stateMsg.getBoardState());
+                        boardVersion = stateMsg.getVersion();
                         displayBoard();
-                        startInputThread();
                     }
+                    startInputThread();
                 }
                 break;
             case OPPONENT_TURN:
                 myTurn = false;
+                gameActive = true;
                 if (message instanceof GameMessage.BoardStateMessage) {
                     GameMessage.BoardStateMessage stateMsg = (GameMessage.BoardStateMessage) message;
                     if (stateMsg.getBoardState() != null) {
                         updateBoardState(stateMsg.getBoardState());
+                        boardVersion = stateMsg.getVersion();
                         displayBoard();
-                        ConsoleUIFormatter.printTurnInfo(playerName, playerColor, false);
-                        ConsoleUIFormatter.printWaiting("Waiting for opponent's move...");
                     }
+                    ConsoleUIFormatter.printTurnInfo(playerName, playerColor, false);
+                    ConsoleUIFormatter.printWaiting("Waiting for opponent's move... (type a move to premove it)");
+                    startInputThread();
                 }
                 break;
             case OPPONENT_MOVE:
-                if (message instanceof GameMessage.OpponentMoveMessage) {
+                if (message instanceof GameMessage.BoardDeltaMessage) {
+                    GameMessage.BoardDeltaMessage delta = (GameMessage.BoardDeltaMessage) message;
+                    ConsoleUIFormatter.printOpponentMove("Opponent", formatPosition(delta.getRow(), delta.getCol()));
+                    if (applyDelta(delta)) {
+                        displayBoard();
+                    }
+                    myTurn = true;
+                    ConsoleUIFormatter.printTurnInfo(playerName, playerColor, true);
+                    startInputThread();
+                } else if (message instanceof GameMessage.OpponentMoveMessage) {
                     GameMessage.OpponentMoveMessage moveMsg = (GameMessage.OpponentMoveMessage) message;
                     String position = formatPosition(moveMsg.getRow(), moveMsg.getCol());
                     ConsoleUIFormatter.printOpponentMove("Opponent", position);
                     if (moveMsg.getBoardState() != null) {
                         updateBoardState(moveMsg.getBoardState());
+                        boardVersion = moveMsg.getVersion();
                         displayBoard();
                         myTurn = true;
                         ConsoleUIFormatter.printTurnInfo(playerName, playerColor, true);
@@ -131,11 +223,20 @@ public class GameClient {
                 }
                 break;
             case OPPONENT_PASS:
-                if (message instanceof GameMessage.BoardStateMessage) {
+                if (message instanceof GameMessage.BoardDeltaMessage) {
+                    ConsoleUIFormatter.printOpponentPassed("Opponent");
+                    if (applyDelta((GameMessage.BoardDeltaMessage) message)) {
+                        displayBoard();
+                    }
+                    myTurn = true;
+                    ConsoleUIFormatter.printTurnInfo(playerName, playerColor, true);
+                    startInputThread();
+                } else if (message instanceof GameMessage.BoardStateMessage) {
                     GameMessage.BoardStateMessage stateMsg = (GameMessage.BoardStateMessage) message;
                     ConsoleUIFormatter.printOpponentPassed("Opponent");
                     if (stateMsg.getBoardState() != null) {
                         updateBoardState(stateMsg.getBoardState());
+                        boardVersion = stateMsg.getVersion();
                         displayBoard();
                         myTurn = true;
                         ConsoleUIFormatter.printTurnInfo(playerName, playerColor, true);
@@ -144,12 +245,23 @@ public class GameClient {
                 }
                 break;
             case MOVE_RESPONSE:
-                if (message instanceof GameMessage.MoveResponseMessage) {
+                // A premove played by the server also ends our turn
+                myTurn = false;
+                if (message instanceof GameMessage.BoardDeltaMessage) {
+                    GameMessage.BoardDeltaMessage delta = (GameMessage.BoardDeltaMessage) message;
+                    ConsoleUIFormatter.printMoveResponse(true, request != null && request.startsWith("premove")
+                        ? delta.getMessage() + " (" + request + ")"
+                        : delta.getMessage());
+                    if (applyDelta(delta)) {
+                        displayBoard();
+                    }
+                } else if (message instanceof GameMessage.MoveResponseMessage) {
                     GameMessage.MoveResponseMessage respMsg = (GameMessage.MoveResponseMessage) message;
                     ConsoleUIFormatter.printMoveResponse(respMsg.isSuccess(), respMsg.getMessage());
                     if (respMsg.isSuccess()) {
                         if (respMsg.getBoardState() != null) {
                             updateBoardState(respMsg.getBoardState());
+                            boardVersion = respMsg.getVersion();
                             displayBoard();
                         }
                     } else {
@@ -158,16 +270,59 @@ public class GameClient {
                     }
                 }
                 break;
+            case GAME_STATE:
+                // Answer to a resync request, or the position when starting to watch
+                if (message instanceof GameMessage.BoardStateMessage) {
+                    GameMessage.BoardStateMessage stateMsg = (GameMessage.BoardStateMessage) message;
+                    if (stateMsg.getBoardState() != null) {
+                        updateBoardState(stateMsg.getBoardState());
+                        boardVersion = stateMsg.getVersion();
+                        displayBoard();
+                        if (stateMsg.getMessage() != null) {
+                            ConsoleUIFormatter.printInfo(stateMsg.getMessage());
+                        }
+                    }
+                }
+                break;
+            case RESUME_TOKEN:
+                if (message instanceof GameMessage.TextMessage) {
+                    resumeToken = ((GameMessage.TextMessage) message).getMessage();
+                }
+                break;
+            case HEARTBEAT:
+                sendMessage(new GameMessage.SimpleMessage(GameMessage.MessageType.HEARTBEAT));
+                break;
+            case GAME_UPDATE:
+                // A move or pass in the game being watched
+                if (message instanceof GameMessage.BoardDeltaMessage) {
+                    GameMessage.BoardDeltaMessage delta = (GameMessage.BoardDeltaMessage) message;
+                    if (applyDelta(delta)) {
+                        displayBoard();
+                        ConsoleUIFormatter.printInfo(delta.getMessage());
+                    }
+                }
+                break;
             case GAME_OVER:
                 gameActive = false;
+                myTurn = false;
+                pending.clear();
                 if (message instanceof GameMessage.TextMessage) {
                     String result = ((GameMessage.TextMessage) message).getMessage();
                     ConsoleUIFormatter.printGameOver("Game Over", result);
                 }
                 break;
+            case ACK:
+                if (request != null) {
+                    ConsoleUIFormatter.printInfo("Queued " + request);
+                }
+                break;
             case ERROR:
                 if (message instanceof GameMessage.TextMessage) {
-                    ConsoleUIFormatter.printError(((GameMessage.TextMessage) message).getMessage());
+                    String text = ((GameMessage.TextMessage) message).getMessage();
+                    ConsoleUIFormatter.printError(request != null ? text + " (" + request + ")" : text);
+                    if ("resume".equals(request)) {
+                        gameActive = false;
+                    }
                 }
                 break;
             default:
@@ -178,21 +333,40 @@ public class GameClient {
     private void updateBoardState(int[][] boardState) {
         for (int r = 0; r < boardState.length; r++) {
             for (int c = 0; c < boardState[r].length; c++) {
-                Intersection inter = board.getIntersection(r, c);
-                if (boardState[r][c] == 0) {
-                    // Empty - handles captured stones
-                    inter.setStone(null);
-                } else if (boardState[r][c] == 1) {
-                    // Black stone
-                    inter.setStone(new Stone(Stone.Color.BLACK));
-                } else if (boardState[r][c] == 2) {
-                    // White stone
-                    inter.setStone(new Stone(Stone.Color.WHITE));
-                }
+                // 0 = empty (handles captured stones), 1 = black, 2 = white
+                board.setStone(r, c, Stone.fromCode((byte) boardState[r][c]));
             }
         }
     }
 
+    /**
+     * Applies a move delta to the local board. If a delta was missed or the
+     * resulting hash differs from the server's, asks for the full state
+     * instead and returns false.
+     */
+    private boolean applyDelta(GameMessage.BoardDeltaMessage delta) {
+        if (delta.getVersion() != boardVersion + 1) {
+            requestResync();
+            return false;
+        }
+        if (!delta.isPass()) {
+            board.setStone(delta.getRow(), delta.getCol(), Stone.fromCode((byte) delta.getColor()));
+        }
+        for (int i = 0; i < delta.getCapturedCount(); i++) {
+            board.setStone(delta.getCapturedRow(i), delta.getCapturedCol(i), null);
+        }
+        boardVersion = delta.getVersion();
+        if (board.getHash() != delta.getHash()) {
+            requestResync();
+            return false;
+        }
+        return true;
+    }
+
+    private void requestResync() {
+        sendMessage(new GameMessage.SimpleMessage(GameMessage.MessageType.RESYNC));
+    }
+
     private void displayBoard() {
         ConsoleUIFormatter.clearScreen();
         String boardString = renderer.render(board);
@@ -201,7 +375,11 @@ public class GameClient {
 
     private void startInputThread() {
         if (waitingForInput) {
-            return; // Already waiting for input
+            // Already reading input; it is now a move rather than a premove
+            if (myTurn) {
+                ConsoleUIFormatter.printMovePrompt();
+            }
+            return;
         }
         
         waitingForInput = true;
@@ -214,30 +392,35 @@ public class GameClient {
         inputThread.start();
     }
 
+    /**
+     * Reads the player's input for the rest of the game: moves on our turn,
+     * premoves on the opponent's. Nothing waits for the server's answer;
+     * it arrives on the listener thread, matched up by seq.
+     */
     private void handlePlayerMove() {
-        while (myTurn) {
-            ConsoleUIFormatter.printMovePrompt();
+        while (connected && gameActive) {
+            if (myTurn) {
+                ConsoleUIFormatter.printMovePrompt();
+            }
             String input = scanner.nextLine().trim().toLowerCase();
-            
-            if (input.equals("pass")) {
-                GameMessage msg = new GameMessage.SimpleMessage(GameMessage.MessageType.PASS);
-                sendMessage(msg);
+            if (input.isEmpty() || !gameActive) {
+                continue;
+            }
+            if (!myTurn) {
+                queuePremove(input);
+            } else if (input.equals("pass")) {
                 myTurn = false;
-                break;
+                sendRequest(new GameMessage.SimpleMessage(GameMessage.MessageType.PASS), "pass");
             } else if (input.equals("resign")) {
-                GameMessage msg = new GameMessage.SimpleMessage(GameMessage.MessageType.RESIGN);
-                sendMessage(msg);
                 myTurn = false;
                 gameActive = false;
-                break;
+                sendMessage(new GameMessage.SimpleMessage(GameMessage.MessageType.RESIGN));
             } else {
                 int[] pos = parseMove(input);
                 if (pos != null) {
-                    GameMessage msg = new GameMessage.MoveMessage(
-                        GameMessage.MessageType.MOVE, pos[0], pos[1]);
-                    sendMessage(msg);
                     myTurn = false;
-                    break;
+                    sendRequest(new GameMessage.MoveMessage(GameMessage.MessageType.MOVE, pos[0], pos[1]),
+                        "move " + formatPosition(pos[0], pos[1]));
                 } else {
                     ConsoleUIFormatter.printInvalidInput("Use coordinates like D4, A1, etc.");
                 }
@@ -245,6 +428,24 @@ public class GameClient {
         }
     }
 
+    /** Sends "D4" as an unconditional premove, or "D4 if C3" as a reply to C3 only. */
+    private void queuePremove(String input) {
+        String[] parts = input.split("\\s+if\\s+");
+        int[] pos = parseMove(parts[0]);
+        int[] condition = parts.length == 2 ? parseMove(parts[1]) : null;
+        if (pos == null || parts.length > 2 || (parts.length == 2 && condition == null)) {
+            ConsoleUIFormatter.printInvalidInput("Premove with D4, or D4 if C3 to answer C3 only");
+            return;
+        }
+        String move = formatPosition(pos[0], pos[1]);
+        if (condition == null) {
+            sendRequest(new GameMessage.PremoveMessage(pos[0], pos[1]), "premove " + move);
+        } else {
+            sendRequest(new GameMessage.PremoveMessage(pos[0], pos[1], condition[0], condition[1]),
+                "premove " + move + " if " + formatPosition(condition[0], condition[1]));
+        }
+    }
+
     private int[] parseMove(String input) {
         if (input.length() < 2) return null;
 
@@ -293,21 +494,22 @@ public class GameClient {
         return String.valueOf(colChar) + rowNum;
     }
 
-    public void startGame(String opponentName) {
-        GameMessage msg = new GameMessage.TextMessage(
-            GameMessage.MessageType.START_GAME, opponentName);
-        sendMessage(msg);
-        gameActive = true;
+    /** Numbers a request and remembers it until the server's answer comes back with the same seq. */
+    private void sendRequest(GameMessage message, String description) {
+        int seq = nextSeq.incrementAndGet();
+        message.setSeq(seq);
+        pending.put(seq, description);
+        sendMessage(message);
     }
 
     public void sendMessage(GameMessage message) {
+        writeLock.lock();
         try {
-            synchronized (out) {
-                out.writeObject(message);
-                out.flush();
-            }
+            out.write(message);
         } catch (IOException e) {
             ConsoleUIFormatter.printError("Failed to send message: " + e.getMessage());
+        } finally {
+            writeLock.unlock();
         }
     }
 
@@ -342,7 +544,12 @@ public class GameClient {
         return gameActive;
     }
 
+    /** Usage: {@code GameClient} to play, or {@code GameClient --watch <game id | player>} to spectate. */
     public static void main(String[] args) {
+        if (args.length >= 2 && args[0].equals("--watch")) {
+            watchMain(args[1]);
+            return;
+        }
         ConsoleUIFormatter.printHeader("GO Game - Client");
         System.out.print("Enter your name: ");
         Scanner scanner = new Scanner(System.in);
@@ -383,4 +590,22 @@ public class GameClient {
         
         ConsoleUIFormatter.printInfo("Client disconnected. Exiting...");
     }
+
+    private static void watchMain(String target) {
+        ConsoleUIFormatter.enableWindowsAnsiSupport();
+        ConsoleUIFormatter.enterAlternativeScreen();
+        GameClient client = new GameClient("spectator");
+        try {
+            if (!client.watch(target)) {
+                return;
+            }
+            while (client.isConnected()) {
+                Thread.sleep(1000);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            ConsoleUIFormatter.exitAlternativeScreen();
+        }
+    }
 }
@@ -15,7 +15,11 @@ public abstract class GameMessage implements Serializable {
         PASS,           // Player passes
         RESIGN,         // Player resigns
         JOIN_GAME,      // Request to join a game
-        START_GAME,     // Request to start the game
+        START_GAME,     // Start a matched game; raised by the server only, refused from clients
+        RESYNC,         // Request a full board state after a missed or bad delta
+        SPECTATE,       // Watch a game, by game id or by a player's name
+        PREMOVE,        // Move to play as soon as the opponent has moved, optionally only after a given reply
+        RESUME,         // Take back a game after reconnecting, with the token and last version seen
 
         // Server to Client
         GAME_STATE,     // Current board state
@@ -26,10 +30,22 @@ public abstract class GameMessage implements Serializable {
         ERROR,          // Error message
         WAITING,        // Waiting for opponent
         YOUR_TURN,      // It's your turn
-        OPPONENT_TURN   // Opponent's turn
+        OPPONENT_TURN,  // Opponent's turn
+        GAME_UPDATE,    // Move or pass in a watched game
+        ACK,            // Request accepted with nothing else to report, e.g. a premove queued
+        RESUME_TOKEN,   // Secret that lets this player resume its game from a new connection
+
+        // Either direction
+        HEARTBEAT;      // Keep-alive; the server sends them, clients echo them
+
+        /** Whether a client may send this type; the server rejects the rest unread. */
+        public boolean isFromClient() {
+            return (compareTo(RESUME) <= 0 && this != START_GAME) || this == HEARTBEAT;
+        }
     }
 
     private final MessageType type;
+    private int seq;
 
     protected GameMessage(MessageType type) {
         this.type = type;
@@ -39,6 +55,28 @@ public abstract class GameMessage implements Serializable {
         return type;
     }
 
+    /**
+     * Number a client gives a request so it can match the server's answer to
+     * it: the server copies it onto the response (MOVE_RESPONSE, ACK or
+     * ERROR). 0 for messages that are not numbered.
+     */
+    public int getSeq() {
+        return seq;
+    }
+
+    public void setSeq(int seq) {
+        this.seq = seq;
+    }
+
+    /**
+     * Whether a connection that falls behind must still deliver this message
+     * rather than drop it for a resent board state: the end of a game, which
+     * the state does not carry, or a numbered reply the client is waiting on.
+     */
+    public boolean mustDeliver() {
+        return type == MessageType.GAME_OVER || seq != 0;
+    }
+
     @Override
     public String toString() {
         return "GameMessage{type=" + type + "}";
@@ -124,6 +162,92 @@ public abstract class GameMessage implements Serializable {
         }
     }
 
+    /**
+     * A move queued while the opponent is to play, applied by the server the
+     * moment the opponent moves instead of after a round trip to the client.
+     * A conditional premove only applies if the opponent played at the given
+     * point; an unconditional one applies after any move or pass.
+     */
+    public static class PremoveMessage extends GameMessage {
+        private final int row;
+        private final int col;
+        private final int ifRow;
+        private final int ifCol;
+
+        public PremoveMessage(int row, int col) {
+            this(row, col, -1, -1);
+        }
+
+        /** @param ifRow the opponent's move this answers, or -1 for any move */
+        public PremoveMessage(int row, int col, int ifRow, int ifCol) {
+            super(MessageType.PREMOVE);
+            this.row = row;
+            this.col = col;
+            this.ifRow = ifRow;
+            this.ifCol = ifCol;
+        }
+
+        public int getRow() {
+            return row;
+        }
+
+        public int getCol() {
+            return col;
+        }
+
+        public boolean isConditional() {
+            return ifRow >= 0;
+        }
+
+        public int getIfRow() {
+            return ifRow;
+        }
+
+        public int getIfCol() {
+            return ifCol;
+        }
+
+        /** Whether this premove answers an opponent move at (row, col); row -1 is a pass. */
+        public boolean answers(int row, int col) {
+            return !isConditional() || (ifRow == row && ifCol == col);
+        }
+
+        @Override
+        public String toString() {
+            return "PremoveMessage{row=" + row + ", col=" + col
+                + (isConditional() ? ", ifRow=" + ifRow + ", ifCol=" + ifCol : "") + "}";
+        }
+    }
+
+    /**
+     * Sent on a new connection to take over the game of a connection that
+     * dropped: the token the server issued at join, and the version of the
+     * last position the client saw, so only what it missed is sent back.
+     */
+    public static class ResumeMessage extends GameMessage {
+        private final String token;
+        private final int version;
+
+        public ResumeMessage(String token, int version) {
+            super(MessageType.RESUME);
+            this.token = token;
+            this.version = version;
+        }
+
+        public String getToken() {
+            return token;
+        }
+
+        public int getVersion() {
+            return version;
+        }
+
+        @Override
+        public String toString() {
+            return "ResumeMessage{version=" + version + "}";
+        }
+    }
+
     /**
      * Message for joining game with player info
      */
@@ -155,6 +279,7 @@ public abstract class GameMessage implements Serializable {
     public static class BoardStateMessage extends GameMessage {
         private int[][] boardState;
         private String message;
+        private int version;
 
         public BoardStateMessage(MessageType type, int[][] boardState) {
             super(type);
@@ -183,6 +308,15 @@ public abstract class GameMessage implements Serializable {
             this.message = message;
         }
 
+        /** Number of moves (passes included) behind this position; deltas continue from it. */
+        public int getVersion() {
+            return version;
+        }
+
+        public void setVersion(int version) {
+            this.version = version;
+        }
+
         @Override
         public String toString() {
             return "BoardStateMessage{type=" + getType() + ", message='" + message + "'}";
@@ -196,6 +330,7 @@ public abstract class GameMessage implements Serializable {
         private boolean success;
         private String message;
         private int[][] boardState;
+        private int version;
 
         public MoveResponseMessage(boolean success, String message, int[][] boardState) {
             super(MessageType.MOVE_RESPONSE);
@@ -228,6 +363,15 @@ public abstract class GameMessage implements Serializable {
             this.boardState = boardState;
         }
 
+        /** Number of moves (passes included) behind the board state, if any. */
+        public int getVersion() {
+            return version;
+        }
+
+        public void setVersion(int version) {
+            this.version = version;
+        }
+
         @Override
         public String toString() {
             return "MoveResponseMessage{success=" + success + ", message='" + message + "'}";
@@ -242,6 +386,7 @@ public abstract class GameMessage implements Serializable {
         private int col;
         private String message;
         private int[][] boardState;
+        private int version;
 
         public OpponentMoveMessage(int row, int col, String message, int[][] boardState) {
             super(MessageType.OPPONENT_MOVE);
@@ -267,9 +412,99 @@ public abstract class GameMessage implements Serializable {
             return boardState;
         }
 
+        /** Number of moves (passes included) behind the board state, if any. */
+        public int getVersion() {
+            return version;
+        }
+
+        public void setVersion(int version) {
+            this.version = version;
+        }
+
         @Override
         public String toString() {
             return "OpponentMoveMessage{row=" + row + ", col=" + col + ", message='" + message + "'}";
         }
     }
+
+    /**
+     * One move or pass as a change to the board, sent instead of the full
+     * board state: the stone played, the stones it captured, and the version
+     * and hash of the resulting position so the client can tell when it has
+     * fallen out of step and ask for a {@link MessageType#RESYNC}.
+     */
+    public static class BoardDeltaMessage extends GameMessage {
+        private final int row;
+        private final int col;
+        private final int color;
+        private final int[] captured;
+        private final int version;
+        private final long hash;
+        private final String message;
+
+        /**
+         * @param row      row played, or -1 for a pass
+         * @param color    packed color code of the player who moved
+         * @param captured captured points as {@code row, col} pairs
+         * @param version  move number of the resulting position
+         * @param hash     Zobrist hash of the resulting position
+         */
+        public BoardDeltaMessage(MessageType type, int row, int col, int color,
+                                 int[] captured, int version, long hash, String message) {
+            super(type);
+            this.row = row;
+            this.col = col;
+            this.color = color;
+            this.captured = captured;
+            this.version = version;
+            this.hash = hash;
+            this.message = message;
+        }
+
+        public boolean isPass() {
+            return row < 0;
+        }
+
+        public int getRow() {
+            return row;
+        }
+
+        public int getCol() {
+            return col;
+        }
+
+        public int getColor() {
+            return color;
+        }
+
+        public int getCapturedCount() {
+            return captured.length / 2;
+        }
+
+        public int getCapturedRow(int i) {
+            return captured[i * 2];
+        }
+
+        public int getCapturedCol(int i) {
+            return captured[i * 2 + 1];
+        }
+
+        public int getVersion() {
+            return version;
+        }
+
+        public long getHash() {
+            return hash;
+        }
+
+        public String getMessage() {
+            return message;
+        }
+
+        @Override
+        public String toString() {
+            return "BoardDeltaMessage{type=" + getType() + ", row=" + row + ", col=" + col
+                + ", captured=" + getCapturedCount() + ", version=" + version + "}";
+        }
+    }
 }
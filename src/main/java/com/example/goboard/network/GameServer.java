@@ -2,29 +2,91 @@ package com.example.goboard.network;
 
 import java.io.*;
 import java.net.*;
+import java.nio.file.Paths;
+import java.security.SecureRandom;
 import java.util.*;
-import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 import com.example.goboard.model.*;
 import com.example.goboard.factory.BoardFactory;
 import com.example.goboard.strategy.SimpleMoveValidator;
 import com.example.goboard.controller.GameController;
+import com.example.goboard.network.codec.BinaryMessageCodec;
+import com.example.goboard.network.matchmaking.FifoMatchmaker;
+import com.example.goboard.network.matchmaking.Matchmaker;
+import com.example.goboard.network.matchmaking.RatedMatchmaker;
+import com.example.goboard.network.matchmaking.RatingStore;
+import com.example.goboard.network.transport.NioServer;
+import com.example.goboard.network.transport.StreamConnection;
+import com.example.goboard.util.HashedTimerWheel;
 
 /**
  * Game server that manages client connections and game logic.
- * Handles multiple games and player connections.
+ * Handles multiple games and player connections, either with a thread per
+ * client or on NIO event loops (see {@link IoMode}).
  */
 public class GameServer {
-    private static final int PORT = 5555;
-    private final List<ClientHandler> connectedClients = new CopyOnWriteArrayList<>();
+    private final Set<ClientHandler> connectedClients = ConcurrentHashMap.newKeySet();
     private ServerSocket serverSocket;
-    private boolean running = false;
-    private final Map<String, ClientHandler> clientByName = Collections.synchronizedMap(new HashMap<>());
-    private final Object matchLock = new Object();
+    private NioServer nioServer;
+    private ExecutorService clientExecutor;
+    private volatile boolean running = false;
+    private final Map<String, ClientHandler> clientByName = new ConcurrentHashMap<>();
+    private final Map<String, ClientHandler> byResumeToken = new ConcurrentHashMap<>();
+    private final SecureRandom tokenRandom = new SecureRandom();
+    private final RatingStore ratings;
+    private final Matchmaker<ClientHandler> matchmaker;
+    // Every deadline on the server: heartbeats, game clocks, matchmaking ticks
+    private final HashedTimerWheel timers = new HashedTimerWheel(100, TimeUnit.MILLISECONDS, 512);
+    private final ExecutorService gameExecutor;
+    private final ExecutorService ratingsWriter;
+    private final GameSessionRegistry sessions;
+    private final ServerStats stats = new ServerStats();
+    private final ServerConfig config;
 
     public GameServer() {
+        this(new ServerConfig());
+    }
+
+    public GameServer(ServerConfig config) {
+        this.config = config;
+        this.ratings = loadRatings(config);
+        this.matchmaker = config.isRatedMatchmaking()
+            ? new RatedMatchmaker<>(handler -> ratings.getRating(handler.getPlayerName()), this::startGame)
+            : new FifoMatchmaker<>(this::startGame);
+        AtomicInteger gameThreads = new AtomicInteger();
+        this.gameExecutor = Executors.newFixedThreadPool(config.getGameThreads(), r -> {
+            Thread t = new Thread(r, "GameSession-" + gameThreads.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+        this.sessions = new GameSessionRegistry(gameExecutor);
+        this.ratingsWriter = Executors.newSingleThreadExecutor(r -> {
+            Thread t = new Thread(r, "RatingsWriter");
+            t.setDaemon(true);
+            return t;
+        });
         try {
-            serverSocket = new ServerSocket(PORT);
-            System.out.println("Game Server started on port " + PORT);
+            if (config.getIoMode() == IoMode.NIO) {
+                if (!(config.getCodec() instanceof BinaryMessageCodec)) {
+                    throw new IllegalArgumentException("NIO mode requires the binary protocol");
+                }
+                nioServer = new NioServer(config.getPort(), config.getEventLoops(),
+                        config.getOutboundQueueCapacity(), config.getOverflowPolicy(), connection -> {
+                    ClientHandler handler = new ClientHandler(connection, this);
+                    connectedClients.add(handler);
+                    handler.startHeartbeat();
+                    return handler;
+                });
+                nioServer.setMaxMessageSize(config.getMaxMessageSize());
+            } else {
+                serverSocket = new ServerSocket(config.getPort());
+            }
+            System.out.println("Game Server started on port " + config.getPort()
+                + " (" + config.getCodec().getName() + " protocol, " + config.getIoMode() + ")");
         } catch (IOException e) {
             System.err.println("Failed to start server: " + e.getMessage());
         }
@@ -32,17 +94,42 @@ public class GameServer {
 
     public void start() {
         running = true;
+        Thread acceptThread = nioServer != null ? nioServer.start() : startBlockingAcceptor();
+        
+        timers.start();
+        // Let waiting players' rating windows widen into a match
+        if (config.isRatedMatchmaking()) {
+            scheduleMatchmakingTick();
+        }
+        if (config.getRatingsFile() != null) {
+            scheduleRatingsFlush();
+        }
+        
+        // Keep server running
+        try {
+            acceptThread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private Thread startBlockingAcceptor() {
+        clientExecutor = config.getClientExecutor() != null ? config.getClientExecutor() : defaultClientExecutor();
         Thread acceptThread = new Thread(() -> {
             while (running) {
                 try {
                     Socket clientSocket = serverSocket.accept();
                     System.out.println("[SERVER] ✓ New client connected from " + clientSocket.getInetAddress());
                     
-                    ClientHandler handler = new ClientHandler(clientSocket, this);
+                    StreamConnection connection = new StreamConnection(clientSocket, config.getCodec(),
+                        clientExecutor, config.getOutboundQueueCapacity(), config.getOverflowPolicy());
+                    connection.setMaxMessageSize(config.getMaxMessageSize());
+                    ClientHandler handler = new ClientHandler(connection, this);
+                    connection.setListener(handler);
                     connectedClients.add(handler);
+                    handler.startHeartbeat();
                     
-                    Thread clientThread = new Thread(handler);
-                    clientThread.start();
+                    clientExecutor.execute(handler);
                 } catch (SocketException e) {
                     if (running) {
                         System.err.println("Socket error: " + e.getMessage());
@@ -55,47 +142,45 @@ public class GameServer {
         
         acceptThread.setName("ServerAcceptThread");
         acceptThread.start();
-        
-        // Start game matching thread
-        Thread matchingThread = new Thread(this::matchPlayers);
-        matchingThread.setName("GameMatchingThread");
-        matchingThread.setDaemon(true);
-        matchingThread.start();
-        
-        // Keep server running
+        return acceptThread;
+    }
+
+    private void scheduleMatchmakingTick() {
+        timers.schedule(() -> {
+            if (!running) return;
+            matchmaker.tick();
+            scheduleMatchmakingTick();
+        }, 1, TimeUnit.SECONDS);
+    }
+
+    /** Saves changed ratings every few seconds, off the timer thread. */
+    private void scheduleRatingsFlush() {
+        timers.schedule(() -> {
+            if (!running) return;
+            ratingsWriter.execute(ratings::flush);
+            scheduleRatingsFlush();
+        }, 5, TimeUnit.SECONDS);
+    }
+
+    private static RatingStore loadRatings(ServerConfig config) {
+        if (config.getRatingsFile() == null) {
+            return new RatingStore();
+        }
         try {
-            acceptThread.join();
-        } catch (InterruptedException e) {
-            Thread.currentThread().interrupt();
+            return new RatingStore(config.getRatingsFile());
+        } catch (IOException | NumberFormatException e) {
+            System.err.println("Cannot load ratings from " + config.getRatingsFile() + ": " + e.getMessage());
+            return new RatingStore();
         }
     }
 
-    private void matchPlayers() {
-        while (running) {
-            try {
-                Thread.sleep(1000); // Check every second
-                
-                synchronized (matchLock) {
-                    List<ClientHandler> available = new ArrayList<>();
-                    for (ClientHandler handler : connectedClients) {
-                        if (handler.isAvailable() && !handler.isGameActive()) {
-                            available.add(handler);
-                        }
-                    }
-                    
-                    // Match players in pairs
-                    while (available.size() >= 2) {
-                        ClientHandler player1 = available.remove(0);
-                        ClientHandler player2 = available.remove(0);
-                        
-                        startGame(player1, player2);
-                    }
-                }
-            } catch (InterruptedException e) {
-                Thread.currentThread().interrupt();
-                break;
-            }
+    /** Thread per client: virtual in VIRTUAL_THREADS mode, otherwise a platform thread as before. */
+    private ExecutorService defaultClientExecutor() {
+        if (config.getIoMode() == IoMode.VIRTUAL_THREADS) {
+            return Executors.newVirtualThreadPerTaskExecutor();
         }
+        AtomicInteger count = new AtomicInteger();
+        return Executors.newCachedThreadPool(r -> new Thread(r, "ClientHandler-" + count.incrementAndGet()));
     }
 
     private void startGame(ClientHandler player1, ClientHandler player2) {
@@ -103,6 +188,7 @@ public class GameServer {
         System.out.println("[SERVER] ⚔  Starting new game");
         System.out.println("[SERVER]    Player 1: " + player1.getPlayerName());
         System.out.println("[SERVER]    Player 2: " + player2.getPlayerName());
+        System.out.println("[SERVER]    Matchmaking: " + matchmaker.getStats());
         System.out.println("[SERVER] ═══════════════════════════════════════\n");
         
         // Set both players as unavailable
@@ -115,6 +201,16 @@ public class GameServer {
 
     public void stop() {
         running = false;
+        if (nioServer != null) {
+            nioServer.stop();
+        }
+        timers.stop();
+        gameExecutor.shutdown();
+        ratingsWriter.shutdown();
+        ratings.flush();
+        if (clientExecutor != null) {
+            clientExecutor.shutdown();
+        }
         try {
             if (serverSocket != null && !serverSocket.isClosed()) {
                 serverSocket.close();
@@ -124,6 +220,53 @@ public class GameServer {
         }
     }
 
+    /** Port the server is listening on (the bound port when configured with 0). */
+    public int getPort() {
+        return nioServer != null ? nioServer.getPort() : serverSocket.getLocalPort();
+    }
+
+    /** Queue that pairs players as soon as they become available. */
+    public Matchmaker<ClientHandler> getMatchmaker() {
+        return matchmaker;
+    }
+
+    /** Scheduler the {@link GameSession}s run on. */
+    public ExecutorService getGameExecutor() {
+        return gameExecutor;
+    }
+
+    public HashedTimerWheel getTimers() {
+        return timers;
+    }
+
+    public GameSessionRegistry getSessions() {
+        return sessions;
+    }
+
+    public RatingStore getRatings() {
+        return ratings;
+    }
+
+    /** Counts of messages and connections refused by the read-path limits. */
+    public ServerStats getStats() {
+        return stats;
+    }
+
+    /**
+     * Updates both players' ratings after a game.
+     *
+     * @param score the first player's result: 1 win, 0.5 draw, 0 loss
+     */
+    public void recordResult(String player, String opponent, double score) {
+        ratings.recordResult(player, opponent, score);
+        System.out.println("[SERVER] ★ Ratings: " + player + " " + ratings.getRating(player)
+            + ", " + opponent + " " + ratings.getRating(opponent));
+    }
+
+    public ServerConfig getConfig() {
+        return config;
+    }
+
     public void registerClient(String name, ClientHandler handler) {
         clientByName.put(name, handler);
         System.out.println("[SERVER] ► " + name + " registered and ready");
@@ -136,6 +279,26 @@ public class GameServer {
         }
     }
 
+    /** Issues the secret a player presents to resume its game from a new connection. */
+    public String issueResumeToken(ClientHandler handler) {
+        byte[] bytes = new byte[16];
+        tokenRandom.nextBytes(bytes);
+        String token = Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+        byResumeToken.put(token, handler);
+        return token;
+    }
+
+    /** The player a resume token was issued to, or null if it is unknown or has lapsed. */
+    public ClientHandler findResumable(String token) {
+        return token != null ? byResumeToken.get(token) : null;
+    }
+
+    public void dropResumeToken(String token) {
+        if (token != null) {
+            byResumeToken.remove(token);
+        }
+    }
+
     public ClientHandler findClient(String name) {
         return clientByName.get(name);
     }
@@ -156,13 +319,19 @@ public class GameServer {
     }
 
     public static void main(String[] args) {
-        GameServer server = new GameServer();
-        server.start();
+        ServerConfig config = new ServerConfig().ratingsFile(Paths.get("ratings.properties"));
+        if (Arrays.asList(args).contains("--nio")) {
+            config.ioMode(IoMode.NIO);
+        } else if (Arrays.asList(args).contains("--virtual")) {
+            config.ioMode(IoMode.VIRTUAL_THREADS);
+        }
+        GameServer server = new GameServer(config);
         
-        // Shutdown hook for graceful shutdown
+        // Shutdown hook for graceful shutdown; start() blocks, so register it first
         Runtime.getRuntime().addShutdownHook(new Thread(() -> {
             System.out.println("Shutting down server...");
             server.stop();
         }));
+        server.start();
     }
 }
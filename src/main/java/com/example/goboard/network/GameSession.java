@@ -0,0 +1,268 @@
+package com.example.goboard.network;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import com.example.goboard.controller.GameClock;
+import com.example.goboard.controller.GameController;
+import com.example.goboard.model.Stone;
+import com.example.goboard.network.codec.EncodedMessage;
+import com.example.goboard.util.HashedTimerWheel;
+
+/**
+ * One game as an actor: every move, pass, resign or disconnect affecting
+ * the game is a task in its mailbox, and the tasks run one at a time on a
+ * scheduler shared by all games. A game's controller and board are thus
+ * only ever touched by one thread at a time without any locks, while
+ * separate games run in parallel.
+ *
+ * At most one batch of a session is scheduled at once; the
+ * {@code scheduled} flag handed from batch to batch also makes each
+ * batch's writes visible to the next, whichever thread runs it. A batch
+ * stops after {@link #MAX_BATCH} tasks and reschedules itself, so a
+ * flooded game cannot hold a scheduler thread indefinitely.
+ *
+ * Any number of spectators may watch. What they are sent is encoded once
+ * per event and the same frame is queued on every spectator connection.
+ * The last {@link #EVENT_LOG_SIZE} of those move updates are also kept, so
+ * a player who reconnects can be sent just the moves it missed.
+ *
+ * A timed game keeps its {@link GameClock} here. The only timer it needs is
+ * one timeout on the server's {@link HashedTimerWheel} for the moment the
+ * running clock would run out; it is re-armed at every move, and when it
+ * fires it is checked in the session like any other event.
+ *
+ * Sessions are created and tracked by the {@link GameSessionRegistry} and
+ * move through {@link State} in order; once reclaimed, a session no longer
+ * references its controller or players.
+ */
+public class GameSession implements Executor {
+    private static final int MAX_BATCH = 64;
+    /** Move updates kept for replay to a reconnecting player. */
+    public static final int EVENT_LOG_SIZE = 64;
+
+    public enum State {
+        /** Registered, players being told the game has started. */
+        CREATED,
+        /** Being played. */
+        ACTIVE,
+        /** Over; tasks already in the mailbox still drain. */
+        FINISHED,
+        /** Removed from the registry, controller and players released. */
+        RECLAIMED
+    }
+
+    private final long id;
+    private final Executor scheduler;
+    private final Queue<Runnable> mailbox = new ConcurrentLinkedQueue<>();
+    private final AtomicBoolean scheduled = new AtomicBoolean();
+    private final AtomicReference<State> state = new AtomicReference<>(State.CREATED);
+    private volatile GameController controller;
+    private volatile ClientHandler black;
+    private volatile ClientHandler white;
+    private final Set<ClientHandler> spectators = ConcurrentHashMap.newKeySet();
+    // Session tasks only
+    private GameClock clock;
+    private HashedTimerWheel timers;
+    private HashedTimerWheel.Timeout flagTimer;
+    private final EncodedMessage[] events = new EncodedMessage[EVENT_LOG_SIZE];  // by version, as a ring
+    private int lastEvent;  // version of the newest logged update
+
+    public GameSession(long id, GameController controller, ClientHandler black, ClientHandler white,
+                       Executor scheduler) {
+        this.id = id;
+        this.controller = controller;
+        this.black = black;
+        this.white = white;
+        this.scheduler = scheduler;
+    }
+
+    public long getId() {
+        return id;
+    }
+
+    public State getState() {
+        return state.get();
+    }
+
+    /** The game's controller, or null once reclaimed. */
+    public GameController getController() {
+        return controller;
+    }
+
+    public ClientHandler getBlack() {
+        return black;
+    }
+
+    public ClientHandler getWhite() {
+        return white;
+    }
+
+    /** Adds a spectator; call from a task in this session so no update is missed or repeated. */
+    public void addSpectator(ClientHandler spectator) {
+        spectators.add(spectator);
+    }
+
+    public void removeSpectator(ClientHandler spectator) {
+        spectators.remove(spectator);
+    }
+
+    public Set<ClientHandler> getSpectators() {
+        return spectators;
+    }
+
+    /** Sends a message to every spectator, encoding it once for all of them. */
+    public void broadcast(GameMessage message) {
+        if (spectators.isEmpty()) return;
+        sendToSpectators(encode(message));
+    }
+
+    /**
+     * Logs the update for a move or pass just made and sends it to every
+     * spectator, encoded once for both. Session tasks only.
+     */
+    public void recordMove(GameMessage.BoardDeltaMessage update) {
+        EncodedMessage encoded = encode(update);
+        events[update.getVersion() % EVENT_LOG_SIZE] = encoded;
+        lastEvent = update.getVersion();
+        sendToSpectators(encoded);
+    }
+
+    /**
+     * The logged updates after position {@code version}, oldest first, or
+     * null if they are no longer all in the log (or the version is not one
+     * this game has reached) and a full snapshot must be sent instead.
+     * Session tasks only.
+     */
+    public List<EncodedMessage> eventsSince(int version) {
+        if (version < 0 || version > lastEvent || lastEvent - version > EVENT_LOG_SIZE) {
+            return null;
+        }
+        if (version == lastEvent) {
+            return Collections.emptyList();
+        }
+        List<EncodedMessage> missed = new ArrayList<>(lastEvent - version);
+        for (int v = version + 1; v <= lastEvent; v++) {
+            missed.add(events[v % EVENT_LOG_SIZE]);
+        }
+        return missed;
+    }
+
+    private void sendToSpectators(EncodedMessage encoded) {
+        for (ClientHandler spectator : spectators) {
+            spectator.sendMessage(encoded);
+        }
+    }
+
+    private static EncodedMessage encode(GameMessage message) {
+        try {
+            return EncodedMessage.encode(message);
+        } catch (IOException e) {
+            return EncodedMessage.wrap(message);
+        }
+    }
+
+    /** Starts timing the game with Black's clock running. Call from a task in this session. */
+    public void startClock(GameClock clock, HashedTimerWheel timers) {
+        this.clock = clock;
+        this.timers = timers;
+        clock.start(Stone.Color.BLACK, System.nanoTime());
+        armFlag();
+    }
+
+    /** The game's clock, or null for an untimed game. Session tasks only. */
+    public GameClock getClock() {
+        return clock;
+    }
+
+    /** Ends the current turn on the clock and starts the opponent's. Session tasks only. */
+    public void pressClock() {
+        if (clock == null) return;
+        clock.press(System.nanoTime());
+        armFlag();
+    }
+
+    /**
+     * If the running clock has run out, ends the game as a loss on time and
+     * returns true. Session tasks only.
+     */
+    public boolean checkFlag() {
+        if (clock == null || clock.getRunning() == null || getState() != State.ACTIVE) return false;
+        Stone.Color color = clock.getRunning();
+        if (!clock.isOutOfTime(color, System.nanoTime())) return false;
+        ClientHandler loser = color == Stone.Color.BLACK ? black : white;
+        clock.stop();
+        if (loser != null) {
+            loser.forfeit("ran out of time");
+        }
+        return true;
+    }
+
+    private void armFlag() {
+        if (flagTimer != null) {
+            flagTimer.cancel();
+        }
+        long left = clock.timeToFlag(clock.getRunning(), System.nanoTime());
+        // Fires at the deadline or up to a tick after; a stale one finds time left and does nothing
+        flagTimer = timers.schedule(() -> execute(this::checkFlag), left, TimeUnit.NANOSECONDS);
+    }
+
+    /** Moves from {@code from} to {@code to}; false if the session was not in {@code from}. */
+    boolean transition(State from, State to) {
+        return state.compareAndSet(from, to);
+    }
+
+    /** Drops the references that keep a finished game's board and players reachable. */
+    void release() {
+        state.set(State.RECLAIMED);
+        if (flagTimer != null) {
+            flagTimer.cancel();
+        }
+        clock = null;
+        controller = null;
+        black = null;
+        white = null;
+        spectators.clear();
+        Arrays.fill(events, null);
+        mailbox.clear();
+    }
+
+    /** Queues a task to run after every task already in this game's mailbox. */
+    @Override
+    public void execute(Runnable task) {
+        mailbox.add(task);
+        schedule();
+    }
+
+    private void schedule() {
+        if (scheduled.compareAndSet(false, true)) {
+            scheduler.execute(this::runBatch);
+        }
+    }
+
+    private void runBatch() {
+        Runnable task;
+        for (int n = 0; n < MAX_BATCH && (task = mailbox.poll()) != null; n++) {
+            try {
+                task.run();
+            } catch (RuntimeException e) {
+                System.err.println("Game task failed: " + e);
+            }
+        }
+        scheduled.set(false);
+        // A task added after the last poll found the flag still set
+        if (!mailbox.isEmpty()) {
+            schedule();
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package com.example.goboard.network;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicLong;
+import com.example.goboard.controller.GameController;
+
+/**
+ * All games on the server, keyed by id. Lookups are lock-free reads of a
+ * {@link ConcurrentHashMap}. A finished game is removed once the tasks
+ * already queued in its session have run, and its players let go of its
+ * board and controller, so games do not pile up over a long uptime.
+ */
+public class GameSessionRegistry {
+    private final Map<Long, GameSession> sessions = new ConcurrentHashMap<>();
+    private final AtomicLong nextId = new AtomicLong(1);
+    private final AtomicLong reclaimed = new AtomicLong();
+    private final Executor scheduler;
+
+    public GameSessionRegistry(Executor scheduler) {
+        this.scheduler = scheduler;
+    }
+
+    /** Registers a new game in the CREATED state; call {@link #activate} once the players know. */
+    public GameSession create(GameController controller, ClientHandler black, ClientHandler white) {
+        GameSession session = new GameSession(nextId.getAndIncrement(), controller, black, white, scheduler);
+        sessions.put(session.getId(), session);
+        return session;
+    }
+
+    public void activate(GameSession session) {
+        session.transition(GameSession.State.CREATED, GameSession.State.ACTIVE);
+    }
+
+    /**
+     * Ends a game: detaches both players and any spectators from it at once,
+     * so either player may start another game straight away, then reclaims the session after
+     * whatever is still in its mailbox. Only the first call for a session
+     * has any effect; returns whether this was it.
+     */
+    public boolean finish(GameSession session) {
+        if (session == null
+            || !(session.transition(GameSession.State.ACTIVE, GameSession.State.FINISHED)
+                 || session.transition(GameSession.State.CREATED, GameSession.State.FINISHED))) {
+            return false;
+        }
+        for (ClientHandler player : new ClientHandler[] { session.getBlack(), session.getWhite() }) {
+            if (player != null) {
+                player.leaveGame(session);
+            }
+        }
+        for (ClientHandler spectator : session.getSpectators()) {
+            spectator.stopWatching(session);
+        }
+        session.execute(() -> reclaim(session));
+        return true;
+    }
+
+    private void reclaim(GameSession session) {
+        sessions.remove(session.getId());
+        session.release();
+        reclaimed.incrementAndGet();
+    }
+
+    public GameSession get(long id) {
+        return sessions.get(id);
+    }
+
+    /** Games created or being played, plus finished ones not yet reclaimed. */
+    public Collection<GameSession> getSessions() {
+        return Collections.unmodifiableCollection(sessions.values());
+    }
+
+    public int size() {
+        return sessions.size();
+    }
+
+    public long getReclaimedCount() {
+        return reclaimed.get();
+    }
+}
@@ -0,0 +1,17 @@
+package com.example.goboard.network;
+
+/**
+ * How {@link GameServer} does socket I/O.
+ */
+public enum IoMode {
+    /** One platform thread per client blocked reading its socket; works with any codec. */
+    BLOCKING,
+    /**
+     * The same blocking handler code, but each client runs on a virtual
+     * thread, so an idle connection costs a small heap-allocated stack
+     * instead of an OS thread.
+     */
+    VIRTUAL_THREADS,
+    /** A few selector event loops shared by all clients; binary protocol only. */
+    NIO
+}
@@ -0,0 +1,61 @@
+package com.example.goboard.network;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Moves a player has queued for the opponent's next move: at most one
+ * unconditional premove plus conditional replies to particular moves, each
+ * replacing an earlier one with the same condition. Whatever happens on
+ * the opponent's move, the queue is emptied, since a premove is only ever
+ * meant for that move. Only touched from the game's session.
+ */
+public class Premoves {
+    public static final int MAX_QUEUED = 8;
+
+    private final List<GameMessage.PremoveMessage> queued = new ArrayList<>();
+
+    /** Queues a premove; false if the queue is full. */
+    public boolean add(GameMessage.PremoveMessage premove) {
+        for (int i = 0; i < queued.size(); i++) {
+            GameMessage.PremoveMessage other = queued.get(i);
+            if (other.getIfRow() == premove.getIfRow() && other.getIfCol() == premove.getIfCol()) {
+                queued.set(i, premove);
+                return true;
+            }
+        }
+        if (queued.size() == MAX_QUEUED) {
+            return false;
+        }
+        queued.add(premove);
+        return true;
+    }
+
+    /**
+     * Takes the premove answering an opponent move at (row, col), row -1 for
+     * a pass: the conditional reply to that move if there is one, else the
+     * unconditional premove, else null. Empties the queue either way.
+     */
+    public GameMessage.PremoveMessage take(int row, int col) {
+        GameMessage.PremoveMessage reply = null;
+        for (GameMessage.PremoveMessage premove : queued) {
+            if (premove.isConditional() && premove.answers(row, col)) {
+                reply = premove;
+                break;
+            }
+            if (!premove.isConditional()) {
+                reply = premove;
+            }
+        }
+        queued.clear();
+        return reply;
+    }
+
+    public void clear() {
+        queued.clear();
+    }
+
+    public int size() {
+        return queued.size();
+    }
+}
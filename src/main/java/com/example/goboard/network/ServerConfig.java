@@ -0,0 +1,101 @@
+package com.example.goboard.network;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.concurrent.ExecutorService;
+import com.example.goboard.controller.TimeControl;
+import com.example.goboard.network.codec.BinaryMessageCodec;
+import com.example.goboard.network.codec.MessageCodec;
+import com.example.goboard.network.transport.OverflowPolicy;
+
+/**
+ * Settings for a {@link GameServer}, set fluently:
+ * {@code new ServerConfig().port(6000).codec(new SerializationCodec())}.
+ */
+public class ServerConfig {
+    public static final int DEFAULT_PORT = 5555;
+
+    private int port = DEFAULT_PORT;
+    private MessageCodec codec = new BinaryMessageCodec();
+    private boolean deltaUpdates = true;
+    private IoMode ioMode = IoMode.BLOCKING;
+    private int eventLoops = Runtime.getRuntime().availableProcessors();
+    private ExecutorService clientExecutor;
+    private int outboundQueueCapacity = 256;
+    private OverflowPolicy overflowPolicy = OverflowPolicy.RESYNC;
+    private int gameThreads = Runtime.getRuntime().availableProcessors();
+    private boolean ratedMatchmaking = true;
+    private Path ratingsFile;
+    private TimeControl timeControl = TimeControl.byoYomi(Duration.ofMinutes(10), 5, Duration.ofSeconds(30));
+    private Duration heartbeatInterval = Duration.ofSeconds(15);
+    private Duration idleTimeout = Duration.ofSeconds(45);
+    private Duration reconnectGrace = Duration.ofSeconds(30);
+    private int maxMessageSize = 16 * 1024;
+    private double messagesPerSecond = 20;
+    private int messageBurst = 40;
+
+
+    public ServerConfig port(int port) { this.port = port; return this; }
+    public ServerConfig codec(MessageCodec codec) { this.codec = codec; return this; }
+    /** Send moves as board deltas (default) rather than the full board after every move. */
+    public ServerConfig deltaUpdates(boolean deltaUpdates) { this.deltaUpdates = deltaUpdates; return this; }
+    public ServerConfig ioMode(IoMode ioMode) { this.ioMode = ioMode; return this; }
+    /** Number of selector threads in {@link IoMode#NIO} mode. */
+    public ServerConfig eventLoops(int eventLoops) { this.eventLoops = eventLoops; return this; }
+    /**
+     * Executor that runs each blocking {@link ClientHandler} and the short
+     * writer tasks that drain its outbound queue, overriding the one implied
+     * by the I/O mode. It must start every task right away (one thread per
+     * client), since a handler runs until its client leaves.
+     */
+    public ServerConfig clientExecutor(ExecutorService clientExecutor) { this.clientExecutor = clientExecutor; return this; }
+    /** Messages a client may have waiting to be written before the overflow policy applies. */
+    public ServerConfig outboundQueueCapacity(int capacity) { this.outboundQueueCapacity = capacity; return this; }
+    public ServerConfig overflowPolicy(OverflowPolicy overflowPolicy) { this.overflowPolicy = overflowPolicy; return this; }
+    /** Threads shared by all game sessions to run moves. */
+    public ServerConfig gameThreads(int gameThreads) { this.gameThreads = gameThreads; return this; }
+    /** Pair players of similar rating (default) rather than strictly in arrival order. */
+    public ServerConfig ratedMatchmaking(boolean ratedMatchmaking) { this.ratedMatchmaking = ratedMatchmaking; return this; }
+    /** File the ratings are loaded from and saved to; without one they last only as long as the server. */
+    public ServerConfig ratingsFile(Path ratingsFile) { this.ratingsFile = ratingsFile; return this; }
+    /** Clock for every game (default 10 minutes plus 5 x 30 s byo-yomi); null for untimed games. */
+    public ServerConfig timeControl(TimeControl timeControl) { this.timeControl = timeControl; return this; }
+    public ServerConfig heartbeatInterval(Duration interval) { this.heartbeatInterval = interval; return this; }
+    /** A client that sends nothing, heartbeat echoes included, for this long is disconnected. */
+    public ServerConfig idleTimeout(Duration idleTimeout) { this.idleTimeout = idleTimeout; return this; }
+    /**
+     * How long a player whose connection drops mid-game has to resume it
+     * from a new connection before forfeiting; zero forfeits at once.
+     */
+    public ServerConfig reconnectGrace(Duration reconnectGrace) { this.reconnectGrace = reconnectGrace; return this; }
+    /** Largest message a client may send, in bytes; a bigger one closes its connection. */
+    public ServerConfig maxMessageSize(int maxMessageSize) { this.maxMessageSize = maxMessageSize; return this; }
+    /**
+     * Sustained rate and burst of messages each client may send; messages
+     * beyond them are dropped with an error rather than processed.
+     */
+    public ServerConfig messageRate(double perSecond, int burst) {
+        this.messagesPerSecond = perSecond;
+        this.messageBurst = burst;
+        return this;
+    }
+
+    public int getPort() { return port; }
+    public MessageCodec getCodec() { return codec; }
+    public boolean isDeltaUpdates() { return deltaUpdates; }
+    public IoMode getIoMode() { return ioMode; }
+    public int getEventLoops() { return eventLoops; }
+    public ExecutorService getClientExecutor() { return clientExecutor; }
+    public int getOutboundQueueCapacity() { return outboundQueueCapacity; }
+    public OverflowPolicy getOverflowPolicy() { return overflowPolicy; }
+    public int getGameThreads() { return gameThreads; }
+    public boolean isRatedMatchmaking() { return ratedMatchmaking; }
+    public Path getRatingsFile() { return ratingsFile; }
+    public TimeControl getTimeControl() { return timeControl; }
+    public Duration getHeartbeatInterval() { return heartbeatInterval; }
+    public Duration getIdleTimeout() { return idleTimeout; }
+    public Duration getReconnectGrace() { return reconnectGrace; }
+    public int getMaxMessageSize() { return maxMessageSize; }
+    public double getMessagesPerSecond() { return messagesPerSecond; }
+    public int getMessageBurst() { return messageBurst; }
+}
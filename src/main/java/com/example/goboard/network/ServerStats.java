@@ -0,0 +1,28 @@
+package com.example.goboard.network;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/** Server-wide counters of messages and connections turned away. */
+public final class ServerStats {
+    private final LongAdder rateLimited = new LongAdder();
+    private final LongAdder oversized = new LongAdder();
+    private final LongAdder filtered = new LongAdder();
+
+    void rateLimited() { rateLimited.increment(); }
+    void oversized() { oversized.increment(); }
+    void filtered() { filtered.increment(); }
+
+    /** Messages dropped because their sender exceeded its rate limit. */
+    public long getRateLimited() { return rateLimited.sum(); }
+
+    /** Connections closed for sending a message over the size limit. */
+    public long getOversized() { return oversized.sum(); }
+
+    /** Connections closed for sending objects the deserialization filter rejects. */
+    public long getFiltered() { return filtered.sum(); }
+
+    @Override
+    public String toString() {
+        return "rate limited " + getRateLimited() + ", oversized " + getOversized() + ", filtered " + getFiltered();
+    }
+}
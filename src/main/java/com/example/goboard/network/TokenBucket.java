@@ -0,0 +1,31 @@
+package com.example.goboard.network;
+
+/**
+ * Token bucket rate limiter: holds up to {@code burst} tokens, refilled at
+ * {@code perSecond}, and each message takes one. Not thread-safe; a
+ * connection's messages are only ever handled by one thread at a time.
+ */
+public final class TokenBucket {
+    private final double perNano;
+    private final double capacity;
+    private double tokens;
+    private long last;
+
+    public TokenBucket(double perSecond, int burst, long now) {
+        this.perNano = perSecond / 1e9;
+        this.capacity = burst;
+        this.tokens = burst;
+        this.last = now;
+    }
+
+    /** Takes a token if one is available at time {@code now} (nanoseconds). */
+    public boolean tryAcquire(long now) {
+        tokens = Math.min(capacity, tokens + (now - last) * perNano);
+        last = now;
+        if (tokens < 1) {
+            return false;
+        }
+        tokens -= 1;
+        return true;
+    }
+}
@@ -0,0 +1,453 @@
+package com.example.goboard.network.codec;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import com.example.goboard.network.GameMessage;
+
+/**
+ * Compact binary protocol.
+ *
+ * Each side opens its stream with a 3-byte header ({@code 'G' 'O' version});
+ * a reader rejects any other header. After that every message is one frame:
+ * <pre>
+ *   int   length of what follows
+ *   byte  message class (SIMPLE, TEXT, MOVE, ...), high bit set if a seq follows
+ *   byte  MessageType ordinal
+ *   int   seq, only if flagged
+ *   ...   class-specific payload
+ * </pre>
+ * so the unnumbered messages that make up most traffic carry no seq at all.
+ * Coordinates are one unsigned byte each, so a move is two bytes of payload.
+ * Boards are a size byte (0 for none) followed by the points packed four to
+ * a byte, 2 bits each (0 empty, 1 black, 2 white): 91 bytes for 19x19.
+ * Strings are a short byte length (-1 for null) and UTF-8. Every message
+ * with a board ends with the int version of that position. A board delta is
+ * the move (255 for a pass), color, a short count of captured points as
+ * coordinate pairs, then an int version and long hash. A premove is the
+ * move and the opponent move it answers (255, 255 for any); a resume is the
+ * token string and an int version.
+ *
+ * Writers and readers reuse one frame buffer per connection, and frames are
+ * limited to {@link #MAX_FRAME} bytes (readers may set a lower limit), so
+ * per-connection memory stays bounded.
+ */
+public class BinaryMessageCodec implements MessageCodec {
+    public static final byte VERSION = 7;
+    public static final int MAX_FRAME = DEFAULT_MAX_MESSAGE_SIZE;
+
+    private static final byte MAGIC_0 = 'G';
+    private static final byte MAGIC_1 = 'O';
+
+    // Message classes on the wire
+    private static final byte SIMPLE = 0;
+    private static final byte TEXT = 1;
+    private static final byte MOVE = 2;
+    private static final byte JOIN = 3;
+    private static final byte BOARD_STATE = 4;
+    private static final byte MOVE_RESPONSE = 5;
+    private static final byte OPPONENT_MOVE = 6;
+    private static final byte DELTA = 7;
+    private static final byte PREMOVE = 8;
+    private static final byte RESUME = 9;
+    private static final int SEQ_FLAG = 0x80;
+
+    /** Largest board a frame may carry, written or read; a reader treats anything bigger as corrupt. */
+    private static final int MAX_BOARD_SIZE = 25;
+
+    private static final GameMessage.MessageType[] TYPES = GameMessage.MessageType.values();
+
+    @Override
+    public String getName() { return "binary"; }
+
+    @Override
+    public Writer newWriter(OutputStream out) throws IOException {
+        DataOutputStream data = new DataOutputStream(new BufferedOutputStream(out));
+        data.write(streamHeader());
+        data.flush();
+        return new BinaryWriter(data);
+    }
+
+    @Override
+    public Reader newReader(InputStream in, int maxMessageSize) throws IOException {
+        DataInputStream data = new DataInputStream(new BufferedInputStream(in));
+        checkHeader(data.readUnsignedByte(), data.readUnsignedByte(), data.readUnsignedByte());
+        return new BinaryReader(data, Math.min(maxMessageSize, MAX_FRAME), false);
+    }
+
+    @Override
+    public Reader newServerReader(InputStream in, int maxMessageSize) throws IOException {
+        DataInputStream data = new DataInputStream(new BufferedInputStream(in));
+        checkHeader(data.readUnsignedByte(), data.readUnsignedByte(), data.readUnsignedByte());
+        return new BinaryReader(data, Math.min(maxMessageSize, MAX_FRAME), true);
+    }
+
+    /** The bytes each side sends before its first frame. */
+    public static byte[] streamHeader() {
+        return new byte[] { MAGIC_0, MAGIC_1, VERSION };
+    }
+
+    /** Validates the three header bytes read from a peer. */
+    public static void checkHeader(int m0, int m1, int version) throws IOException {
+        if (m0 != MAGIC_0 || m1 != MAGIC_1) {
+            throw new IOException("Not a binary protocol stream");
+        }
+        if (version != VERSION) {
+            throw new IOException("Unsupported protocol version " + version);
+        }
+    }
+
+    /** Rejects a frame length prefix that cannot belong to a valid frame. */
+    public static void checkFrameLength(int length, int maxFrame) throws IOException {
+        if (length < 2) {
+            throw new IOException("Bad frame length " + length);
+        }
+        if (length > maxFrame) {
+            throw new MessageTooLargeException(length, maxFrame);
+        }
+    }
+
+    /** Encodes one message as a complete frame, length prefix included. */
+    public static byte[] encodeFrame(GameMessage message) throws IOException {
+        Frame frame = new Frame();
+        frame.encode(message);
+        return frame.toByteArray();
+    }
+
+    /** {@link GameMessage#mustDeliver()} for an encoded frame, length prefix included. */
+    public static boolean mustDeliver(ByteBuffer frame) {
+        int start = frame.position();
+        return (frame.get(start + 4) & SEQ_FLAG) != 0
+            || frame.get(start + 5) == GameMessage.MessageType.GAME_OVER.ordinal();
+    }
+
+    /** Decodes the body of one frame (everything after the length prefix). */
+    public static GameMessage decode(ByteBuffer buf) throws IOException {
+        return decode(buf, false);
+    }
+
+    /**
+     * Decodes one frame; with {@code fromClient}, a frame of a type or
+     * message class only the server sends fails before its body is read.
+     */
+    public static GameMessage decode(ByteBuffer buf, boolean fromClient) throws IOException {
+        try {
+            int kind = buf.get() & 0xFF;
+            int typeIndex = buf.get() & 0xFF;
+            if (typeIndex >= TYPES.length) throw new IOException("Unknown message type " + typeIndex);
+            GameMessage.MessageType type = TYPES[typeIndex];
+            if (fromClient && (!type.isFromClient() || !isClientKind(kind & ~SEQ_FLAG))) {
+                throw new IOException("Client sent a server message " + type);
+            }
+            int seq = (kind & SEQ_FLAG) != 0 ? buf.getInt() : 0;
+            GameMessage message = decodeBody(kind & ~SEQ_FLAG, type, buf);
+            message.setSeq(seq);
+            return message;
+        } catch (BufferUnderflowException e) {
+            throw new IOException("Truncated frame", e);
+        }
+    }
+
+    private static boolean isClientKind(int kind) {
+        return kind == SIMPLE || kind == TEXT || kind == MOVE || kind == JOIN || kind == PREMOVE || kind == RESUME;
+    }
+
+    private static GameMessage decodeBody(int kind, GameMessage.MessageType type, ByteBuffer buf) throws IOException {
+        switch (kind) {
+            case SIMPLE:
+                return new GameMessage.SimpleMessage(type);
+            case TEXT:
+                return new GameMessage.TextMessage(type, readString(buf));
+            case MOVE:
+                return new GameMessage.MoveMessage(type, buf.get() & 0xFF, buf.get() & 0xFF);
+            case JOIN:
+                return new GameMessage.JoinGameMessage(readString(buf));
+            case BOARD_STATE: {
+                int[][] board = readBoard(buf);
+                GameMessage.BoardStateMessage m = new GameMessage.BoardStateMessage(type, board, readString(buf));
+                m.setVersion(buf.getInt());
+                return m;
+            }
+            case MOVE_RESPONSE: {
+                boolean success = buf.get() != 0;
+                String text = readString(buf);
+                GameMessage.MoveResponseMessage m = new GameMessage.MoveResponseMessage(success, text, readBoard(buf));
+                m.setVersion(buf.getInt());
+                return m;
+            }
+            case OPPONENT_MOVE: {
+                int row = buf.get() & 0xFF;
+                int col = buf.get() & 0xFF;
+                String text = readString(buf);
+                GameMessage.OpponentMoveMessage m = new GameMessage.OpponentMoveMessage(row, col, text, readBoard(buf));
+                m.setVersion(buf.getInt());
+                return m;
+            }
+            case PREMOVE: {
+                int row = buf.get() & 0xFF;
+                int col = buf.get() & 0xFF;
+                int ifRow = buf.get() & 0xFF;
+                int ifCol = buf.get() & 0xFF;
+                return new GameMessage.PremoveMessage(row, col, ifRow == 255 ? -1 : ifRow, ifCol == 255 ? -1 : ifCol);
+            }
+            case RESUME: {
+                String token = readString(buf);
+                return new GameMessage.ResumeMessage(token, buf.getInt());
+            }
+            case DELTA: {
+                int row = buf.get() & 0xFF;
+                int col = buf.get() & 0xFF;
+                int color = buf.get();
+                int count = buf.getShort() & 0xFFFF;
+                if (count * 2 > buf.remaining()) {
+                    throw new IOException("Delta claims " + count + " captures in a " + buf.remaining() + "-byte payload");
+                }
+                int[] captured = new int[count * 2];
+                for (int i = 0; i < captured.length; i++) captured[i] = buf.get() & 0xFF;
+                int version = buf.getInt();
+                long hash = buf.getLong();
+                return new GameMessage.BoardDeltaMessage(type, row == 255 ? -1 : row, col == 255 ? -1 : col,
+                    color, captured, version, hash, readString(buf));
+            }
+            default:
+                throw new IOException("Unknown message class " + kind);
+        }
+    }
+
+    private static String readString(ByteBuffer buf) {
+        int len = buf.getShort();
+        if (len < 0) return null;
+        if (len > buf.remaining()) throw new BufferUnderflowException();
+        String s = new String(buf.array(), buf.arrayOffset() + buf.position(), len, StandardCharsets.UTF_8);
+        buf.position(buf.position() + len);
+        return s;
+    }
+
+    private static int[][] readBoard(ByteBuffer buf) throws IOException {
+        int size = buf.get() & 0xFF;
+        if (size == 0) return null;
+        if (size > MAX_BOARD_SIZE) throw new IOException("Unsupported board size " + size);
+        if ((size * size + 3) / 4 > buf.remaining()) {
+            throw new IOException("Board of size " + size + " doesn't fit in a " + buf.remaining() + "-byte payload");
+        }
+        int[][] board = new int[size][size];
+        int bits = 0;
+        int pending = 0;
+        for (int r = 0; r < size; r++) {
+            for (int c = 0; c < size; c++) {
+                if (pending == 0) {
+                    bits = buf.get() & 0xFF;
+                    pending = 4;
+                }
+                board[r][c] = bits & 3;
+                bits >>>= 2;
+                pending--;
+            }
+        }
+        return board;
+    }
+
+    /** Frame buffer: grows to the largest message sent and is reused after that. */
+    private static final class Frame extends ByteArrayOutputStream {
+        private final DataOutputStream data = new DataOutputStream(this);
+
+        Frame() {
+            super(128);
+        }
+
+        /** Encodes into the buffer with a placeholder length, then patches the length in. */
+        void encode(GameMessage message) throws IOException {
+            reset();
+            data.writeInt(0);
+            if (message instanceof GameMessage.OpponentMoveMessage) {
+                GameMessage.OpponentMoveMessage m = (GameMessage.OpponentMoveMessage) message;
+                header(OPPONENT_MOVE, m);
+                coordinate(m.getRow());
+                coordinate(m.getCol());
+                string(m.getMessage());
+                board(m.getBoardState());
+                data.writeInt(m.getVersion());
+            } else if (message instanceof GameMessage.MoveResponseMessage) {
+                GameMessage.MoveResponseMessage m = (GameMessage.MoveResponseMessage) message;
+                header(MOVE_RESPONSE, m);
+                data.writeByte(m.isSuccess() ? 1 : 0);
+                string(m.getMessage());
+                board(m.getBoardState());
+                data.writeInt(m.getVersion());
+            } else if (message instanceof GameMessage.BoardStateMessage) {
+                GameMessage.BoardStateMessage m = (GameMessage.BoardStateMessage) message;
+                header(BOARD_STATE, m);
+                board(m.getBoardState());
+                string(m.getMessage());
+                data.writeInt(m.getVersion());
+            } else if (message instanceof GameMessage.BoardDeltaMessage) {
+                GameMessage.BoardDeltaMessage m = (GameMessage.BoardDeltaMessage) message;
+                header(DELTA, m);
+                if (m.isPass()) {
+                    data.writeByte(255);
+                    data.writeByte(255);
+                } else {
+                    coordinate(m.getRow());
+                    coordinate(m.getCol());
+                }
+                data.writeByte(m.getColor());
+                data.writeShort(m.getCapturedCount());
+                for (int i = 0; i < m.getCapturedCount(); i++) {
+                    coordinate(m.getCapturedRow(i));
+                    coordinate(m.getCapturedCol(i));
+                }
+                data.writeInt(m.getVersion());
+                data.writeLong(m.getHash());
+                string(m.getMessage());
+            } else if (message instanceof GameMessage.PremoveMessage) {
+                GameMessage.PremoveMessage m = (GameMessage.PremoveMessage) message;
+                header(PREMOVE, m);
+                coordinate(m.getRow());
+                coordinate(m.getCol());
+                if (m.isConditional()) {
+                    coordinate(m.getIfRow());
+                    coordinate(m.getIfCol());
+                } else {
+                    data.writeByte(255);
+                    data.writeByte(255);
+                }
+            } else if (message instanceof GameMessage.ResumeMessage) {
+                GameMessage.ResumeMessage m = (GameMessage.ResumeMessage) message;
+                header(RESUME, m);
+                string(m.getToken());
+                data.writeInt(m.getVersion());
+            } else if (message instanceof GameMessage.JoinGameMessage) {
+                header(JOIN, message);
+                string(((GameMessage.JoinGameMessage) message).getPlayerName());
+            } else if (message instanceof GameMessage.MoveMessage) {
+                GameMessage.MoveMessage m = (GameMessage.MoveMessage) message;
+                header(MOVE, m);
+                coordinate(m.getRow());
+                coordinate(m.getCol());
+            } else if (message instanceof GameMessage.TextMessage) {
+                header(TEXT, message);
+                string(((GameMessage.TextMessage) message).getMessage());
+            } else if (message instanceof GameMessage.SimpleMessage) {
+                header(SIMPLE, message);
+            } else {
+                throw new IOException("No binary encoding for " + message.getClass().getSimpleName());
+            }
+            int length = count - 4;
+            if (length > MAX_FRAME) throw new IOException("Message too large: " + length + " bytes");
+            buf[0] = (byte) (length >>> 24);
+            buf[1] = (byte) (length >>> 16);
+            buf[2] = (byte) (length >>> 8);
+            buf[3] = (byte) length;
+        }
+
+        private void header(byte kind, GameMessage message) throws IOException {
+            int seq = message.getSeq();
+            data.writeByte(seq != 0 ? kind | SEQ_FLAG : kind);
+            data.writeByte(message.getType().ordinal());
+            if (seq != 0) {
+                data.writeInt(seq);
+            }
+        }
+
+        private void coordinate(int v) throws IOException {
+            if (v < 0 || v > 254) throw new IOException("Coordinate out of range: " + v);
+            data.writeByte(v);
+        }
+
+        private void string(String s) throws IOException {
+            if (s == null) {
+                data.writeShort(-1);
+                return;
+            }
+            byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+            if (bytes.length > Short.MAX_VALUE) throw new IOException("String too long: " + bytes.length + " bytes");
+            data.writeShort(bytes.length);
+            data.write(bytes);
+        }
+
+        private void board(int[][] board) throws IOException {
+            if (board == null) {
+                data.writeByte(0);
+                return;
+            }
+            int size = board.length;
+            if (size > MAX_BOARD_SIZE) throw new IOException("Board too large: " + size);
+            data.writeByte(size);
+            int bits = 0;
+            int filled = 0;
+            for (int r = 0; r < size; r++) {
+                for (int c = 0; c < size; c++) {
+                    bits |= (board[r][c] & 3) << (filled * 2);
+                    if (++filled == 4) {
+                        data.writeByte(bits);
+                        bits = 0;
+                        filled = 0;
+                    }
+                }
+            }
+            if (filled > 0) data.writeByte(bits);
+        }
+    }
+
+    private static final class BinaryWriter implements Writer {
+        private final DataOutputStream out;
+        private final Frame frame = new Frame();
+
+        BinaryWriter(DataOutputStream out) {
+            this.out = out;
+        }
+
+        @Override
+        public void append(GameMessage message) throws IOException {
+            frame.encode(message);
+            frame.writeTo(out);
+        }
+
+        /** Copies a frame encoded once for many connections instead of encoding it again. */
+        @Override
+        public void append(EncodedMessage message) throws IOException {
+            if (message.getFrame() != null) {
+                out.write(message.getFrame());
+            } else {
+                append(message.getMessage());
+            }
+        }
+
+        @Override
+        public void flush() throws IOException {
+            out.flush();
+        }
+    }
+
+    private static final class BinaryReader implements Reader {
+        private final DataInputStream in;
+        private final int maxFrame;
+        private final boolean fromClient;
+        private byte[] body = new byte[128];
+
+        BinaryReader(DataInputStream in, int maxFrame, boolean fromClient) {
+            this.in = in;
+            this.maxFrame = maxFrame;
+            this.fromClient = fromClient;
+        }
+
+        @Override
+        public GameMessage read() throws IOException {
+            int length = in.readInt();
+            checkFrameLength(length, maxFrame);
+            if (body.length < length) {
+                body = new byte[Math.min(Math.max(length, body.length * 2), maxFrame)];
+            }
+            in.readFully(body, 0, length);
+            return decode(ByteBuffer.wrap(body, 0, length), fromClient);
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package com.example.goboard.network.codec;
+
+import java.io.IOException;
+import com.example.goboard.network.GameMessage;
+
+/**
+ * A message together with, optionally, its binary frame encoded ahead of
+ * time. A message sent to many connections is encoded once with
+ * {@link #encode} and the same immutable frame is written to each of them;
+ * connections using another codec fall back to the message itself.
+ */
+public final class EncodedMessage {
+    private final GameMessage message;
+    private final byte[] frame;
+
+    private EncodedMessage(GameMessage message, byte[] frame) {
+        this.message = message;
+        this.frame = frame;
+    }
+
+    /** Wraps a message to be encoded by each connection's own writer. */
+    public static EncodedMessage wrap(GameMessage message) {
+        return new EncodedMessage(message, null);
+    }
+
+    /** Encodes a message once into a binary frame to be shared. */
+    public static EncodedMessage encode(GameMessage message) throws IOException {
+        return new EncodedMessage(message, BinaryMessageCodec.encodeFrame(message));
+    }
+
+    public GameMessage getMessage() {
+        return message;
+    }
+
+    /** Length-prefixed binary frame, or null if not encoded ahead of time. Must not be modified. */
+    public byte[] getFrame() {
+        return frame;
+    }
+}
@@ -0,0 +1,62 @@
+package com.example.goboard.network.codec;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import com.example.goboard.network.GameMessage;
+
+/**
+ * Strategy interface for turning {@link GameMessage}s into bytes on a
+ * connection. A codec is stateless and shared; each connection gets its own
+ * {@link Writer} and {@link Reader}, which hold the per-stream state.
+ */
+public interface MessageCodec {
+    /** Largest message a reader accepts unless told otherwise. */
+    int DEFAULT_MAX_MESSAGE_SIZE = 64 * 1024;
+
+    String getName();
+
+    Writer newWriter(OutputStream out) throws IOException;
+
+    /**
+     * Reader that fails with {@link MessageTooLargeException} rather than
+     * buffer a message of more than {@code maxMessageSize} bytes.
+     */
+    Reader newReader(InputStream in, int maxMessageSize) throws IOException;
+
+    default Reader newReader(InputStream in) throws IOException {
+        return newReader(in, DEFAULT_MAX_MESSAGE_SIZE);
+    }
+
+    /**
+     * Reader for the server's end of a connection: like
+     * {@link #newReader(InputStream, int)}, but also fails with an
+     * IOException on a type only the server sends, before decoding its body.
+     */
+    Reader newServerReader(InputStream in, int maxMessageSize) throws IOException;
+
+    /** Writes messages to one stream. Not thread-safe: callers serialize writes. */
+    interface Writer {
+        /** Encodes one message into the stream's buffer without flushing. */
+        void append(GameMessage message) throws IOException;
+
+        /** Appends a message that may already be encoded; by default encodes it here. */
+        default void append(EncodedMessage message) throws IOException {
+            append(message.getMessage());
+        }
+
+        void flush() throws IOException;
+
+        /** Encodes and flushes one message. */
+        default void write(GameMessage message) throws IOException {
+            append(message);
+            flush();
+        }
+    }
+
+    /** Reads messages from one stream. */
+    interface Reader {
+        /** Blocks for the next message; throws {@link java.io.EOFException} at end of stream. */
+        GameMessage read() throws IOException;
+    }
+}
@@ -0,0 +1,12 @@
+package com.example.goboard.network.codec;
+
+import java.io.IOException;
+
+/** A peer announced or sent a message larger than the reader accepts. */
+public class MessageTooLargeException extends IOException {
+    private static final long serialVersionUID = 1L;
+
+    public MessageTooLargeException(int size, int limit) {
+        super("Message of " + size + " bytes exceeds the limit of " + limit);
+    }
+}
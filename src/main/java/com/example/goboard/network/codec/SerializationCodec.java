@@ -0,0 +1,142 @@
+package com.example.goboard.network.codec;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.ObjectInputFilter;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.OutputStream;
+import com.example.goboard.network.GameMessage;
+
+/**
+ * Java serialization, kept as a fallback for peers that do not speak the
+ * binary protocol. The output stream is reset after every message so its
+ * handle table does not keep every message sent for the life of the
+ * connection.
+ *
+ * Readers only accept game message classes, strings and int arrays, through
+ * an {@link ObjectInputFilter} that also bounds nesting depth, array length
+ * and object count, and fail once one message has taken more than the byte
+ * limit, so a hostile peer cannot make the server build arbitrary or huge
+ * object graphs.
+ */
+public class SerializationCodec implements MessageCodec {
+    private static final int MAX_DEPTH = 8;
+    private static final int MAX_REFERENCES = 2000;
+    private static final int MAX_ARRAY_LENGTH = 1024;
+
+    static final ObjectInputFilter FILTER = info -> {
+        if (info.depth() > MAX_DEPTH || info.references() > MAX_REFERENCES
+            || info.arrayLength() > MAX_ARRAY_LENGTH) {
+            return ObjectInputFilter.Status.REJECTED;
+        }
+        Class<?> type = info.serialClass();
+        if (type == null) {
+            return ObjectInputFilter.Status.UNDECIDED;
+        }
+        while (type.isArray()) {
+            type = type.getComponentType();
+        }
+        if (type.isPrimitive() || type == String.class || type == Enum.class
+            || type.getName().startsWith(GameMessage.class.getName())) {
+            return ObjectInputFilter.Status.ALLOWED;
+        }
+        return ObjectInputFilter.Status.REJECTED;
+    };
+
+    /** {@link #FILTER}, also refusing the message classes only the server sends. */
+    static final ObjectInputFilter CLIENT_FILTER = info -> {
+        Class<?> type = info.serialClass();
+        if (type == GameMessage.BoardStateMessage.class || type == GameMessage.MoveResponseMessage.class
+            || type == GameMessage.OpponentMoveMessage.class || type == GameMessage.BoardDeltaMessage.class) {
+            return ObjectInputFilter.Status.REJECTED;
+        }
+        return FILTER.checkInput(info);
+    };
+
+    @Override
+    public String getName() { return "serialization"; }
+
+    @Override
+    public Writer newWriter(OutputStream out) throws IOException {
+        ObjectOutputStream oos = new ObjectOutputStream(out);
+        oos.flush();
+        return new Writer() {
+            @Override
+            public void append(GameMessage message) throws IOException {
+                oos.writeObject(message);
+                oos.reset();
+            }
+
+            @Override
+            public void flush() throws IOException {
+                oos.flush();
+            }
+        };
+    }
+
+    @Override
+    public Reader newReader(InputStream in, int maxMessageSize) throws IOException {
+        return newReader(in, maxMessageSize, false);
+    }
+
+    @Override
+    public Reader newServerReader(InputStream in, int maxMessageSize) throws IOException {
+        return newReader(in, maxMessageSize, true);
+    }
+
+    private static Reader newReader(InputStream in, int maxMessageSize, boolean fromClient) throws IOException {
+        CountingInputStream counted = new CountingInputStream(in, maxMessageSize);
+        ObjectInputStream ois = new ObjectInputStream(counted);
+        ois.setObjectInputFilter(fromClient ? CLIENT_FILTER : FILTER);
+        return () -> {
+            counted.startMessage();
+            GameMessage message;
+            try {
+                message = (GameMessage) ois.readObject();
+            } catch (ClassNotFoundException | ClassCastException e) {
+                throw new IOException("Unreadable message: " + e.getMessage(), e);
+            }
+            if (fromClient && !message.getType().isFromClient()) {
+                throw new IOException("Client sent a server message " + message.getType());
+            }
+            return message;
+        };
+    }
+
+    /** Fails once more than the limit has been read since the current message started. */
+    private static final class CountingInputStream extends FilterInputStream {
+        private final int limit;
+        private int count;
+
+        CountingInputStream(InputStream in, int limit) {
+            super(in);
+            this.limit = limit;
+        }
+
+        void startMessage() {
+            count = 0;
+        }
+
+        private void add(int n) throws IOException {
+            if (n > 0 && (count += n) > limit) {
+                throw new MessageTooLargeException(count, limit);
+            }
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            add(b < 0 ? 0 : 1);
+            return b;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            int n = super.read(b, off, len);
+            add(n);
+            return n;
+        }
+    }
+}
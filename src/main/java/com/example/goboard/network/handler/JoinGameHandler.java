@@ -6,6 +6,8 @@ import com.example.goboard.network.GameMessage;
 
 /**
  * Handles JOIN_GAME messages - player registration and initialization.
+ * The player is also given the token it can resume a game with if its
+ * connection drops.
  */
 public class JoinGameHandler implements MessageHandler {
     
@@ -20,8 +22,11 @@ public class JoinGameHandler implements MessageHandler {
         
         GameMessage response = new GameMessage.TextMessage(
             GameMessage.MessageType.WAITING, 
-            "Waiting for opponent...");
+            "Waiting for opponent... (rating " + context.getServer().getRatings().getRating(playerName) + ")");
         context.sendMessage(response);
+        context.sendMessage(new GameMessage.TextMessage(
+            GameMessage.MessageType.RESUME_TOKEN,
+            context.getClientHandler().getResumeToken()));
         
         System.out.println("[LOBBY] ► " + playerName + " joined the lobby");
         
@@ -2,9 +2,11 @@ package com.example.goboard.network.handler;
 
 import com.example.goboard.controller.GameController;
 import com.example.goboard.model.Board;
+import com.example.goboard.model.BoardView;
 import com.example.goboard.model.Player;
 import com.example.goboard.network.ClientHandler;
 import com.example.goboard.network.GameMessage;
+import com.example.goboard.network.GameSession;
 import com.example.goboard.network.GameServer;
 
 /**
@@ -78,15 +80,80 @@ public class MessageHandlerContext {
         clientHandler.sendMessage(message);
     }
     
-    public int[][] serializeBoard(Board board) {
+    /** Sends the answer to a request, carrying the request's seq so the client can match them up. */
+    public void respond(GameMessage request, GameMessage response) {
+        response.setSeq(request.getSeq());
+        clientHandler.sendMessage(response);
+    }
+    
+    /** Whether the game in progress is waiting on this player. */
+    public boolean isMyTurn() {
+        return getGameController().getCurrentPlayer().getColor() == getPlayer().getColor();
+    }
+    
+    public int[][] serializeBoard(BoardView board) {
         return clientHandler.serializeBoard(board);
     }
     
+    public boolean isDeltaUpdates() {
+        return server.getConfig().isDeltaUpdates();
+    }
+    
+    public GameMessage.BoardDeltaMessage lastMoveDelta(GameMessage.MessageType type, String text) {
+        return clientHandler.lastMoveDelta(type, text);
+    }
+    
+    public GameMessage.BoardStateMessage fullState(GameMessage.MessageType type, String text) {
+        return clientHandler.fullState(type, text);
+    }
+    
     // Server operations
     public void registerClient(String name, ClientHandler handler) {
         server.registerClient(name, handler);
     }
     
+    /** Rates the finished game for this player (1 win, 0.5 draw, 0 loss) against its opponent. */
+    public void recordResult(double score) {
+        server.recordResult(getPlayerName(), getOpponent().getPlayerName(), score);
+    }
+    
+    /**
+     * True if the player to move has run out of time, in which case the game
+     * has just been ended on time. Check before applying a move or pass.
+     */
+    public boolean flagFallen() {
+        GameSession session = clientHandler.getSession();
+        return session != null && session.checkFlag();
+    }
+    
+    /** Charges the time taken to the mover and starts the opponent's clock. */
+    public void pressClock() {
+        GameSession session = clientHandler.getSession();
+        if (session != null) {
+            session.pressClock();
+        }
+    }
+    
+    /** Logs the move just made for replay on reconnect and sends it to the game's spectators. */
+    public void recordLastMove(String text) {
+        GameSession session = clientHandler.getSession();
+        if (session != null) {
+            session.recordMove(lastMoveDelta(GameMessage.MessageType.GAME_UPDATE, text));
+        }
+    }
+    
+    public void broadcastToSpectators(GameMessage message) {
+        GameSession session = clientHandler.getSession();
+        if (session != null) {
+            session.broadcast(message);
+        }
+    }
+    
+    /** Ends the current game for both players; see {@link com.example.goboard.network.GameSessionRegistry#finish}. */
+    public void finishGame() {
+        server.getSessions().finish(clientHandler.getSession());
+    }
+    
     public ClientHandler findClient(String name) {
         return server.findClient(name);
     }
@@ -1,10 +1,13 @@
 package com.example.goboard.network.handler;
 
+import com.example.goboard.model.BoardSnapshot;
 import com.example.goboard.network.ClientHandler;
 import com.example.goboard.network.GameMessage;
 
 /**
- * Handles MOVE messages - player stone placement.
+ * Handles MOVE messages - player stone placement. The response echoes the
+ * move's seq; once the move is made, the opponent's premove for it, if
+ * any, is played straight away.
  */
 public class MoveHandler implements MessageHandler {
     
@@ -15,7 +18,18 @@ public class MoveHandler implements MessageHandler {
             GameMessage response = new GameMessage.TextMessage(
                 GameMessage.MessageType.ERROR,
                 "Game not active");
-            context.sendMessage(response);
+            context.respond(message, response);
+            return;
+        }
+        
+        if (!context.isMyTurn()) {
+            context.respond(message, new GameMessage.TextMessage(
+                GameMessage.MessageType.ERROR,
+                "Not your turn; send a premove to queue a move"));
+            return;
+        }
+        
+        if (context.flagFallen()) {
             return;
         }
         
@@ -24,28 +38,40 @@ public class MoveHandler implements MessageHandler {
         int col = moveMsg.getCol();
         
         boolean success = context.getGameController().play(row, col);
-        int[][] boardState = context.serializeBoard(context.getBoard());
         
         if (success) {
+            context.pressClock();
             String position = formatPosition(row, col);
             System.out.println("[GAME] ● " + context.getPlayerName() + " played at " + position);
-            GameMessage response = new GameMessage.MoveResponseMessage(
-                true,
-                "Move accepted at (" + row + ", " + col + ")",
-                boardState);
-            context.sendMessage(response);
-            
-            GameMessage opponentMsg = new GameMessage.OpponentMoveMessage(
-                row, col,
-                "Opponent played at (" + row + ", " + col + ")",
-                boardState);
-            context.getOpponent().sendMessage(opponentMsg);
+            String accepted = "Move accepted at (" + row + ", " + col + ")";
+            String played = "Opponent played at (" + row + ", " + col + ")";
+            context.recordLastMove(context.getPlayerName() + " played at " + position);
+            ClientHandler opponent = context.getOpponent();
+            if (context.isDeltaUpdates()) {
+                context.respond(message, context.lastMoveDelta(GameMessage.MessageType.MOVE_RESPONSE, accepted));
+                opponent.sendMessage(context.lastMoveDelta(GameMessage.MessageType.OPPONENT_MOVE, played));
+            } else {
+                BoardSnapshot snapshot = context.getGameController().getSnapshot();
+                int[][] boardState = context.serializeBoard(snapshot);
+                GameMessage.MoveResponseMessage response = new GameMessage.MoveResponseMessage(true, accepted, boardState);
+                response.setVersion(snapshot.getMoveNumber());
+                context.respond(message, response);
+                
+                GameMessage.OpponentMoveMessage opponentMsg = new GameMessage.OpponentMoveMessage(row, col, played, boardState);
+                opponentMsg.setVersion(snapshot.getMoveNumber());
+                opponent.sendMessage(opponentMsg);
+            }
+            opponent.playPremove(row, col);
         } else {
-            GameMessage response = new GameMessage.MoveResponseMessage(
+            // The client keeps its board on a rejected move, so no state is needed in delta mode
+            BoardSnapshot snapshot = context.getGameController().getSnapshot();
+            int[][] boardState = context.isDeltaUpdates() ? null : context.serializeBoard(snapshot);
+            GameMessage.MoveResponseMessage response = new GameMessage.MoveResponseMessage(
                 false,
                 "Invalid move at (" + row + ", " + col + ")",
                 boardState);
-            context.sendMessage(response);
+            response.setVersion(snapshot.getMoveNumber());
+            context.respond(message, response);
         }
     }
     
@@ -1,9 +1,15 @@
 package com.example.goboard.network.handler;
 
+import com.example.goboard.model.BoardSnapshot;
+import com.example.goboard.model.Stone;
+import com.example.goboard.network.ClientHandler;
 import com.example.goboard.network.GameMessage;
+import com.example.goboard.scoring.ScoreResult;
 
 /**
  * Handles PASS messages - player passing their turn.
+ * A second consecutive pass ends the game and reports the score;
+ * otherwise the opponent's unconditional premove, if any, is played.
  */
 public class PassHandler implements MessageHandler {
     
@@ -13,25 +19,78 @@ public class PassHandler implements MessageHandler {
             GameMessage response = new GameMessage.TextMessage(
                 GameMessage.MessageType.ERROR,
                 "Game not active");
-            context.sendMessage(response);
+            context.respond(message, response);
             return;
         }
         
-        context.getGameController().pass();
+        if (!context.isMyTurn()) {
+            context.respond(message, new GameMessage.TextMessage(
+                GameMessage.MessageType.ERROR,
+                "Not your turn"));
+            return;
+        }
+        
+        if (context.flagFallen()) {
+            return;
+        }
+        
+        boolean gameOver = context.getGameController().pass();
         System.out.println("[GAME] ○ " + context.getPlayerName() + " passed their turn");
+        context.recordLastMove(context.getPlayerName() + " passed");
         
-        int[][] boardState = context.serializeBoard(context.getBoard());
-        GameMessage response = new GameMessage.MoveResponseMessage(
-            true,
-            "You passed",
-            boardState);
-        context.sendMessage(response);
+        if (gameOver) {
+            ScoreResult score = context.getGameController().getScore();
+            String result = "Both players passed. Proposed result: " + score
+                + String.format(" (Black %.1f, White %.1f", score.getBlackScore(), score.getWhiteScore())
+                + (score.getBlackDead() + score.getWhiteDead() > 0
+                    ? ", dead stones removed: " + score.getBlackDead() + " black, " + score.getWhiteDead() + " white)"
+                    : ")");
+            System.out.println("[GAME] ✦ " + context.getPlayerName() + " vs "
+                + context.getOpponent().getPlayerName() + " finished: " + score);
+            
+            GameMessage gameOverMsg = new GameMessage.TextMessage(
+                GameMessage.MessageType.GAME_OVER, result);
+            context.respond(message, new GameMessage.TextMessage(GameMessage.MessageType.GAME_OVER, result));
+            context.getOpponent().sendMessage(gameOverMsg);
+            context.broadcastToSpectators(gameOverMsg);
+            
+            Stone.Color winner = score.getWinner();
+            context.recordResult(winner == Stone.Color.UNASSIGNED ? 0.5
+                : winner == context.getPlayer().getColor() ? 1 : 0);
+            endGame(context);
+            return;
+        }
         
-        // Notify opponent
-        GameMessage opponentMsg = new GameMessage.BoardStateMessage(
-            GameMessage.MessageType.OPPONENT_PASS,
-            boardState,
-            "Opponent passed");
-        context.getOpponent().sendMessage(opponentMsg);
+        context.pressClock();
+        ClientHandler opponent = context.getOpponent();
+        if (context.isDeltaUpdates()) {
+            context.respond(message, context.lastMoveDelta(GameMessage.MessageType.MOVE_RESPONSE, "You passed"));
+            opponent.sendMessage(context.lastMoveDelta(GameMessage.MessageType.OPPONENT_PASS, "Opponent passed"));
+        } else {
+            BoardSnapshot snapshot = context.getGameController().getSnapshot();
+            int[][] boardState = context.serializeBoard(snapshot);
+            GameMessage.MoveResponseMessage response = new GameMessage.MoveResponseMessage(
+                true,
+                "You passed",
+                boardState);
+            response.setVersion(snapshot.getMoveNumber());
+            context.respond(message, response);
+            
+            // Notify opponent
+            GameMessage.BoardStateMessage opponentMsg = new GameMessage.BoardStateMessage(
+                GameMessage.MessageType.OPPONENT_PASS,
+                boardState,
+                "Opponent passed");
+            opponentMsg.setVersion(snapshot.getMoveNumber());
+            opponent.sendMessage(opponentMsg);
+        }
+        opponent.playPremove(-1, -1);
+    }
+    
+    private void endGame(MessageHandlerContext context) {
+        ClientHandler opponent = context.getOpponent();
+        context.finishGame();
+        context.setAvailable(true);
+        opponent.setAvailable(true);
     }
 }
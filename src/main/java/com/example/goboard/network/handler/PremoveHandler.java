@@ -0,0 +1,51 @@
+package com.example.goboard.network.handler;
+
+import com.example.goboard.model.MoveJournal;
+import com.example.goboard.network.ClientHandler;
+import com.example.goboard.network.GameMessage;
+import com.example.goboard.network.Premoves;
+
+/**
+ * Handles PREMOVE messages - a move queued while the opponent is to play.
+ * It is acknowledged and kept until the opponent moves, then played at
+ * once in the same session task. A premove that crossed the opponent's
+ * move in flight finds it already this player's turn and is played right
+ * away if it answers the move just made.
+ */
+public class PremoveHandler implements MessageHandler {
+
+    @Override
+    public void handle(MessageHandlerContext context, GameMessage message) {
+        if (!context.isGameActive() || context.getOpponent() == null) {
+            context.respond(message, new GameMessage.TextMessage(
+                GameMessage.MessageType.ERROR,
+                "Game not active"));
+            return;
+        }
+
+        GameMessage.PremoveMessage premove = (GameMessage.PremoveMessage) message;
+        ClientHandler player = context.getClientHandler();
+        if (context.isMyTurn()) {
+            MoveJournal journal = context.getGameController().getHistory();
+            int last = journal.getMoveCount() - 1;
+            int row = last >= 0 ? journal.getRow(last) : -1;
+            int col = last >= 0 ? journal.getCol(last) : -1;
+            player.getPremoves().clear();
+            player.getPremoves().add(premove);
+            if (!player.playPremove(row, col)) {
+                context.respond(message, new GameMessage.TextMessage(
+                    GameMessage.MessageType.ERROR,
+                    "Premove not played: your opponent made a different move"));
+            }
+            return;
+        }
+
+        if (!player.getPremoves().add(premove)) {
+            context.respond(message, new GameMessage.TextMessage(
+                GameMessage.MessageType.ERROR,
+                "Too many premoves queued (at most " + Premoves.MAX_QUEUED + ")"));
+            return;
+        }
+        context.respond(message, new GameMessage.SimpleMessage(GameMessage.MessageType.ACK));
+    }
+}
@@ -1,5 +1,6 @@
 package com.example.goboard.network.handler;
 
+import com.example.goboard.network.ClientHandler;
 import com.example.goboard.network.GameMessage;
 
 /**
@@ -21,19 +22,18 @@ public class ResignHandler implements MessageHandler {
                 GameMessage.MessageType.GAME_OVER,
                 "You resigned. You lost.");
             context.sendMessage(selfMsg);
+            context.broadcastToSpectators(new GameMessage.TextMessage(GameMessage.MessageType.GAME_OVER,
+                context.getPlayerName() + " resigned. " + context.getOpponent().getPlayerName() + " wins"));
             
+            context.recordResult(0);
             endGame(context);
         }
     }
     
     private void endGame(MessageHandlerContext context) {
-        context.setGameActive(false);
-        if (context.getOpponent() != null) {
-            context.getOpponent().setGameActive(false);
-        }
+        ClientHandler opponent = context.getOpponent();
+        context.finishGame();
         context.setAvailable(true);
-        if (context.getOpponent() != null) {
-            context.getOpponent().setAvailable(true);
-        }
+        opponent.setAvailable(true);
     }
 }
@@ -0,0 +1,25 @@
+package com.example.goboard.network.handler;
+
+import com.example.goboard.network.ClientHandler;
+import com.example.goboard.network.GameMessage;
+
+/**
+ * Handles RESUME messages - a player back on a new connection after its
+ * old one dropped mid-game. The token identifies the player; from then on
+ * this connection carries that player's game.
+ */
+public class ResumeHandler implements MessageHandler {
+
+    @Override
+    public void handle(MessageHandlerContext context, GameMessage message) {
+        GameMessage.ResumeMessage request = (GameMessage.ResumeMessage) message;
+        ClientHandler player = context.getServer().findResumable(request.getToken());
+        if (player == null || player == context.getClientHandler() || context.getPlayerName() != null) {
+            context.respond(message, new GameMessage.TextMessage(
+                GameMessage.MessageType.ERROR,
+                "Nothing to resume"));
+            return;
+        }
+        player.resumeOn(context.getClientHandler(), request);
+    }
+}
@@ -0,0 +1,25 @@
+package com.example.goboard.network.handler;
+
+import com.example.goboard.network.GameMessage;
+import com.example.goboard.network.GameSession;
+
+/**
+ * Handles RESYNC messages - a client whose board no longer matches the
+ * server's (a gap in delta versions or a hash mismatch) gets the full state.
+ * A spectator gets the state of the game it is watching.
+ */
+public class ResyncHandler implements MessageHandler {
+    
+    @Override
+    public void handle(MessageHandlerContext context, GameMessage message) {
+        if (context.getGameController() == null) {
+            GameSession watched = context.getClientHandler().getWatching();
+            if (watched != null) {
+                watched.execute(() -> SpectateHandler.sendSnapshot(context, watched));
+            }
+            return;
+        }
+        System.out.println("[GAME] ↻ Resynchronizing " + context.getPlayerName());
+        context.sendMessage(context.fullState(GameMessage.MessageType.GAME_STATE, null));
+    }
+}
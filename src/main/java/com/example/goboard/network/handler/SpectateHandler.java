@@ -0,0 +1,76 @@
+package com.example.goboard.network.handler;
+
+import com.example.goboard.controller.GameController;
+import com.example.goboard.model.BoardSnapshot;
+import com.example.goboard.network.ClientHandler;
+import com.example.goboard.network.GameMessage;
+import com.example.goboard.network.GameSession;
+
+/**
+ * Handles SPECTATE messages - watching a game, named by its id or by one of
+ * its players. The spectator is added and sent the current position from
+ * within the game's session, so the snapshot and the GAME_UPDATE deltas
+ * that follow it line up without gaps.
+ */
+public class SpectateHandler implements MessageHandler {
+    
+    @Override
+    public void handle(MessageHandlerContext context, GameMessage message) {
+        String target = ((GameMessage.TextMessage) message).getMessage();
+        if (context.isGameActive()) {
+            sendError(context, "Cannot spectate while playing");
+            return;
+        }
+        GameSession session = find(context, target);
+        if (session == null || session.getState() != GameSession.State.ACTIVE) {
+            sendError(context, "No game in progress for " + target);
+            return;
+        }
+        
+        ClientHandler spectator = context.getClientHandler();
+        GameSession previous = spectator.getWatching();
+        if (previous != null) {
+            previous.removeSpectator(spectator);
+        }
+        // Watching is not playing
+        context.setAvailable(false);
+        spectator.setWatching(session);
+        session.execute(() -> {
+            if (session.getState() != GameSession.State.ACTIVE) {
+                spectator.stopWatching(session);
+                sendError(context, "Game " + session.getId() + " has ended");
+                return;
+            }
+            session.addSpectator(spectator);
+            sendSnapshot(context, session);
+            System.out.println("[GAME] ◉ " + session.getSpectators().size() + " watching game #" + session.getId());
+        });
+    }
+    
+    /** Sends the game's current position as GAME_STATE; run it in the game's session. */
+    static void sendSnapshot(MessageHandlerContext context, GameSession session) {
+        GameController controller = session.getController();
+        if (controller == null) return;
+        BoardSnapshot snapshot = controller.getSnapshot();
+        GameMessage.BoardStateMessage state = new GameMessage.BoardStateMessage(
+            GameMessage.MessageType.GAME_STATE, context.serializeBoard(snapshot),
+            "Watching game #" + session.getId() + ": " + session.getBlack().getPlayerName() + " (BLACK) vs "
+                + session.getWhite().getPlayerName() + " (WHITE)");
+        state.setVersion(snapshot.getMoveNumber());
+        context.sendMessage(state);
+    }
+    
+    private static GameSession find(MessageHandlerContext context, String target) {
+        if (target == null) return null;
+        try {
+            return context.getServer().getSessions().get(Long.parseLong(target.trim()));
+        } catch (NumberFormatException e) {
+            ClientHandler player = context.findClient(target.trim());
+            return player != null ? player.getSession() : null;
+        }
+    }
+    
+    private static void sendError(MessageHandlerContext context, String text) {
+        context.sendMessage(new GameMessage.TextMessage(GameMessage.MessageType.ERROR, text));
+    }
+}
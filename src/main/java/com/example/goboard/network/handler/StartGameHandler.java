@@ -1,16 +1,22 @@
 package com.example.goboard.network.handler;
 
+import com.example.goboard.controller.GameClock;
 import com.example.goboard.controller.GameController;
+import com.example.goboard.controller.TimeControl;
 import com.example.goboard.factory.BoardFactory;
 import com.example.goboard.model.Board;
 import com.example.goboard.model.Player;
 import com.example.goboard.model.Stone;
 import com.example.goboard.network.ClientHandler;
 import com.example.goboard.network.GameMessage;
-import com.example.goboard.strategy.SimpleMoveValidator;
+import com.example.goboard.network.GameSession;
+import com.example.goboard.strategy.RulesMoveValidator;
 
 /**
  * Handles START_GAME messages - initializes game between two players.
+ * Only the server raises these, through
+ * {@link ClientHandler#initiateGameStart}, once the matchmaker has paired
+ * the two; clients cannot send them.
  */
 public class StartGameHandler implements MessageHandler {
     
@@ -28,6 +34,22 @@ public class StartGameHandler implements MessageHandler {
             return;
         }
         
+        if (opponent == context.getClientHandler()) {
+            GameMessage response = new GameMessage.TextMessage(
+                GameMessage.MessageType.ERROR,
+                "Cannot start a game against yourself");
+            context.sendMessage(response);
+            return;
+        }
+        
+        if (context.isGameActive()) {
+            GameMessage response = new GameMessage.TextMessage(
+                GameMessage.MessageType.ERROR,
+                "You are already in a game");
+            context.sendMessage(response);
+            return;
+        }
+        
         if (opponent.isGameActive()) {
             GameMessage response = new GameMessage.TextMessage(
                 GameMessage.MessageType.ERROR,
@@ -53,43 +75,51 @@ public class StartGameHandler implements MessageHandler {
         Player whitePlayer = contextIsBlack ? opponentAssigned : contextAssigned;
         
         GameController gameController = new GameController(
-            board, new SimpleMoveValidator(), 
+            board, new RulesMoveValidator(), 
             blackPlayer, whitePlayer, blackPlayer);
+        // Moves run in the session; other threads only read immutable snapshots
+        gameController.setSnapshotPublishing(true);
+        GameSession session = context.getServer().getSessions().create(gameController,
+            contextIsBlack ? context.getClientHandler() : opponent,
+            contextIsBlack ? opponent : context.getClientHandler());
         
         context.setGameController(gameController);
-        context.setGameActive(true);
-        opponent.setGameActive(true);
-        opponent.setOpponent(context.getClientHandler());
-        opponent.setGameController(gameController);
-        opponent.setBoard(board);
-        
         context.setOpponent(opponent);
         context.setAvailable(false);
+        opponent.setGameController(gameController);
+        opponent.setBoard(board);
+        opponent.setOpponent(context.getClientHandler());
         opponent.setAvailable(false);
         
-        // Notify both players
-        int[][] boardState = context.serializeBoard(board);
-        GameMessage startMsg = new GameMessage.BoardStateMessage(
+        // Publish the session only once both handlers are set up, and mark the
+        // game active after that, so game messages never run outside the session
+        context.getClientHandler().setSession(session);
+        opponent.setSession(session);
+        context.setGameActive(true);
+        opponent.setGameActive(true);
+        
+        // Notify both players with the full state; later moves may come as deltas
+        GameMessage startMsg = context.fullState(
             GameMessage.MessageType.YOUR_TURN,
-            boardState,
             "Game started! Black plays first");
+        GameMessage waitMsg = context.fullState(
+            GameMessage.MessageType.OPPONENT_TURN,
+            "Game started! Opponent (Black) plays first");
         
         if (contextAssigned.getColor() == Stone.Color.BLACK) {
             context.sendMessage(startMsg);
-            
-            GameMessage opponentMsg = new GameMessage.BoardStateMessage(
-                GameMessage.MessageType.OPPONENT_TURN,
-                boardState,
-                "Game started! Opponent (Black) plays first");
-            opponent.sendMessage(opponentMsg);
+            opponent.sendMessage(waitMsg);
         } else {
-            context.sendMessage(new GameMessage.BoardStateMessage(
-                GameMessage.MessageType.OPPONENT_TURN,
-                boardState,
-                "Game started! Opponent (Black) plays first"));
+            context.sendMessage(waitMsg);
             opponent.sendMessage(startMsg);
         }
         
-        System.out.println("[GAME] ✦ " + blackPlayer.getName() + " (BLACK) vs " + whitePlayer.getName() + " (WHITE)");
+        context.getServer().getSessions().activate(session);
+        TimeControl timeControl = context.getServer().getConfig().getTimeControl();
+        if (timeControl != null) {
+            session.execute(() -> session.startClock(new GameClock(timeControl), context.getServer().getTimers()));
+        }
+        System.out.println("[GAME] ✦ #" + session.getId() + " " + blackPlayer.getName() + " (BLACK) vs "
+            + whitePlayer.getName() + " (WHITE)" + (timeControl != null ? ", " + timeControl : ""));
     }
 }
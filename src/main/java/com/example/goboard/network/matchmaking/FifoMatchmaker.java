@@ -0,0 +1,64 @@
+package com.example.goboard.network.matchmaking;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.BiConsumer;
+
+/**
+ * First come, first served: a newly available player is paired with whoever
+ * has waited longest. The queue is a {@link LinkedHashMap} from player to
+ * enqueue time, so joining, leaving and taking the oldest are all O(1).
+ */
+public class FifoMatchmaker<P> implements Matchmaker<P> {
+    private final LinkedHashMap<P, Long> waiting = new LinkedHashMap<>();
+    private final BiConsumer<P, P> onMatch;
+    private final MatchmakingStats stats = new MatchmakingStats();
+
+    /** @param onMatch called with the longer-waiting player first, outside the queue lock */
+    public FifoMatchmaker(BiConsumer<P, P> onMatch) {
+        this.onMatch = onMatch;
+    }
+
+    @Override
+    public void enqueue(P player) {
+        long now = System.nanoTime();
+        P opponent;
+        synchronized (waiting) {
+            if (waiting.containsKey(player)) return;
+            Iterator<Map.Entry<P, Long>> oldest = waiting.entrySet().iterator();
+            if (!oldest.hasNext()) {
+                waiting.put(player, now);
+                stats.depthChanged(waiting.size());
+                return;
+            }
+            Map.Entry<P, Long> entry = oldest.next();
+            oldest.remove();
+            opponent = entry.getKey();
+            stats.depthChanged(waiting.size());
+            stats.matched(now - entry.getValue(), 0);
+        }
+        onMatch.accept(opponent, player);
+    }
+
+    @Override
+    public boolean remove(P player) {
+        synchronized (waiting) {
+            if (waiting.remove(player) == null) return false;
+            stats.depthChanged(waiting.size());
+            return true;
+        }
+    }
+
+    @Override
+    public int getQueueDepth() {
+        synchronized (waiting) {
+            return waiting.size();
+        }
+    }
+
+    @Override
+    public MatchmakingStats getStats() {
+        return stats;
+    }
+}
@@ -0,0 +1,26 @@
+package com.example.goboard.network.matchmaking;
+
+/**
+ * Pairs waiting players as they become available. Implementations call
+ * their match callback as soon as a pair exists, on the thread whose
+ * {@link #enqueue} completed it, so there is no polling delay.
+ *
+ * @param <P> the player type (a {@code ClientHandler} on the server)
+ */
+public interface Matchmaker<P> {
+    /** Adds a player to the queue; does nothing if it is already waiting. */
+    void enqueue(P player);
+
+    /** Takes a player out of the queue, e.g. on disconnect. Returns true if it was waiting. */
+    boolean remove(P player);
+
+    /**
+     * Called periodically by the server so implementations whose criteria
+     * change with time can pair players already waiting. Does nothing by default.
+     */
+    default void tick() {}
+
+    int getQueueDepth();
+
+    MatchmakingStats getStats();
+}
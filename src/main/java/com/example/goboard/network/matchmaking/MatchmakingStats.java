@@ -0,0 +1,48 @@
+package com.example.goboard.network.matchmaking;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAccumulator;
+
+/**
+ * Counters kept by a {@link Matchmaker}: queue depth now and at its peak,
+ * matches made, and how long matched players waited.
+ */
+public final class MatchmakingStats {
+    private final AtomicInteger queueDepth = new AtomicInteger();
+    private final LongAccumulator peakDepth = new LongAccumulator(Math::max, 0);
+    private final AtomicLong matches = new AtomicLong();
+    private final AtomicLong playersMatched = new AtomicLong();
+    private final AtomicLong totalWaitNanos = new AtomicLong();
+    private final LongAccumulator maxWaitNanos = new LongAccumulator(Math::max, 0);
+
+    void depthChanged(int depth) {
+        queueDepth.set(depth);
+        peakDepth.accumulate(depth);
+    }
+
+    void matched(long firstWaitNanos, long secondWaitNanos) {
+        matches.incrementAndGet();
+        playersMatched.addAndGet(2);
+        totalWaitNanos.addAndGet(firstWaitNanos + secondWaitNanos);
+        maxWaitNanos.accumulate(Math.max(firstWaitNanos, secondWaitNanos));
+    }
+
+    public int getQueueDepth() { return queueDepth.get(); }
+    public int getPeakQueueDepth() { return (int) peakDepth.get(); }
+    public long getMatches() { return matches.get(); }
+
+    /** Mean time from enqueue to match over every matched player, in milliseconds. */
+    public double getAverageWaitMillis() {
+        long players = playersMatched.get();
+        return players == 0 ? 0 : totalWaitNanos.get() / 1e6 / players;
+    }
+
+    public double getMaxWaitMillis() { return maxWaitNanos.get() / 1e6; }
+
+    @Override
+    public String toString() {
+        return String.format("queue %d (peak %d), %d matches, wait avg %.1f ms, max %.1f ms",
+            getQueueDepth(), getPeakQueueDepth(), getMatches(), getAverageWaitMillis(), getMaxWaitMillis());
+    }
+}
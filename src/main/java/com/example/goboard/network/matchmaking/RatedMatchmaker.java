@@ -0,0 +1,192 @@
+package com.example.goboard.network.matchmaking;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BiConsumer;
+import java.util.function.LongSupplier;
+import java.util.function.ToIntFunction;
+
+/**
+ * Pairs players of similar rating. Waiting players sit in buckets of
+ * {@link #BUCKET_WIDTH} rating points, each a {@link LinkedHashMap} in
+ * arrival order, so finding an opponent looks only at the players of a
+ * handful of nearby buckets rather than at every waiting player.
+ *
+ * A player accepts opponents within a window that starts at
+ * {@code initialWindow} points and widens by {@code widenPerSecond} while
+ * they wait. Arrivals are matched at once; {@link #tick()} re-examines
+ * the queue so that players whose windows have grown get paired without
+ * waiting for someone new to join.
+ */
+public class RatedMatchmaker<P> implements Matchmaker<P> {
+    static final int BUCKET_WIDTH = 50;
+    private static final int MAX_RATING = 4000;
+
+    private final ToIntFunction<P> ratingOf;
+    private final BiConsumer<P, P> onMatch;
+    private final int initialWindow;
+    private final int widenPerSecond;
+    private final LongSupplier clock;
+    private final List<LinkedHashMap<P, Waiting>> buckets = new ArrayList<>(MAX_RATING / BUCKET_WIDTH + 1);
+    private final Map<P, Waiting> waiting = new LinkedHashMap<>();
+    private final MatchmakingStats stats = new MatchmakingStats();
+
+    private static final class Waiting {
+        final int rating;
+        final int bucket;
+        final long since;
+
+        Waiting(int rating, int bucket, long since) {
+            this.rating = rating;
+            this.bucket = bucket;
+            this.since = since;
+        }
+    }
+
+    public RatedMatchmaker(ToIntFunction<P> ratingOf, BiConsumer<P, P> onMatch) {
+        this(ratingOf, onMatch, 100, 25, System::nanoTime);
+    }
+
+    /**
+     * @param initialWindow  largest rating gap accepted on arrival
+     * @param widenPerSecond points the window grows per second of waiting
+     * @param clock          nanosecond time source
+     */
+    public RatedMatchmaker(ToIntFunction<P> ratingOf, BiConsumer<P, P> onMatch,
+                           int initialWindow, int widenPerSecond, LongSupplier clock) {
+        this.ratingOf = ratingOf;
+        this.onMatch = onMatch;
+        this.initialWindow = initialWindow;
+        this.widenPerSecond = widenPerSecond;
+        this.clock = clock;
+        for (int i = 0; i <= MAX_RATING / BUCKET_WIDTH; i++) {
+            buckets.add(new LinkedHashMap<>());
+        }
+    }
+
+    @Override
+    public void enqueue(P player) {
+        long now = clock.getAsLong();
+        P opponent;
+        synchronized (waiting) {
+            if (waiting.containsKey(player)) return;
+            int rating = ratingOf.applyAsInt(player);
+            Waiting entry = new Waiting(rating, bucketOf(rating), now);
+            opponent = findOpponent(player, entry, now);
+            if (opponent == null) {
+                waiting.put(player, entry);
+                buckets.get(entry.bucket).put(player, entry);
+                stats.depthChanged(waiting.size());
+                return;
+            }
+            stats.matched(now - take(opponent).since, 0);
+        }
+        onMatch.accept(opponent, player);
+    }
+
+    /**
+     * Pairs waiting players whose windows have widened enough to overlap.
+     * Only the oldest player of each bucket needs checking: anyone younger
+     * in the same bucket has a narrower window.
+     */
+    @Override
+    public void tick() {
+        while (true) {
+            long now = clock.getAsLong();
+            P first = null;
+            P second = null;
+            synchronized (waiting) {
+                for (LinkedHashMap<P, Waiting> bucket : buckets) {
+                    if (bucket.isEmpty()) continue;
+                    Map.Entry<P, Waiting> head = bucket.entrySet().iterator().next();
+                    P opponent = findOpponent(head.getKey(), head.getValue(), now);
+                    if (opponent != null) {
+                        first = head.getKey();
+                        second = opponent;
+                        break;
+                    }
+                }
+                if (first == null) return;
+                stats.matched(now - take(first).since, now - take(second).since);
+            }
+            onMatch.accept(first, second);
+        }
+    }
+
+    /**
+     * Closest-rated waiting player, other than {@code player}, that the
+     * wider of the two windows allows, searching buckets outwards from the
+     * player's own and taking the longest waiter that fits in each.
+     */
+    private P findOpponent(P player, Waiting entry, long now) {
+        int window = window(entry, now);
+        int maxWindow = window(oldestWaiting(), now);
+        int reach = Math.max(window, maxWindow) / BUCKET_WIDTH + 1;
+        for (int d = 0; d <= reach; d++) {
+            P found = oldestAcceptable(entry.bucket - d, player, entry, window, now);
+            if (found == null && d > 0) {
+                found = oldestAcceptable(entry.bucket + d, player, entry, window, now);
+            }
+            if (found != null) return found;
+        }
+        return null;
+    }
+
+    private P oldestAcceptable(int bucket, P player, Waiting entry, int window, long now) {
+        if (bucket < 0 || bucket >= buckets.size()) return null;
+        // The head may be at the far end of the bucket's range, so look past it
+        for (Map.Entry<P, Waiting> e : buckets.get(bucket).entrySet()) {
+            if (e.getKey().equals(player)) continue;
+            Waiting other = e.getValue();
+            int gap = Math.abs(other.rating - entry.rating);
+            if (gap <= Math.max(window, window(other, now))) return e.getKey();
+        }
+        return null;
+    }
+
+    private Waiting oldestWaiting() {
+        Iterator<Waiting> it = waiting.values().iterator();
+        return it.hasNext() ? it.next() : null;
+    }
+
+    private int window(Waiting entry, long now) {
+        if (entry == null) return 0;
+        long waitedSeconds = (now - entry.since) / 1_000_000_000L;
+        return (int) Math.min(MAX_RATING, initialWindow + waitedSeconds * widenPerSecond);
+    }
+
+    private Waiting take(P player) {
+        Waiting entry = waiting.remove(player);
+        buckets.get(entry.bucket).remove(player);
+        stats.depthChanged(waiting.size());
+        return entry;
+    }
+
+    private static int bucketOf(int rating) {
+        return Math.max(0, Math.min(MAX_RATING, rating)) / BUCKET_WIDTH;
+    }
+
+    @Override
+    public boolean remove(P player) {
+        synchronized (waiting) {
+            if (!waiting.containsKey(player)) return false;
+            take(player);
+            return true;
+        }
+    }
+
+    @Override
+    public int getQueueDepth() {
+        synchronized (waiting) {
+            return waiting.size();
+        }
+    }
+
+    @Override
+    public MatchmakingStats getStats() {
+        return stats;
+    }
+}
@@ -0,0 +1,94 @@
+package com.example.goboard.network.matchmaking;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Elo ratings by player name, optionally persisted to a properties file so
+ * they survive restarts. Results only update memory and mark the store
+ * dirty; the owner calls {@link #flush()} from a background task and on
+ * shutdown, which rewrites the file (via a temporary file and a rename) if
+ * anything changed, so finishing a game never waits on the disk.
+ */
+public class RatingStore {
+    public static final int INITIAL_RATING = 1500;
+    private static final double K_FACTOR = 32;
+
+    private final Map<String, Integer> ratings = new ConcurrentHashMap<>();
+    private final Path file;
+    private final AtomicBoolean dirty = new AtomicBoolean();
+    private final Object saveLock = new Object();
+
+    /** Ratings kept in memory only. */
+    public RatingStore() {
+        this.file = null;
+    }
+
+    /** Ratings loaded from {@code file} if it exists, and saved back to it. */
+    public RatingStore(Path file) throws IOException {
+        this.file = file;
+        if (Files.exists(file)) {
+            Properties props = new Properties();
+            try (Reader in = Files.newBufferedReader(file)) {
+                props.load(in);
+            }
+            for (String name : props.stringPropertyNames()) {
+                ratings.put(name, Integer.parseInt(props.getProperty(name).trim()));
+            }
+        }
+    }
+
+    public int getRating(String player) {
+        return ratings.getOrDefault(player, INITIAL_RATING);
+    }
+
+    /** Probability that a player rated {@code rating} beats one rated {@code opponent}. */
+    public static double expectedScore(int rating, int opponent) {
+        return 1 / (1 + Math.pow(10, (opponent - rating) / 400.0));
+    }
+
+    /**
+     * Updates both ratings after a game.
+     *
+     * @param score the first player's result: 1 for a win, 0.5 for a draw, 0 for a loss
+     */
+    public synchronized void recordResult(String player, String opponent, double score) {
+        int rating = getRating(player);
+        int opponentRating = getRating(opponent);
+        int change = (int) Math.round(K_FACTOR * (score - expectedScore(rating, opponentRating)));
+        ratings.put(player, rating + change);
+        ratings.put(opponent, opponentRating - change);
+        dirty.set(true);
+    }
+
+    /** Writes the ratings to the file if they changed since the last flush. */
+    public void flush() {
+        if (file == null || !dirty.getAndSet(false)) return;
+        synchronized (saveLock) {
+            try {
+                save();
+            } catch (IOException e) {
+                dirty.set(true);
+                System.err.println("Cannot save ratings to " + file + ": " + e.getMessage());
+            }
+        }
+    }
+
+    private void save() throws IOException {
+        Properties props = new Properties();
+        ratings.forEach((name, rating) -> props.setProperty(name, Integer.toString(rating)));
+        Path tmp = file.resolveSibling(file.getFileName() + ".tmp");
+        try (Writer out = Files.newBufferedWriter(tmp)) {
+            props.store(out, "Player ratings");
+        }
+        Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+}
@@ -0,0 +1,30 @@
+package com.example.goboard.network.transport;
+
+import com.example.goboard.network.GameMessage;
+import com.example.goboard.network.codec.EncodedMessage;
+
+/**
+ * One client connection, independent of how its I/O is done. Sending never
+ * blocks the caller on a slow peer for longer than the transport needs to
+ * hand the message off, and failures are reported through
+ * {@link ConnectionListener#onDisconnect()} rather than to the sender.
+ */
+public interface Connection {
+    /** Sends a message; safe to call from any thread. */
+    void send(GameMessage message);
+
+    /**
+     * Sends a message that may have been encoded once for many connections,
+     * writing the shared frame when the transport can use it as is.
+     */
+    default void send(EncodedMessage message) {
+        send(message.getMessage());
+    }
+
+    /** Closes the connection. Idempotent. */
+    void close();
+
+    boolean isOpen();
+
+    String getRemoteAddress();
+}
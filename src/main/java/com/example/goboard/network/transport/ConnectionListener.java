@@ -0,0 +1,30 @@
+package com.example.goboard.network.transport;
+
+import java.io.IOException;
+import com.example.goboard.network.GameMessage;
+
+/**
+ * Receives what arrives on a {@link Connection}. Calls to {@link #onMessage}
+ * and {@link #onDisconnect} for one connection are never concurrent with
+ * each other.
+ */
+public interface ConnectionListener {
+    void onMessage(GameMessage message);
+
+    /** Called once, after the connection has closed for any reason. */
+    void onDisconnect();
+
+    /**
+     * Called when reading fails, just before the connection is closed, e.g.
+     * with a {@link com.example.goboard.network.codec.MessageTooLargeException}.
+     */
+    default void onReadError(IOException e) {
+    }
+
+    /**
+     * Called under {@link OverflowPolicy#RESYNC} after the outbound backlog
+     * was discarded, on the thread whose send overflowed.
+     */
+    default void onOutboundOverflow() {
+    }
+}
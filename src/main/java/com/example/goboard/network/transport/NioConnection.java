@@ -0,0 +1,230 @@
+package com.example.goboard.network.transport;
+
+import java.io.IOException;
+import java.net.SocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.SocketChannel;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicBoolean;
+import com.example.goboard.network.GameMessage;
+import com.example.goboard.network.codec.BinaryMessageCodec;
+import com.example.goboard.network.codec.EncodedMessage;
+
+/**
+ * Non-blocking connection speaking the binary protocol, driven by the
+ * {@link EventLoop} it is registered with.
+ *
+ * Incoming bytes collect in a read buffer that starts small and grows only to
+ * the largest frame seen (then shrinks back once drained), so an idle
+ * connection costs a few hundred bytes. Outgoing messages are encoded by the
+ * sending thread into a bounded {@link OutboundQueue}; when the socket is
+ * writable the loop takes everything queued and writes it with one gathering
+ * write, so a slow client only ever fills its own queue.
+ */
+public class NioConnection implements Connection {
+    private static final int INITIAL_READ_BUFFER = 512;
+    private static final int HEADER_LENGTH = 3;
+    private static final int MAX_GATHER = 16;
+
+    private final SocketChannel channel;
+    private final EventLoop loop;
+    private final String remoteAddress;
+    private final OutboundQueue<ByteBuffer> outbound;
+    private final int maxFrame;
+    private final ArrayDeque<ByteBuffer> writing = new ArrayDeque<>();  // loop thread only
+    private final ByteBuffer[] gather = new ByteBuffer[MAX_GATHER];
+    private final AtomicBoolean writeScheduled = new AtomicBoolean();
+    private ConnectionListener listener;
+    private SelectionKey key;
+    private ByteBuffer readBuffer = ByteBuffer.allocate(INITIAL_READ_BUFFER);
+    private boolean headerRead;
+    private volatile boolean closed;
+
+    NioConnection(SocketChannel channel, EventLoop loop, int queueCapacity, OverflowPolicy policy, int maxFrame) {
+        this.channel = channel;
+        this.maxFrame = maxFrame;
+        this.loop = loop;
+        this.outbound = new OutboundQueue<>(queueCapacity, policy, BinaryMessageCodec::mustDeliver);
+        SocketAddress address = null;
+        try {
+            address = channel.getRemoteAddress();
+        } catch (IOException e) {
+            // Leave it unknown
+        }
+        this.remoteAddress = String.valueOf(address);
+        writing.add(ByteBuffer.wrap(BinaryMessageCodec.streamHeader()));
+    }
+
+    void setListener(ConnectionListener listener) {
+        this.listener = listener;
+    }
+
+    SocketChannel channel() {
+        return channel;
+    }
+
+    /** Called on the loop thread once the channel is registered. */
+    void registered(SelectionKey key) {
+        this.key = key;
+        if (closed) {
+            key.cancel();
+            return;
+        }
+        // The stream header is already waiting to be written
+        key.interestOps(SelectionKey.OP_READ | SelectionKey.OP_WRITE);
+    }
+
+    @Override
+    public void send(GameMessage message) {
+        send(EncodedMessage.wrap(message));
+    }
+
+    /** A pre-encoded frame is queued as a view of the shared bytes, not a copy. */
+    @Override
+    public void send(EncodedMessage message) {
+        if (closed) return;
+        ByteBuffer frame;
+        try {
+            byte[] bytes = message.getFrame();
+            frame = ByteBuffer.wrap(bytes != null ? bytes : BinaryMessageCodec.encodeFrame(message.getMessage()));
+        } catch (IOException e) {
+            System.err.println("Cannot encode " + message.getMessage() + ": " + e.getMessage());
+            return;
+        }
+        if (!outbound.offer(frame, this, listener)) return;
+        if (writeScheduled.compareAndSet(false, true)) {
+            loop.execute(this::enableWrite);
+        }
+    }
+
+    private void enableWrite() {
+        writeScheduled.set(false);
+        if (key != null && key.isValid()) {
+            key.interestOps(key.interestOps() | SelectionKey.OP_WRITE);
+        }
+    }
+
+    /** Reads what is available and dispatches every complete frame. */
+    void handleRead() throws IOException {
+        try {
+            readFrames();
+        } catch (IOException e) {
+            if (listener != null) {
+                listener.onReadError(e);
+            }
+            throw e;
+        }
+    }
+
+    private void readFrames() throws IOException {
+        int n = channel.read(readBuffer);
+        if (n < 0) {
+            close();
+            return;
+        }
+        readBuffer.flip();
+        if (!headerRead) {
+            if (readBuffer.remaining() < HEADER_LENGTH) {
+                readBuffer.compact();
+                return;
+            }
+            BinaryMessageCodec.checkHeader(readBuffer.get() & 0xFF, readBuffer.get() & 0xFF, readBuffer.get() & 0xFF);
+            headerRead = true;
+        }
+        while (!closed && readBuffer.remaining() >= 4) {
+            int start = readBuffer.position();
+            int length = readBuffer.getInt(start);
+            BinaryMessageCodec.checkFrameLength(length, maxFrame);
+            if (readBuffer.remaining() < 4 + length) {
+                ensureCapacity(4 + length);
+                break;
+            }
+            GameMessage message = BinaryMessageCodec.decode(
+                ByteBuffer.wrap(readBuffer.array(), start + 4, length).slice(), true);
+            readBuffer.position(start + 4 + length);
+            listener.onMessage(message);
+        }
+        if (!readBuffer.hasRemaining() && readBuffer.capacity() > INITIAL_READ_BUFFER) {
+            readBuffer = ByteBuffer.allocate(INITIAL_READ_BUFFER);
+        } else {
+            readBuffer.compact();
+        }
+    }
+
+    /** Grows the (flipped) read buffer so a frame of {@code needed} bytes fits. */
+    private void ensureCapacity(int needed) {
+        if (readBuffer.capacity() >= needed) return;
+        ByteBuffer bigger = ByteBuffer.allocate(Math.max(needed, Math.min(readBuffer.capacity() * 2, 4 + maxFrame)));
+        bigger.put(readBuffer);
+        bigger.flip();
+        readBuffer = bigger;
+    }
+
+    /** Writes queued frames until the socket would block or nothing is left. */
+    void handleWrite() throws IOException {
+        while (true) {
+            if (writing.isEmpty()) {
+                // Take the whole backlog at once; the queue bound still applies to what arrives meanwhile
+                ByteBuffer buf;
+                while ((buf = outbound.poll()) != null) {
+                    writing.add(buf);
+                }
+                if (writing.isEmpty()) break;
+            }
+            int n = 0;
+            for (ByteBuffer buf : writing) {
+                gather[n++] = buf;
+                if (n == MAX_GATHER) break;
+            }
+            channel.write(gather, 0, n);
+            boolean blocked = gather[n - 1].hasRemaining();
+            Arrays.fill(gather, 0, n, null);
+            while (!writing.isEmpty() && !writing.peekFirst().hasRemaining()) {
+                writing.pollFirst();
+            }
+            if (blocked) {
+                return; // socket buffer full; wait for the next OP_WRITE
+            }
+        }
+        key.interestOps(SelectionKey.OP_READ);
+        // A sender may have queued a frame after the last poll but before its wakeup ran
+        if (!outbound.isEmpty()) {
+            key.interestOps(SelectionKey.OP_READ | SelectionKey.OP_WRITE);
+        }
+    }
+
+    @Override
+    public void close() {
+        if (!loop.inLoop()) {
+            loop.execute(this::close);
+            return;
+        }
+        if (closed) return;
+        closed = true;
+        if (key != null) {
+            key.cancel();
+        }
+        try {
+            channel.close();
+        } catch (IOException e) {
+            // Already gone
+        }
+        outbound.clear();
+        writing.clear();
+        if (listener != null) {
+            listener.onDisconnect();
+        }
+    }
+
+    @Override
+    public boolean isOpen() {
+        return !closed;
+    }
+
+    @Override
+    public String getRemoteAddress() {
+        return remoteAddress;
+    }
+}
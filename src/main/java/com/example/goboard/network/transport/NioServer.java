@@ -0,0 +1,100 @@
+package com.example.goboard.network.transport;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.util.function.Function;
+import com.example.goboard.network.codec.BinaryMessageCodec;
+
+/**
+ * Non-blocking server: an acceptor thread hands each new channel to one of a
+ * fixed set of {@link EventLoop}s in turn, and that loop does all of the
+ * channel's I/O from then on. Threads stay at {@code loops + 1} however many
+ * clients are connected.
+ */
+public class NioServer {
+    private final ServerSocketChannel serverChannel;
+    private final EventLoop[] loops;
+    private final Function<Connection, ConnectionListener> acceptor;
+    private final int queueCapacity;
+    private final OverflowPolicy overflowPolicy;
+    private int maxMessageSize = BinaryMessageCodec.MAX_FRAME;
+    private Thread acceptThread;
+    private volatile boolean running;
+    private int nextLoop;
+
+    /**
+     * @param queueCapacity  outbound frames each connection may have waiting
+     * @param overflowPolicy what to do with a connection whose queue is full
+     * @param acceptor       creates the listener for each accepted connection
+     */
+    public NioServer(int port, int loopCount, int queueCapacity, OverflowPolicy overflowPolicy,
+                     Function<Connection, ConnectionListener> acceptor) throws IOException {
+        this.acceptor = acceptor;
+        this.queueCapacity = queueCapacity;
+        this.overflowPolicy = overflowPolicy;
+        this.serverChannel = ServerSocketChannel.open();
+        this.serverChannel.bind(new InetSocketAddress(port));
+        this.loops = new EventLoop[loopCount];
+        for (int i = 0; i < loopCount; i++) {
+            loops[i] = new EventLoop("EventLoop-" + i);
+        }
+    }
+
+    /** Largest incoming frame accepted on each connection; set before {@link #start()}. */
+    public void setMaxMessageSize(int maxMessageSize) {
+        this.maxMessageSize = Math.min(maxMessageSize, BinaryMessageCodec.MAX_FRAME);
+    }
+
+    /** Port actually bound (useful when constructed with port 0). */
+    public int getPort() {
+        return serverChannel.socket().getLocalPort();
+    }
+
+    /** Starts the event loops and the acceptor; returns the acceptor thread. */
+    public Thread start() {
+        running = true;
+        for (EventLoop loop : loops) {
+            loop.start();
+        }
+        acceptThread = new Thread(this::acceptLoop, "ServerAcceptThread");
+        acceptThread.start();
+        return acceptThread;
+    }
+
+    private void acceptLoop() {
+        while (running) {
+            try {
+                SocketChannel channel = serverChannel.accept();
+                channel.configureBlocking(false);
+                channel.socket().setTcpNoDelay(true);
+                EventLoop loop = loops[nextLoop];
+                nextLoop = (nextLoop + 1) % loops.length;
+
+                NioConnection connection = new NioConnection(channel, loop, queueCapacity, overflowPolicy, maxMessageSize);
+                connection.setListener(acceptor.apply(connection));
+                loop.register(connection);
+            } catch (ClosedChannelException e) {
+                break;
+            } catch (IOException e) {
+                if (running) {
+                    System.err.println("Error accepting client connection: " + e.getMessage());
+                }
+            }
+        }
+    }
+
+    public void stop() {
+        running = false;
+        try {
+            serverChannel.close();
+        } catch (IOException e) {
+            System.err.println("Error closing server: " + e.getMessage());
+        }
+        for (EventLoop loop : loops) {
+            loop.shutdown();
+        }
+    }
+}
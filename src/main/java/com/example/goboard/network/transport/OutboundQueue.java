@@ -0,0 +1,88 @@
+package com.example.goboard.network.transport;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Predicate;
+
+/**
+ * Bounded queue of items waiting to be written to one connection, applying
+ * the connection's {@link OverflowPolicy} when a sender finds it full.
+ * Senders never block; the connection's writer drains it.
+ *
+ * A RESYNC keeps the items the connection says must be delivered (game
+ * ends and numbered replies, which a resent board state does not replace)
+ * and drops the rest; if even those no longer fit, the connection closes.
+ */
+public final class OutboundQueue<T> {
+    private final BlockingQueue<T> queue;
+    private final OverflowPolicy policy;
+    private final Predicate<? super T> mustDeliver;
+    private final AtomicLong overflows = new AtomicLong();
+
+    public OutboundQueue(int capacity, OverflowPolicy policy) {
+        this(capacity, policy, item -> false);
+    }
+
+    /** @param mustDeliver items a RESYNC keeps rather than drops */
+    public OutboundQueue(int capacity, OverflowPolicy policy, Predicate<? super T> mustDeliver) {
+        this.queue = new ArrayBlockingQueue<>(capacity);
+        this.policy = policy;
+        this.mustDeliver = mustDeliver;
+    }
+
+    /**
+     * Queues an item, or applies the overflow policy if the queue is full.
+     * Returns true if the item was queued.
+     */
+    public boolean offer(T item, Connection connection, ConnectionListener listener) {
+        if (queue.offer(item)) return true;
+        overflows.incrementAndGet();
+        switch (policy) {
+            case DISCONNECT:
+                connection.close();
+                break;
+            case RESYNC:
+                boolean keep = mustDeliver.test(item);
+                if (!trim(keep ? item : null)) {
+                    connection.close();
+                    return false;
+                }
+                if (listener != null) {
+                    listener.onOutboundOverflow();
+                }
+                return keep;
+            default:
+                break;
+        }
+        return false;
+    }
+
+    /**
+     * Drops the queued items that need not be delivered, then queues
+     * {@code item} if not null. Returns false if what must be delivered no
+     * longer fits.
+     */
+    private synchronized boolean trim(T item) {
+        List<T> kept = new ArrayList<>();
+        T queued;
+        while ((queued = queue.poll()) != null) {
+            if (mustDeliver.test(queued)) kept.add(queued);
+        }
+        if (item != null) kept.add(item);
+        for (T k : kept) {
+            if (!queue.offer(k)) return false;
+        }
+        return true;
+    }
+
+    public T poll() { return queue.poll(); }
+    public T peek() { return queue.peek(); }
+    public boolean isEmpty() { return queue.isEmpty(); }
+    public void clear() { queue.clear(); }
+
+    /** Number of sends that found the queue full. */
+    public long getOverflowCount() { return overflows.get(); }
+}
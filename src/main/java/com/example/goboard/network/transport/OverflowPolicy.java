@@ -0,0 +1,18 @@
+package com.example.goboard.network.transport;
+
+/**
+ * What a connection does when its outbound queue is full because the client
+ * is not reading fast enough.
+ */
+public enum OverflowPolicy {
+    /** Drop the message that did not fit; the client may fall out of step. */
+    DROP,
+    /** Close the connection. */
+    DISCONNECT,
+    /**
+     * Discard the backlog, except game ends and numbered replies, and let
+     * the listener send something that brings the client up to date (the
+     * full board state), see {@link ConnectionListener#onOutboundOverflow()}.
+     */
+    RESYNC
+}
@@ -0,0 +1,122 @@
+package com.example.goboard.network.transport;
+
+import java.io.IOException;
+import java.net.Socket;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+import com.example.goboard.network.GameMessage;
+import com.example.goboard.network.codec.EncodedMessage;
+import com.example.goboard.network.codec.MessageCodec;
+
+/**
+ * Blocking connection over a socket's streams, read by a dedicated thread
+ * calling {@link #read()} in a loop.
+ *
+ * Sends only queue the message, so a thread notifying a slow client never
+ * waits on that client's TCP buffer. A drain task on the writer executor
+ * then encodes everything queued and flushes once, so a burst of messages
+ * costs one write. At most one drain runs at a time, which is what
+ * serializes access to the stream; no monitor is held while it blocks, so
+ * drains on virtual threads do not pin their carrier.
+ */
+public class StreamConnection implements Connection {
+    private final Socket socket;
+    private final MessageCodec codec;
+    private final MessageCodec.Writer out;
+    private MessageCodec.Reader in;
+    private final OutboundQueue<EncodedMessage> outbound;
+    private final Executor writerExecutor;
+    private final AtomicBoolean draining = new AtomicBoolean();
+    private ConnectionListener listener;
+    private int maxMessageSize = MessageCodec.DEFAULT_MAX_MESSAGE_SIZE;
+
+    public StreamConnection(Socket socket, MessageCodec codec, Executor writerExecutor,
+                            int queueCapacity, OverflowPolicy policy) throws IOException {
+        this.socket = socket;
+        this.codec = codec;
+        this.writerExecutor = writerExecutor;
+        this.outbound = new OutboundQueue<>(queueCapacity, policy, m -> m.getMessage().mustDeliver());
+        this.out = codec.newWriter(socket.getOutputStream());
+    }
+
+    public void setListener(ConnectionListener listener) {
+        this.listener = listener;
+    }
+
+    /** Largest incoming message accepted; set before the first {@link #read()}. */
+    public void setMaxMessageSize(int maxMessageSize) {
+        this.maxMessageSize = maxMessageSize;
+    }
+
+    public OutboundQueue<EncodedMessage> getOutbound() {
+        return outbound;
+    }
+
+    /**
+     * Blocks for the next message; throws {@link java.io.EOFException} when
+     * the peer closes. The peer's stream header is read on the first call, so
+     * it is the reading thread, not the acceptor, that waits for it.
+     */
+    public GameMessage read() throws IOException {
+        if (in == null) {
+            in = codec.newServerReader(socket.getInputStream(), maxMessageSize);
+        }
+        return in.read();
+    }
+
+    @Override
+    public void send(GameMessage message) {
+        send(EncodedMessage.wrap(message));
+    }
+
+    @Override
+    public void send(EncodedMessage message) {
+        if (socket.isClosed()) return;
+        outbound.offer(message, this, listener);
+        if (draining.compareAndSet(false, true)) {
+            writerExecutor.execute(this::drain);
+        }
+    }
+
+    private void drain() {
+        while (true) {
+            try {
+                EncodedMessage message;
+                while ((message = outbound.poll()) != null) {
+                    out.append(message);
+                }
+                out.flush();
+            } catch (IOException e) {
+                // Client disconnected or unreachable; the reader sees the close
+                outbound.clear();
+                close();
+            }
+            draining.set(false);
+            // A send that lost the race for the flag has left its message queued
+            if (outbound.isEmpty() || !draining.compareAndSet(false, true)) {
+                return;
+            }
+        }
+    }
+
+    @Override
+    public void close() {
+        try {
+            if (!socket.isClosed()) {
+                socket.close();
+            }
+        } catch (IOException e) {
+            System.err.println("Error closing socket: " + e.getMessage());
+        }
+    }
+
+    @Override
+    public boolean isOpen() {
+        return !socket.isClosed();
+    }
+
+    @Override
+    public String getRemoteAddress() {
+        return String.valueOf(socket.getInetAddress());
+    }
+}
@@ -0,0 +1,177 @@
+package com.example.goboard.scoring;
+
+import java.util.Arrays;
+import com.example.goboard.model.Board;
+import com.example.goboard.model.BoardView;
+
+/**
+ * Benson's algorithm for unconditional life.
+ *
+ * For each color, the chains of that color and the regions they enclose
+ * (connected sets of empty points and enemy stones) are labelled once. A
+ * region is vital to a chain when every empty point in it is a liberty of that
+ * chain. Chains with fewer than two vital regions are discarded, regions
+ * touching a discarded chain are discarded, and this repeats until nothing
+ * changes. The chains left are pass-alive: they cannot be captured even if
+ * their owner never plays again. Regions left that are vital to one of them
+ * are that color's pass-alive territory, and any enemy stones inside are dead.
+ */
+public class BensonAnalyzer {
+
+    /**
+     * Unconditional ownership of every point, indexed by padded point:
+     * BLACK or WHITE for pass-alive stones and pass-alive territory (including
+     * dead enemy stones inside it), EMPTY where the status is not settled,
+     * BORDER off the board.
+     */
+    public byte[] analyze(BoardView board) {
+        int stride = board.getStride();
+        byte[] owner = new byte[stride * stride];
+        int size = board.getSize();
+        for (int p = 0; p < owner.length; p++) {
+            owner[p] = Board.BORDER;
+        }
+        for (int r = 0; r < size; r++) {
+            int p = board.pointIndex(r, 0);
+            for (int c = 0; c < size; c++, p++) {
+                owner[p] = Board.EMPTY;
+            }
+        }
+        markPassAlive(board, Board.BLACK, owner);
+        markPassAlive(board, Board.WHITE, owner);
+        return owner;
+    }
+
+    /**
+     * True when every point on the board is unconditionally owned, so
+     * further play cannot change the result (bots can stop playouts here).
+     */
+    public boolean isSettled(BoardView board) {
+        byte[] owner = analyze(board);
+        for (byte o : owner) {
+            if (o == Board.EMPTY) return false;
+        }
+        return true;
+    }
+
+    private void markPassAlive(BoardView board, byte color, byte[] owner) {
+        int stride = board.getStride();
+        int total = stride * stride;
+        int[] neighbours = { -stride, -1, 1, stride };
+        int[] stack = new int[total];
+
+        // Label chains of `color` and the regions (non-`color` points) they enclose
+        int[] chainOf = new int[total];
+        int[] regionOf = new int[total];
+        Arrays.fill(chainOf, -1);
+        Arrays.fill(regionOf, -1);
+        int chains = 0;
+        int regions = 0;
+        for (int p = 0; p < total; p++) {
+            byte c = board.get(p);
+            if (c == Board.BORDER) continue;
+            if (c == color && chainOf[p] < 0) {
+                flood(board, p, chains++, chainOf, stack, neighbours, color, true);
+            } else if (c != color && regionOf[p] < 0) {
+                flood(board, p, regions++, regionOf, stack, neighbours, color, false);
+            }
+        }
+        if (chains == 0 || regions == 0) return;
+
+        // Per (region, chain): empty points of the region that are liberties of the chain
+        int[] emptyCount = new int[regions];
+        int[] libertiesIn = new int[regions * chains];
+        boolean[] touches = new boolean[regions * chains];
+        for (int p = 0; p < total; p++) {
+            int r = regionOf[p];
+            if (r < 0) continue;
+            boolean empty = board.get(p) == Board.EMPTY;
+            if (empty) emptyCount[r]++;
+            int seen0 = -1, seen1 = -1, seen2 = -1;
+            for (int d : neighbours) {
+                int x = chainOf[p + d];
+                if (x < 0 || x == seen0 || x == seen1 || x == seen2) continue;
+                touches[r * chains + x] = true;
+                if (empty) libertiesIn[r * chains + x]++;
+                if (seen0 < 0) seen0 = x; else if (seen1 < 0) seen1 = x; else seen2 = x;
+            }
+        }
+
+        boolean[] chainAlive = new boolean[chains];
+        boolean[] regionAlive = new boolean[regions];
+        Arrays.fill(chainAlive, true);
+        Arrays.fill(regionAlive, true);
+
+        boolean changed = true;
+        while (changed) {
+            changed = false;
+            for (int x = 0; x < chains; x++) {
+                if (!chainAlive[x]) continue;
+                int vital = 0;
+                for (int r = 0; r < regions && vital < 2; r++) {
+                    if (regionAlive[r] && isVital(r, x, chains, emptyCount, libertiesIn, touches)) {
+                        vital++;
+                    }
+                }
+                if (vital < 2) {
+                    chainAlive[x] = false;
+                    changed = true;
+                }
+            }
+            for (int r = 0; r < regions; r++) {
+                if (!regionAlive[r]) continue;
+                for (int x = 0; x < chains; x++) {
+                    if (touches[r * chains + x] && !chainAlive[x]) {
+                        regionAlive[r] = false;
+                        changed = true;
+                        break;
+                    }
+                }
+            }
+        }
+
+        boolean[] territory = new boolean[regions];
+        for (int r = 0; r < regions; r++) {
+            if (!regionAlive[r]) continue;
+            for (int x = 0; x < chains; x++) {
+                if (chainAlive[x] && isVital(r, x, chains, emptyCount, libertiesIn, touches)) {
+                    territory[r] = true;
+                    break;
+                }
+            }
+        }
+
+        for (int p = 0; p < total; p++) {
+            if ((chainOf[p] >= 0 && chainAlive[chainOf[p]])
+                    || (regionOf[p] >= 0 && territory[regionOf[p]])) {
+                owner[p] = color;
+            }
+        }
+    }
+
+    private static boolean isVital(int r, int x, int chains,
+                                   int[] emptyCount, int[] libertiesIn, boolean[] touches) {
+        int i = r * chains + x;
+        return touches[i] && emptyCount[r] > 0 && libertiesIn[i] == emptyCount[r];
+    }
+
+    // Labels the connected set of `color` stones (chain) or non-`color` points (region)
+    private static void flood(BoardView board, int start, int label, int[] labels, int[] stack,
+                              int[] neighbours, byte color, boolean chain) {
+        int top = 0;
+        stack[top++] = start;
+        labels[start] = label;
+        while (top > 0) {
+            int q = stack[--top];
+            for (int d : neighbours) {
+                int n = q + d;
+                byte c = board.get(n);
+                if (c == Board.BORDER || labels[n] >= 0) continue;
+                if ((c == color) == chain) {
+                    labels[n] = label;
+                    stack[top++] = n;
+                }
+            }
+        }
+    }
+}
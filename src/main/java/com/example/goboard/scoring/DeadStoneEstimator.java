@@ -0,0 +1,120 @@
+package com.example.goboard.scoring;
+
+import com.example.goboard.model.Board;
+import com.example.goboard.model.BoardView;
+
+/**
+ * Fast heuristic for which stones are dead at the end of a game, so a score
+ * can be proposed without waiting for the players to agree.
+ *
+ * Stones that {@link BensonAnalyzer} proves pass-alive are alive, and stones
+ * inside the opponent's pass-alive territory are dead. Every other chain is
+ * judged by influence: each stone radiates {@code RADIUS + 1 - distance} to
+ * points within Manhattan distance {@link #RADIUS}, and a chain whose stones
+ * sit, on average, in clearly stronger enemy influence (its own contribution
+ * left out) is marked dead.
+ */
+public class DeadStoneEstimator {
+    public static final int RADIUS = 3;
+    /** Average enemy influence margin per stone above which a chain is dead. */
+    public static final int DEAD_MARGIN = 3;
+
+    private final BensonAnalyzer benson = new BensonAnalyzer();
+
+    /** Dead-stone mask indexed by padded point. */
+    public boolean[] estimate(BoardView board) {
+        int stride = board.getStride();
+        int total = stride * stride;
+        int size = board.getSize();
+        boolean[] dead = new boolean[total];
+        byte[] owner = benson.analyze(board);
+
+        // Signed influence: black positive, white negative
+        int[] influence = new int[total];
+        for (int r = 0; r < size; r++) {
+            for (int c = 0; c < size; c++) {
+                byte code = board.get(board.pointIndex(r, c));
+                if (code == Board.BLACK || code == Board.WHITE) {
+                    radiate(board, r, c, code == Board.BLACK ? 1 : -1, influence);
+                }
+            }
+        }
+
+        int[] chainOf = new int[total];
+        int[] stack = new int[total];
+        int[] stones = new int[total];
+        int[] neighbours = { -stride, -1, 1, stride };
+        int label = 0;
+        for (int p = 0; p < total; p++) {
+            byte code = board.get(p);
+            if ((code != Board.BLACK && code != Board.WHITE) || chainOf[p] != 0) continue;
+            label++;
+
+            // Collect the chain
+            int count = 0;
+            int top = 0;
+            stack[top++] = p;
+            chainOf[p] = label;
+            while (top > 0) {
+                int q = stack[--top];
+                stones[count++] = q;
+                for (int d : neighbours) {
+                    int n = q + d;
+                    if (board.get(n) == code && chainOf[n] == 0) {
+                        chainOf[n] = label;
+                        stack[top++] = n;
+                    }
+                }
+            }
+
+            byte status = owner[p];
+            boolean isDead;
+            if (status == code) {
+                isDead = false;
+            } else if (status != Board.EMPTY) {
+                isDead = true;
+            } else {
+                isDead = enemyMargin(board, stones, count, code, influence) > DEAD_MARGIN * count;
+            }
+            if (isDead) {
+                for (int i = 0; i < count; i++) {
+                    dead[stones[i]] = true;
+                }
+            }
+        }
+        return dead;
+    }
+
+    // How far enemy influence exceeds friendly influence over the chain, own stones excluded
+    private int enemyMargin(BoardView board, int[] stones, int count, byte code, int[] influence) {
+        int sign = code == Board.BLACK ? 1 : -1;
+        int stride = board.getStride();
+        long friendly = 0;
+        for (int i = 0; i < count; i++) {
+            int p = stones[i];
+            int own = 0;
+            for (int j = 0; j < count; j++) {
+                int q = stones[j];
+                int dist = Math.abs(p / stride - q / stride) + Math.abs(p % stride - q % stride);
+                if (dist <= RADIUS) {
+                    own += RADIUS + 1 - dist;
+                }
+            }
+            friendly += sign * influence[p] - own;
+        }
+        return (int) -friendly;
+    }
+
+    private void radiate(BoardView board, int row, int col, int sign, int[] influence) {
+        for (int dr = -RADIUS; dr <= RADIUS; dr++) {
+            int span = RADIUS - Math.abs(dr);
+            for (int dc = -span; dc <= span; dc++) {
+                int r = row + dr;
+                int c = col + dc;
+                if (board.isOnBoard(r, c)) {
+                    influence[board.pointIndex(r, c)] += sign * (RADIUS + 1 - Math.abs(dr) - Math.abs(dc));
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,99 @@
+package com.example.goboard.scoring;
+
+import com.example.goboard.model.Stone;
+
+/**
+ * Immutable result of scoring one position.
+ */
+public final class ScoreResult {
+    private final ScoringMethod method;
+    private final double komi;
+    private final int blackStones;
+    private final int whiteStones;
+    private final int blackTerritory;
+    private final int whiteTerritory;
+    private final int blackPrisoners;
+    private final int whitePrisoners;
+    private final int dame;
+    private final int blackDead;
+    private final int whiteDead;
+
+    public ScoreResult(ScoringMethod method, double komi,
+                       int blackStones, int whiteStones,
+                       int blackTerritory, int whiteTerritory,
+                       int blackPrisoners, int whitePrisoners, int dame) {
+        this(method, komi, blackStones, whiteStones, blackTerritory, whiteTerritory,
+            blackPrisoners, whitePrisoners, dame, 0, 0);
+    }
+
+    public ScoreResult(ScoringMethod method, double komi,
+                       int blackStones, int whiteStones,
+                       int blackTerritory, int whiteTerritory,
+                       int blackPrisoners, int whitePrisoners, int dame,
+                       int blackDead, int whiteDead) {
+        this.method = method;
+        this.komi = komi;
+        this.blackStones = blackStones;
+        this.whiteStones = whiteStones;
+        this.blackTerritory = blackTerritory;
+        this.whiteTerritory = whiteTerritory;
+        this.blackPrisoners = blackPrisoners;
+        this.whitePrisoners = whitePrisoners;
+        this.dame = dame;
+        this.blackDead = blackDead;
+        this.whiteDead = whiteDead;
+    }
+
+    public ScoringMethod getMethod() { return method; }
+    public double getKomi() { return komi; }
+    public int getBlackStones() { return blackStones; }
+    public int getWhiteStones() { return whiteStones; }
+    public int getBlackTerritory() { return blackTerritory; }
+    public int getWhiteTerritory() { return whiteTerritory; }
+    /** White stones captured by black, including dead white stones removed. */
+    public int getBlackPrisoners() { return blackPrisoners; }
+    /** Black stones captured by white, including dead black stones removed. */
+    public int getWhitePrisoners() { return whitePrisoners; }
+    /** Empty points bordered by both colors (or neither). */
+    public int getDame() { return dame; }
+    /** Black stones removed as dead before counting. */
+    public int getBlackDead() { return blackDead; }
+    /** White stones removed as dead before counting. */
+    public int getWhiteDead() { return whiteDead; }
+
+    public double getBlackScore() {
+        return method == ScoringMethod.AREA
+            ? blackStones + blackTerritory
+            : blackTerritory + blackPrisoners;
+    }
+
+    public double getWhiteScore() {
+        double base = method == ScoringMethod.AREA
+            ? whiteStones + whiteTerritory
+            : whiteTerritory + whitePrisoners;
+        return base + komi;
+    }
+
+    /** Winning color, or UNASSIGNED for a draw (jigo). */
+    public Stone.Color getWinner() {
+        double margin = getBlackScore() - getWhiteScore();
+        if (margin > 0) return Stone.Color.BLACK;
+        if (margin < 0) return Stone.Color.WHITE;
+        return Stone.Color.UNASSIGNED;
+    }
+
+    public double getMargin() {
+        return Math.abs(getBlackScore() - getWhiteScore());
+    }
+
+    /** Conventional result notation, e.g. "B+3.5", "W+0.5" or "Draw". */
+    @Override
+    public String toString() {
+        Stone.Color winner = getWinner();
+        if (winner == Stone.Color.UNASSIGNED) return "Draw";
+        String margin = getMargin() == Math.rint(getMargin())
+            ? String.valueOf((long) getMargin())
+            : String.valueOf(getMargin());
+        return (winner == Stone.Color.BLACK ? "B+" : "W+") + margin;
+    }
+}
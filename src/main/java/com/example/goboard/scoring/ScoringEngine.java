@@ -0,0 +1,185 @@
+package com.example.goboard.scoring;
+
+import java.util.List;
+import java.util.stream.Collectors;
+import com.example.goboard.model.Bitboard;
+import com.example.goboard.model.BitboardBoard;
+import com.example.goboard.model.Board;
+import com.example.goboard.model.BoardView;
+
+/**
+ * Counts finished positions by area or territory with komi and prisoners.
+ *
+ * One linear pass over the packed board: each empty region is flood-filled
+ * exactly once with an int stack, recording which colors it touches, so a
+ * 19x19 position is scored in a few microseconds. A {@link BitboardBoard}
+ * is instead scored on its bitboards: two word-parallel floods from the black
+ * and white stones through the empty points decide every region at once. The
+ * engine is stateless and safe to share between threads.
+ */
+public class ScoringEngine {
+    public static final double DEFAULT_KOMI = 6.5;
+
+    private final ScoringMethod method;
+    private final double komi;
+
+    public ScoringEngine() {
+        this(ScoringMethod.AREA, DEFAULT_KOMI);
+    }
+
+    public ScoringEngine(ScoringMethod method, double komi) {
+        this.method = method;
+        this.komi = komi;
+    }
+
+    public ScoringMethod getMethod() { return method; }
+    public double getKomi() { return komi; }
+
+    public ScoreResult score(BoardView board) {
+        return score(board, 0, 0);
+    }
+
+    /**
+     * Score a position, every stone on it counted as alive.
+     *
+     * @param blackPrisoners white stones captured by black during the game
+     * @param whitePrisoners black stones captured by white during the game
+     */
+    public ScoreResult score(BoardView board, int blackPrisoners, int whitePrisoners) {
+        return score(board, null, blackPrisoners, whitePrisoners);
+    }
+
+    /**
+     * Score a position after removing dead stones: they count as empty points
+     * of the region they sit in and as prisoners for the other color.
+     *
+     * @param dead dead-stone mask indexed by padded point, or null if all alive
+     */
+    public ScoreResult score(BoardView board, boolean[] dead, int blackPrisoners, int whitePrisoners) {
+        if (board instanceof BitboardBoard) {
+            return score((BitboardBoard) board, dead, blackPrisoners, whitePrisoners);
+        }
+        int stride = board.getStride();
+        int total = stride * stride;
+        int[] stack = new int[total];
+        boolean[] seen = new boolean[total];
+        int[] neighbours = { -stride, -1, 1, stride };
+
+        int blackStones = 0, whiteStones = 0;
+        int blackTerritory = 0, whiteTerritory = 0, dame = 0;
+        int blackDead = 0, whiteDead = 0;
+
+        int size = board.getSize();
+        for (int r = 0; r < size; r++) {
+            int p = board.pointIndex(r, 0);
+            for (int c = 0; c < size; c++, p++) {
+                byte code = board.get(p);
+                if (dead != null && dead[p]) {
+                    if (code == Board.BLACK) blackDead++; else whiteDead++;
+                    code = Board.EMPTY;
+                }
+                if (code == Board.BLACK) {
+                    blackStones++;
+                } else if (code == Board.WHITE) {
+                    whiteStones++;
+                } else if (!seen[p]) {
+                    // Flood the empty region, noting which colors border it
+                    int regionSize = 0;
+                    int borders = 0;
+                    int top = 0;
+                    stack[top++] = p;
+                    seen[p] = true;
+                    while (top > 0) {
+                        int q = stack[--top];
+                        regionSize++;
+                        for (int d : neighbours) {
+                            int n = q + d;
+                            byte nc = board.get(n);
+                            if (nc == Board.EMPTY || (dead != null && dead[n])) {
+                                if (!seen[n]) {
+                                    seen[n] = true;
+                                    stack[top++] = n;
+                                }
+                            } else if (nc != Board.BORDER) {
+                                borders |= nc;
+                            }
+                        }
+                    }
+                    if (borders == Board.BLACK) {
+                        blackTerritory += regionSize;
+                    } else if (borders == Board.WHITE) {
+                        whiteTerritory += regionSize;
+                    } else {
+                        dame += regionSize;
+                    }
+                }
+            }
+        }
+
+        return new ScoreResult(method, komi, blackStones, whiteStones,
+            blackTerritory, whiteTerritory, blackPrisoners + whiteDead, whitePrisoners + blackDead,
+            dame, blackDead, whiteDead);
+    }
+
+    private ScoreResult score(BitboardBoard board, boolean[] dead, int blackPrisoners, int whitePrisoners) {
+        Bitboard g = board.getGeometry();
+        long[] black = g.newMask();
+        long[] white = g.newMask();
+        long[] empty = g.newMask();
+        long[] blackReach = g.newMask();
+        long[] whiteReach = g.newMask();
+        long[] tmp = g.newMask();
+        board.copyStones(Board.BLACK, black);
+        board.copyStones(Board.WHITE, white);
+
+        int blackDead = 0, whiteDead = 0;
+        if (dead != null) {
+            blackDead = removeDead(board, g, black, dead);
+            whiteDead = removeDead(board, g, white, dead);
+        }
+        g.empty(black, white, empty);
+
+        // Empty points connected to a black stone, and to a white one
+        g.neighbours(black, blackReach);
+        g.flood(blackReach, empty, tmp);
+        g.neighbours(white, whiteReach);
+        g.flood(whiteReach, empty, tmp);
+
+        int blackTerritory = 0, whiteTerritory = 0;
+        for (int i = 0; i < empty.length; i++) {
+            blackTerritory += Long.bitCount(blackReach[i] & ~whiteReach[i]);
+            whiteTerritory += Long.bitCount(whiteReach[i] & ~blackReach[i]);
+        }
+        int dame = Bitboard.count(empty) - blackTerritory - whiteTerritory;
+
+        return new ScoreResult(method, komi, Bitboard.count(black), Bitboard.count(white),
+            blackTerritory, whiteTerritory, blackPrisoners + whiteDead, whitePrisoners + blackDead,
+            dame, blackDead, whiteDead);
+    }
+
+    private static int removeDead(BitboardBoard board, Bitboard g, long[] stones, boolean[] dead) {
+        int removed = 0;
+        for (int i = 0; i < stones.length; i++) {
+            long w = stones[i];
+            while (w != 0) {
+                int b = (i << 6) + Long.numberOfTrailingZeros(w);
+                w &= w - 1;
+                if (dead[board.pointIndex(g.rowOf(b), g.colOf(b))]) {
+                    stones[i] &= ~(1L << b);
+                    removed++;
+                }
+            }
+        }
+        return removed;
+    }
+
+    /**
+     * Score many finished positions in parallel (rating and archive jobs).
+     * Results are in the same order as the input.
+     */
+    public List<ScoreResult> scoreAll(List<? extends BoardView> boards) {
+        return boards.parallelStream()
+            .map(this::score)
+            .collect(Collectors.toList());
+    }
+}
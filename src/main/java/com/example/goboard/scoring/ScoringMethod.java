@@ -0,0 +1,11 @@
+package com.example.goboard.scoring;
+
+/**
+ * How a finished position is counted.
+ */
+public enum ScoringMethod {
+    /** Stones on the board plus surrounded empty points (Chinese / Tromp-Taylor). */
+    AREA,
+    /** Surrounded empty points plus prisoners (Japanese style). */
+    TERRITORY
+}
@@ -2,10 +2,28 @@ package com.example.goboard.strategy;
 
 
 import com.example.goboard.model.Board;
-import com.example.goboard.model.Intersection;
 import com.example.goboard.model.Stone;
 
 
 public interface MoveValidator {
     boolean isValid(Board board, int row, int col, Stone stone);
-}
\ No newline at end of file
+
+    /**
+     * All points where {@code color} may play, as a bitmask over
+     * {@code row * size + col} (bit {@code i} is {@code mask[i >> 6] >>> i & 1}).
+     */
+    default long[] legalMoves(Board board, Stone.Color color) {
+        int size = board.getSize();
+        long[] mask = new long[(size * size + 63) >>> 6];
+        Stone stone = Stone.of(color);
+        for (int r = 0; r < size; r++) {
+            for (int c = 0; c < size; c++) {
+                if (isValid(board, r, c, stone)) {
+                    int bit = r * size + c;
+                    mask[bit >>> 6] |= 1L << bit;
+                }
+            }
+        }
+        return mask;
+    }
+}
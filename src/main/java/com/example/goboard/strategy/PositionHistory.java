@@ -0,0 +1,13 @@
+package com.example.goboard.strategy;
+
+
+import com.example.goboard.model.Stone;
+
+
+/**
+ * Read-only view of the positions a game has already passed through,
+ * used by validators that enforce superko.
+ */
+public interface PositionHistory {
+    boolean isRepeatedPosition(long hash, Stone.Color toMove);
+}
@@ -0,0 +1,57 @@
+package com.example.goboard.strategy;
+
+
+import com.example.goboard.model.Board;
+import com.example.goboard.model.Stone;
+
+
+/**
+ * Full-rules validator: occupancy, simple ko, suicide and (when given a
+ * {@link PositionHistory}) superko. It only reads the board's chain liberty
+ * counts and hash, so it never places or rolls back stones.
+ */
+public class RulesMoveValidator implements MoveValidator {
+    private final PositionHistory history;
+
+    public RulesMoveValidator() {
+        this(null);
+    }
+
+    public RulesMoveValidator(PositionHistory history) {
+        this.history = history;
+    }
+
+    @Override
+    public boolean isValid(Board board, int row, int col, Stone stone) {
+        if (!board.isOnBoard(row, col)) return false;
+        return isLegal(board, board.pointIndex(row, col), stone.code(), opponent(stone.getColor()));
+    }
+
+    @Override
+    public long[] legalMoves(Board board, Stone.Color color) {
+        int size = board.getSize();
+        long[] mask = new long[(size * size + 63) >>> 6];
+        byte code = Stone.code(color);
+        Stone.Color toMove = opponent(color);
+        int bit = 0;
+        for (int r = 0; r < size; r++) {
+            int p = board.pointIndex(r, 0);
+            for (int c = 0; c < size; c++, p++, bit++) {
+                if (isLegal(board, p, code, toMove)) {
+                    mask[bit >>> 6] |= 1L << bit;
+                }
+            }
+        }
+        return mask;
+    }
+
+    private boolean isLegal(Board board, int p, byte code, Stone.Color toMove) {
+        if (board.get(p) != Board.EMPTY) return false;
+        if (board.isKo(p, code) || board.isSuicide(p, code)) return false;
+        return history == null || !history.isRepeatedPosition(board.hashAfter(p, code), toMove);
+    }
+
+    private static Stone.Color opponent(Stone.Color color) {
+        return color == Stone.Color.BLACK ? Stone.Color.WHITE : Stone.Color.BLACK;
+    }
+}
@@ -0,0 +1,163 @@
+package com.example.goboard.util;
+
+import java.util.ArrayDeque;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.LongSupplier;
+
+/**
+ * Hashed timer wheel: one thread serves any number of pending timeouts.
+ * Time is cut into ticks; a timeout goes into the bucket its deadline
+ * falls in, modulo the wheel size, with a count of whole turns to wait.
+ * Scheduling and cancelling are O(1), and each tick only visits one
+ * bucket, so tens of thousands of deadlines cost nothing while they wait.
+ *
+ * Timeouts fire on the wheel thread up to one tick late and must not
+ * block; anything longer should be handed to another executor.
+ */
+public class HashedTimerWheel {
+    private final long tickNanos;
+    private final ArrayDeque<Timeout>[] wheel;
+    private final int mask;
+    private final LongSupplier clock;
+    private final long startTime;
+    private final Queue<Timeout> incoming = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger pending = new AtomicInteger();
+    private long tick;  // next tick to expire; wheel thread only
+    private volatile boolean running;
+    private Thread thread;
+
+    /** A scheduled task. */
+    public static final class Timeout {
+        private static final int WAITING = 0, CANCELLED = 1, EXPIRED = 2;
+
+        private final Runnable task;
+        private final long deadline;  // nanos since the wheel started
+        private final AtomicInteger state = new AtomicInteger(WAITING);
+        private long rounds;
+
+        Timeout(Runnable task, long deadline) {
+            this.task = task;
+            this.deadline = deadline;
+        }
+
+        /** Stops the task from running; false if it already ran or was cancelled. */
+        public boolean cancel() {
+            return state.compareAndSet(WAITING, CANCELLED);
+        }
+
+        public boolean isCancelled() {
+            return state.get() == CANCELLED;
+        }
+
+        public boolean isExpired() {
+            return state.get() == EXPIRED;
+        }
+    }
+
+    public HashedTimerWheel(long tick, TimeUnit unit, int wheelSize) {
+        this(tick, unit, wheelSize, System::nanoTime);
+    }
+
+    /** @param clock nanosecond time source, replaceable in tests */
+    @SuppressWarnings("unchecked")
+    public HashedTimerWheel(long tick, TimeUnit unit, int wheelSize, LongSupplier clock) {
+        int size = Integer.highestOneBit(Math.max(2, wheelSize - 1)) << 1;
+        this.tickNanos = unit.toNanos(tick);
+        this.wheel = (ArrayDeque<Timeout>[]) new ArrayDeque<?>[size];
+        for (int i = 0; i < size; i++) {
+            wheel[i] = new ArrayDeque<>();
+        }
+        this.mask = size - 1;
+        this.clock = clock;
+        this.startTime = clock.getAsLong();
+    }
+
+    /** Runs {@code task} on the wheel thread once {@code delay} has passed. Safe from any thread. */
+    public Timeout schedule(Runnable task, long delay, TimeUnit unit) {
+        Timeout timeout = new Timeout(task, clock.getAsLong() - startTime + Math.max(0, unit.toNanos(delay)));
+        pending.incrementAndGet();
+        incoming.add(timeout);
+        return timeout;
+    }
+
+    /** Timeouts scheduled and neither run nor discarded after cancelling yet. */
+    public int pendingTimeouts() {
+        return pending.get();
+    }
+
+    public void start() {
+        running = true;
+        thread = new Thread(this::run, "TimerWheel");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    public void stop() {
+        running = false;
+        if (thread != null) {
+            LockSupport.unpark(thread);
+        }
+    }
+
+    private void run() {
+        while (running) {
+            advance();
+            long sleep = (tick + 1) * tickNanos - (clock.getAsLong() - startTime);
+            if (sleep > 0) {
+                LockSupport.parkNanos(this, sleep);
+            }
+        }
+    }
+
+    /**
+     * Expires every tick that has fully elapsed. Called by the wheel thread;
+     * tests with their own clock may call it directly instead of starting it.
+     */
+    public void advance() {
+        long now = clock.getAsLong() - startTime;
+        while ((tick + 1) * tickNanos <= now) {
+            transferIncoming();
+            expire(wheel[(int) (tick & mask)]);
+            tick++;
+        }
+    }
+
+    private void transferIncoming() {
+        Timeout timeout;
+        while ((timeout = incoming.poll()) != null) {
+            if (timeout.isCancelled()) {
+                pending.decrementAndGet();
+                continue;
+            }
+            // Overdue timeouts go in the current tick
+            long target = Math.max(timeout.deadline / tickNanos, tick);
+            timeout.rounds = (target - tick) / wheel.length;
+            wheel[(int) (target & mask)].add(timeout);
+        }
+    }
+
+    private void expire(ArrayDeque<Timeout> bucket) {
+        for (int n = bucket.size(); n > 0; n--) {
+            Timeout timeout = bucket.poll();
+            if (timeout.isCancelled()) {
+                pending.decrementAndGet();
+            } else if (timeout.rounds > 0) {
+                timeout.rounds--;
+                bucket.add(timeout);
+            } else if (timeout.state.compareAndSet(Timeout.WAITING, Timeout.EXPIRED)) {
+                pending.decrementAndGet();
+                try {
+                    timeout.task.run();
+                } catch (RuntimeException e) {
+                    System.err.println("Timer task failed: " + e);
+                }
+            } else {
+                pending.decrementAndGet();
+            }
+        }
+    }
+}
@@ -0,0 +1,120 @@
+package com.example.goboard.util;
+
+import java.util.Arrays;
+
+/**
+ * Open-addressing hash set of primitive longs (linear probing, backward-shift
+ * deletion). No boxing and no per-entry objects; zero is stored out of band.
+ */
+public class LongHashSet {
+    private long[] table;
+    private int mask;
+    private int size;
+    private boolean hasZero;
+
+    public LongHashSet() {
+        this(16);
+    }
+
+    public LongHashSet(int expectedSize) {
+        int capacity = Integer.highestOneBit(Math.max(4, expectedSize * 2 - 1)) << 1;
+        table = new long[capacity];
+        mask = capacity - 1;
+    }
+
+    public int size() {
+        return size + (hasZero ? 1 : 0);
+    }
+
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+
+    public boolean contains(long key) {
+        if (key == 0) return hasZero;
+        int i = slot(key);
+        while (true) {
+            long k = table[i];
+            if (k == 0) return false;
+            if (k == key) return true;
+            i = (i + 1) & mask;
+        }
+    }
+
+    /** Adds a key; returns false if it was already present. */
+    public boolean add(long key) {
+        if (key == 0) {
+            boolean added = !hasZero;
+            hasZero = true;
+            return added;
+        }
+        int i = slot(key);
+        while (true) {
+            long k = table[i];
+            if (k == 0) break;
+            if (k == key) return false;
+            i = (i + 1) & mask;
+        }
+        table[i] = key;
+        if (++size * 2 > table.length) {
+            rehash(table.length << 1);
+        }
+        return true;
+    }
+
+    /** Removes a key; returns false if it was not present. */
+    public boolean remove(long key) {
+        if (key == 0) {
+            boolean removed = hasZero;
+            hasZero = false;
+            return removed;
+        }
+        int i = slot(key);
+        while (true) {
+            long k = table[i];
+            if (k == 0) return false;
+            if (k == key) break;
+            i = (i + 1) & mask;
+        }
+        // Shift later entries of the probe run back so lookups never hit a hole
+        int gap = i;
+        int j = (i + 1) & mask;
+        while (table[j] != 0) {
+            int home = slot(table[j]);
+            if (((j - home) & mask) >= ((j - gap) & mask)) {
+                table[gap] = table[j];
+                gap = j;
+            }
+            j = (j + 1) & mask;
+        }
+        table[gap] = 0;
+        size--;
+        return true;
+    }
+
+    public void clear() {
+        Arrays.fill(table, 0L);
+        size = 0;
+        hasZero = false;
+    }
+
+    private int slot(long key) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32)) & mask;
+    }
+
+    private void rehash(int capacity) {
+        long[] old = table;
+        table = new long[capacity];
+        mask = capacity - 1;
+        for (long k : old) {
+            if (k != 0) {
+                int i = slot(k);
+                while (table[i] != 0) {
+                    i = (i + 1) & mask;
+                }
+                table[i] = k;
+            }
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package com.example.goboard.controller;
+
+import java.time.Duration;
+import com.example.goboard.model.Stone;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class GameClockTest {
+    private static final long S = 1_000_000_000L;
+
+    @Test
+    void absoluteTimeOnlyRunsDown() {
+        GameClock clock = new GameClock(TimeControl.absolute(Duration.ofSeconds(60)));
+        clock.start(Stone.Color.BLACK, 0);
+        clock.press(10 * S);
+        assertEquals(50 * S, clock.getMainTimeLeft(Stone.Color.BLACK));
+        assertEquals(Stone.Color.WHITE, clock.getRunning());
+        assertEquals(60 * S, clock.timeToFlag(Stone.Color.WHITE, 10 * S));
+        assertFalse(clock.isOutOfTime(Stone.Color.WHITE, 69 * S));
+        assertTrue(clock.isOutOfTime(Stone.Color.WHITE, 70 * S));
+        // The stopped clock does not run
+        assertFalse(clock.isOutOfTime(Stone.Color.BLACK, 1000 * S));
+    }
+
+    @Test
+    void fischerAddsTheIncrementAfterEachMove() {
+        GameClock clock = new GameClock(TimeControl.fischer(Duration.ofSeconds(60), Duration.ofSeconds(5)));
+        clock.start(Stone.Color.BLACK, 0);
+        clock.press(2 * S);
+        assertEquals(63 * S, clock.getMainTimeLeft(Stone.Color.BLACK));
+    }
+
+    @Test
+    void byoYomiPeriodsResetOnTimeAndAreLostWhenOverrun() {
+        GameClock clock = new GameClock(TimeControl.byoYomi(Duration.ofSeconds(10), 3, Duration.ofSeconds(30)));
+        clock.start(Stone.Color.BLACK, 0);
+        assertEquals(100 * S, clock.timeToFlag(Stone.Color.BLACK, 0));
+
+        clock.press(30 * S);  // main time gone, 20 s into the first period
+        assertEquals(0, clock.getMainTimeLeft(Stone.Color.BLACK));
+        assertEquals(3, clock.getPeriodsLeft(Stone.Color.BLACK));
+
+        clock.press(30 * S);  // White
+        clock.press(75 * S);  // 45 s: first period overrun, moved within the second
+        assertEquals(2, clock.getPeriodsLeft(Stone.Color.BLACK));
+        assertEquals(60 * S, clock.timeToFlag(Stone.Color.BLACK, 75 * S));
+
+        clock.press(75 * S);  // White
+        assertTrue(clock.isOutOfTime(Stone.Color.BLACK, 135 * S));
+    }
+
+    @Test
+    void byoYomiNeedsAPeriod() {
+        assertThrows(IllegalArgumentException.class,
+            () -> TimeControl.byoYomi(Duration.ofMinutes(1), 0, Duration.ofSeconds(30)));
+    }
+}
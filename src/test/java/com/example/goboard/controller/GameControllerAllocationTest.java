@@ -0,0 +1,63 @@
+package com.example.goboard.controller;
+
+import java.lang.management.ManagementFactory;
+import com.example.goboard.factory.BoardFactory;
+import com.example.goboard.model.Player;
+import com.example.goboard.model.Stone;
+import com.example.goboard.strategy.RulesMoveValidator;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.*;
+
+public class GameControllerAllocationTest {
+    private static final int MOVES = 150;
+    // Generous slack for the measuring calls themselves; a single Stone or
+    // state object per move would already cost several kilobytes here.
+    private static final long BUDGET_BYTES = 512;
+
+    private static GameController newGame() {
+        Player black = new Player("Black", Stone.Color.BLACK);
+        Player white = new Player("White", Stone.Color.WHITE);
+        return new GameController(BoardFactory.standard19(), new RulesMoveValidator(), black, white, black);
+    }
+
+    // Black fills even rows from the top, white from the bottom, with a pass now and then
+    private static void playGame(GameController game) {
+        int blackNext = 0;
+        int whiteNext = 0;
+        for (int i = 0; i < MOVES; i++) {
+            if (i % 7 == 6) {
+                game.pass();
+                continue;
+            }
+            boolean black = game.getCurrentPlayer().getColor() == Stone.Color.BLACK;
+            int n = black ? blackNext++ : whiteNext++;
+            int row = (n / 19) * 2;
+            int col = n % 19;
+            if (!game.play(black ? row : 18 - row, col)) {
+                throw new IllegalStateException("scripted move rejected");
+            }
+        }
+    }
+
+    @Test
+    void movesAndPassesDoNotAllocate() {
+        java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        assumeTrue(bean instanceof com.sun.management.ThreadMXBean);
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) bean;
+        assumeTrue(threads.isThreadAllocatedMemorySupported());
+        threads.setThreadAllocatedMemoryEnabled(true);
+
+        for (int i = 0; i < 20; i++) {
+            playGame(newGame());
+        }
+
+        GameController game = newGame();
+        long before = threads.getCurrentThreadAllocatedBytes();
+        playGame(game);
+        long allocated = threads.getCurrentThreadAllocatedBytes() - before;
+
+        assertFalse(game.isGameOver());
+        assertTrue(allocated <= BUDGET_BYTES, "move path allocated " + allocated + " bytes");
+    }
+}
@@ -0,0 +1,119 @@
+package com.example.goboard.controller;
+
+import com.example.goboard.model.Board;
+import com.example.goboard.model.PackedBoard;
+import com.example.goboard.model.MoveJournal;
+import com.example.goboard.model.Player;
+import com.example.goboard.model.Stone;
+import com.example.goboard.strategy.RulesMoveValidator;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class GameControllerTest {
+    private final Player black = new Player("Black", Stone.Color.BLACK);
+    private final Player white = new Player("White", Stone.Color.WHITE);
+
+    private GameController newGame(Board board) {
+        return new GameController(board, new RulesMoveValidator(), black, white, black);
+    }
+
+    @Test
+    void undoRestoresCapturedStonesAndTurn() {
+        Board b = new PackedBoard(5);
+        GameController game = newGame(b);
+        assertTrue(game.play(0, 1));   // B
+        assertTrue(game.play(0, 0));   // W, in atari
+        long beforeCapture = b.getHash();
+        assertTrue(game.play(1, 0));   // B captures (0,0)
+        assertTrue(b.getIntersection(0, 0).isEmpty());
+
+        MoveJournal history = game.getHistory();
+        assertEquals(3, history.getMoveCount());
+        assertEquals(1, history.getCaptureCount(2));
+        assertEquals(1, history.getRow(2));
+        assertEquals(0, history.getCol(2));
+
+        assertTrue(game.undo());
+        assertEquals(beforeCapture, b.getHash());
+        assertSame(Stone.WHITE, b.getIntersection(0, 0).getStone());
+        assertEquals(1, b.getChainLiberties(0, 0));
+        assertSame(black, game.getCurrentPlayer());
+
+        assertTrue(game.redo());
+        assertTrue(b.getIntersection(0, 0).isEmpty());
+        assertSame(white, game.getCurrentPlayer());
+        assertFalse(game.redo());
+    }
+
+    @Test
+    void newMoveAfterUndoDropsRedoTail() {
+        Board b = new PackedBoard(5);
+        GameController game = newGame(b);
+        game.play(2, 2);
+        game.play(3, 3);
+        assertTrue(game.undo());
+        assertTrue(game.undo());
+        assertFalse(game.undo());
+        assertEquals(0L, b.getHash());
+        assertEquals(2, game.getHistory().getLength());
+
+        assertTrue(game.play(1, 1));
+        assertEquals(1, game.getHistory().getLength());
+        assertFalse(game.redo());
+    }
+
+    @Test
+    void undoingTheFinalPassReopensTheGame() {
+        GameController game = newGame(new PackedBoard(5));
+        game.play(2, 2);
+        game.pass();
+        assertTrue(game.pass());
+        assertTrue(game.isGameOver());
+
+        assertTrue(game.undo());
+        assertFalse(game.isGameOver());
+        assertEquals(1, game.getConsecutivePasses());
+        assertSame(black, game.getCurrentPlayer());
+
+        assertTrue(game.redo());
+        assertTrue(game.isGameOver());
+    }
+
+    @Test
+    void undoneKoCaptureCanBeReplayed() {
+        Board b = new PackedBoard(5);
+        b.setStone(0, 2, Stone.BLACK);
+        b.setStone(2, 2, Stone.BLACK);
+        b.setStone(1, 3, Stone.BLACK);
+        b.setStone(0, 1, Stone.WHITE);
+        b.setStone(2, 1, Stone.WHITE);
+        b.setStone(1, 0, Stone.WHITE);
+        b.setStone(1, 2, Stone.WHITE);
+        GameController game = newGame(b);
+        assertTrue(game.play(1, 1));
+        assertTrue(game.undo());
+        // superko history must not still hold the undone position
+        assertTrue(game.play(1, 1));
+        assertFalse(game.play(1, 2));
+    }
+
+    @Test
+    void twoPassesScoreTheGameWithPrisoners() {
+        GameController game = newGame(new PackedBoard(5));
+        game.play(0, 1);   // B
+        game.play(0, 0);   // W
+        game.play(1, 0);   // B captures
+        assertEquals(1, game.getPrisoners(Stone.Color.BLACK));
+        assertNull(game.getScore());
+        game.pass();
+        game.pass();
+        assertNotNull(game.getScore());
+        assertEquals(1, game.getScore().getBlackPrisoners());
+        assertEquals(Stone.Color.BLACK, game.getScore().getWinner());
+
+        game.undo();
+        game.undo();
+        game.undo();
+        assertEquals(0, game.getPrisoners(Stone.Color.BLACK));
+    }
+}
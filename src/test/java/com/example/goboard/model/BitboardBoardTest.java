@@ -0,0 +1,75 @@
+package com.example.goboard.model;
+
+import java.util.Random;
+import com.example.goboard.builder.BoardBuilder;
+import com.example.goboard.scoring.ScoreResult;
+import com.example.goboard.scoring.ScoringEngine;
+import com.example.goboard.strategy.RulesMoveValidator;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BitboardBoardTest {
+    @Test
+    void builderSwitchSelectsBitboardBackend() {
+        assertTrue(new BoardBuilder().size(19).bitboard(true).build() instanceof BitboardBoard);
+        assertFalse(new BoardBuilder().size(19).build() instanceof BitboardBoard);
+    }
+
+    @Test
+    void capturesAreFoundWordParallel() {
+        BitboardBoard b = new BitboardBoard(5);
+        b.setStone(0, 0, Stone.WHITE);
+        b.setStone(0, 1, Stone.WHITE);
+        b.setStone(1, 0, Stone.BLACK);
+        b.setStone(1, 1, Stone.BLACK);
+        long[] out = b.getGeometry().newMask();
+        assertEquals(2, b.captures(0, 2, Board.BLACK, out));
+        assertTrue(Bitboard.test(out, b.getGeometry().bit(0, 1)));
+        assertEquals(0, b.captures(0, 2, Board.WHITE, out));
+    }
+
+    @Test
+    void matchesScalarEngineOverRandomGames() {
+        Random rnd = new Random(7);
+        RulesMoveValidator validator = new RulesMoveValidator();
+        ScoringEngine engine = new ScoringEngine();
+        for (int size : new int[] { 5, 9, 19 }) {
+            BitboardBoard fast = new BitboardBoard(size);
+            Board plain = new PackedBoard(size);
+            byte color = Board.BLACK;
+            for (int move = 0; move < size * size * 2; move++) {
+                int r = rnd.nextInt(size), c = rnd.nextInt(size);
+                int p = plain.pointIndex(r, c);
+                assertEquals(plain.play(p, color), fast.play(p, color));
+                if (move % 7 == 0) fast.undo();
+                if (move % 7 == 0) plain.undo();
+                color = color == Board.BLACK ? Board.WHITE : Board.BLACK;
+
+                for (int i = 0; i < size; i++) {
+                    assertEquals(plain.getChainLiberties(i, r), fast.liberties(i, r));
+                }
+                Stone.Color side = color == Board.BLACK ? Stone.Color.BLACK : Stone.Color.WHITE;
+                assertArrayEquals(validator.legalMoves(plain, side), validator.legalMoves(fast, side),
+                    "size " + size + " move " + move);
+            }
+            ScoreResult expected = engine.score(plain);
+            ScoreResult actual = engine.score(fast);
+            assertEquals(expected.getBlackTerritory(), actual.getBlackTerritory());
+            assertEquals(expected.getWhiteTerritory(), actual.getWhiteTerritory());
+            assertEquals(expected.getDame(), actual.getDame());
+            assertEquals(expected.getBlackScore(), actual.getBlackScore());
+
+            boolean[] dead = new boolean[(size + 2) * (size + 2)];
+            for (int r = 0; r < size / 2; r++) {
+                for (int c = 0; c < size; c++) {
+                    int p = plain.pointIndex(r, c);
+                    dead[p] = plain.get(p) != Board.EMPTY;
+                }
+            }
+            expected = engine.score(plain, dead, 0, 0);
+            actual = engine.score(fast, dead, 0, 0);
+            assertEquals(expected.getBlackDead(), actual.getBlackDead());
+            assertEquals(expected.getWhiteScore(), actual.getWhiteScore());
+        }
+    }
+}
@@ -1,12 +1,13 @@
 package com.example.goboard.model;
 
+import com.example.goboard.factory.BoardFactory;
 import org.junit.jupiter.api.Test;
 import static org.junit.jupiter.api.Assertions.*;
 
 public class BoardTest {
     @Test
     void createsBoardWithSizeAndEmptyIntersections() {
-        Board b = new Board(9);
+        Board b = new PackedBoard(9);
         assertEquals(9, b.getSize());
         assertNotNull(b.getIntersection(0,0));
         assertTrue(b.getIntersection(0,0).isEmpty());
@@ -16,7 +17,7 @@ public class BoardTest {
 
     @Test
     void placeStoneSucceedsOnEmptyAndCountsLiberties() {
-        Board b = new Board(5);
+        Board b = new PackedBoard(5);
         Stone black = new Stone(Stone.Color.BLACK);
         int captured = b.placeStone(2, 2, black);
         assertEquals(0, captured);
@@ -27,7 +28,7 @@ public class BoardTest {
 
     @Test
     void adjacentEnemyWithNoLibertyIsCaptured() {
-        Board b = new Board(3);
+        Board b = new PackedBoard(3);
         Stone black = new Stone(Stone.Color.BLACK);
         Stone white = new Stone(Stone.Color.WHITE);
         // place white at center (1,1)
@@ -44,7 +45,7 @@ public class BoardTest {
 
     @Test
     void suicideIsNotAllowedAndMoveIsReverted() {
-        Board b = new Board(3);
+        Board b = new PackedBoard(3);
         Stone black = new Stone(Stone.Color.BLACK);
         Stone white = new Stone(Stone.Color.WHITE);
         // Create a spot with no liberties if black plays at (1,1)
@@ -56,4 +57,159 @@ public class BoardTest {
         assertEquals(-1, result);
         assertTrue(b.getIntersection(1,1).isEmpty());
     }
-}
\ No newline at end of file
+
+    @Test
+    void intersectionsAreViewsOverPackedPoints() {
+        Board b = new PackedBoard(5);
+        assertEquals(0, b.placeStone(1, 3, Stone.BLACK));
+        assertEquals(Board.BLACK, b.get(b.pointIndex(1, 3)));
+        assertSame(Stone.BLACK, b.getIntersection(1, 3).getStone());
+        assertEquals(Board.BORDER, b.getColor(-1, 3));
+        assertEquals(Board.BORDER, b.get(b.pointIndex(5, 3)));
+
+        b.getIntersection(1, 3).setStone(null);
+        assertEquals(Board.EMPTY, b.getColor(1, 3));
+        b.getIntersection(0, 0).setStone(Stone.WHITE);
+        assertEquals(Board.WHITE, b.getColor(0, 0));
+    }
+
+    @Test
+    void adjacentStonesMergeIntoOneChainWithSharedLiberties() {
+        Board b = new PackedBoard(5);
+        b.placeStone(2, 1, Stone.BLACK);
+        b.placeStone(2, 3, Stone.BLACK);
+        assertNotEquals(b.getChainId(2, 1), b.getChainId(2, 3));
+        b.placeStone(2, 2, Stone.BLACK);
+        assertEquals(b.getChainId(2, 1), b.getChainId(2, 3));
+        assertEquals(3, b.getChainSize(2, 2));
+        assertEquals(8, b.getChainLiberties(2, 2));
+        b.placeStone(1, 2, Stone.WHITE);
+        assertEquals(7, b.getChainLiberties(2, 1));
+        assertEquals(-1, b.getChainId(0, 0));
+    }
+
+    @Test
+    void multiStoneGroupIsCaptured() {
+        Board b = new PackedBoard(5);
+        // white pair on the edge at (0,1),(0,2)
+        b.placeStone(0, 1, Stone.WHITE);
+        b.placeStone(0, 2, Stone.WHITE);
+        b.placeStone(0, 0, Stone.BLACK);
+        b.placeStone(1, 1, Stone.BLACK);
+        b.placeStone(1, 2, Stone.BLACK);
+        assertEquals(1, b.getChainLiberties(0, 1));
+        assertEquals(2, b.placeStone(0, 3, Stone.BLACK));
+        assertTrue(b.getIntersection(0, 1).isEmpty());
+        assertTrue(b.getIntersection(0, 2).isEmpty());
+        assertEquals(2, b.getChainLiberties(0, 0));
+    }
+
+    @Test
+    void suicideOfGroupIsRejectedButCaptureIsNot() {
+        Board b = new PackedBoard(3);
+        b.placeStone(0, 0, Stone.BLACK);
+        b.placeStone(1, 0, Stone.WHITE);
+        b.placeStone(1, 1, Stone.WHITE);
+        b.placeStone(0, 2, Stone.WHITE);
+        // joining (0,0) at (0,1) would leave the pair with no liberties
+        assertEquals(-1, b.placeStone(0, 1, Stone.BLACK));
+        assertTrue(b.getIntersection(0, 1).isEmpty());
+        assertEquals(1, b.getChainLiberties(0, 0));
+        // once white (0,2) is in atari the same point captures instead
+        b.placeStone(1, 2, Stone.BLACK);
+        assertEquals(1, b.placeStone(0, 1, Stone.BLACK));
+        assertTrue(b.getIntersection(0, 2).isEmpty());
+    }
+
+    @Test
+    void removingAStoneSplitsItsChain() {
+        Board b = new PackedBoard(5);
+        b.placeStone(2, 1, Stone.BLACK);
+        b.placeStone(2, 2, Stone.BLACK);
+        b.placeStone(2, 3, Stone.BLACK);
+        b.setStone(2, 2, null);
+        assertNotEquals(b.getChainId(2, 1), b.getChainId(2, 3));
+        assertEquals(1, b.getChainSize(2, 1));
+        assertEquals(4, b.getChainLiberties(2, 1));
+        assertEquals(4, b.getChainLiberties(2, 3));
+    }
+
+    // Black to capture a white stone at (1,2) from (1,1), creating a ko
+    private Board koPosition() {
+        Board b = new PackedBoard(5);
+        b.placeStone(0, 2, Stone.BLACK);
+        b.placeStone(2, 2, Stone.BLACK);
+        b.placeStone(1, 3, Stone.BLACK);
+        b.placeStone(0, 1, Stone.WHITE);
+        b.placeStone(2, 1, Stone.WHITE);
+        b.placeStone(1, 0, Stone.WHITE);
+        b.placeStone(1, 2, Stone.WHITE);
+        return b;
+    }
+
+    @Test
+    void simpleKoRecaptureIsRejectedUntilAPass() {
+        Board b = koPosition();
+        assertEquals(1, b.placeStone(1, 1, Stone.BLACK));
+        assertEquals(-1, b.placeStone(1, 2, Stone.WHITE));
+        assertTrue(b.getIntersection(1, 2).isEmpty());
+        b.pass(Stone.Color.WHITE);
+        assertEquals(1, b.placeStone(1, 2, Stone.WHITE));
+        assertTrue(b.getIntersection(1, 1).isEmpty());
+    }
+
+    @Test
+    void hashIsIncrementalAndPredictable() {
+        Board b = koPosition();
+        long before = b.getHash();
+        long predicted = b.hashAfter(b.pointIndex(1, 1), Board.BLACK);
+        b.placeStone(1, 1, Stone.BLACK);
+        assertEquals(predicted, b.getHash());
+        assertNotEquals(before, b.getHash());
+
+        b.pass(Stone.Color.WHITE);
+        b.placeStone(1, 2, Stone.WHITE);
+        assertEquals(before, b.getHash());
+
+        // the same stones placed in another order hash identically
+        Board other = new PackedBoard(5);
+        other.setStone(1, 2, Stone.WHITE);
+        other.setStone(1, 0, Stone.WHITE);
+        other.setStone(2, 1, Stone.WHITE);
+        other.setStone(0, 1, Stone.WHITE);
+        other.setStone(1, 3, Stone.BLACK);
+        other.setStone(2, 2, Stone.BLACK);
+        other.setStone(0, 2, Stone.BLACK);
+        assertEquals(before, other.getHash());
+        assertEquals(0L, new PackedBoard(5).getHash());
+    }
+
+    @Test
+    void snapshotsStayFixedWhileTheBoardMoves() {
+        Board b = new PackedBoard(5);
+        b.placeStone(2, 2, Stone.BLACK);
+        BoardSnapshot first = b.snapshot();
+        assertSame(first, b.snapshot());
+        assertEquals(b.getHash(), first.getHash());
+
+        b.placeStone(2, 3, Stone.WHITE);
+        b.undo();
+        b.undo();
+        assertEquals(Board.BLACK, first.getColor(2, 2));
+        assertEquals(Board.EMPTY, first.getColor(2, 3));
+        assertEquals(1, first.getMoveNumber());
+
+        BoardSnapshot second = b.snapshot();
+        assertNotSame(first, second);
+        assertEquals(Board.EMPTY, second.getColor(2, 2));
+        assertEquals(0L, second.getHash());
+    }
+
+    @Test
+    void factoryBuildsPackedBoardsOfEverySize() {
+        assertEquals(PackedBoard.class, BoardFactory.small9().getClass());
+        assertEquals(PackedBoard.class, BoardFactory.custom(13).getClass());
+        assertEquals(19, BoardFactory.standard19().getSize());
+        assertFalse(BoardFactory.small9().isOnBoard(9, 0));
+    }
+}
@@ -0,0 +1,66 @@
+package com.example.goboard.network;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.net.Socket;
+import java.util.ArrayList;
+import java.util.List;
+import com.example.goboard.network.codec.BinaryMessageCodec;
+import com.example.goboard.network.codec.MessageCodec;
+
+/**
+ * Connects many idle lobby clients to a server in each I/O mode and reports
+ * how long joining took and what the server process holds afterwards.
+ * Not a unit test; run it by hand, e.g. with 5000 clients:
+ * <pre>
+ *   java -cp target/classes:target/test-classes com.example.goboard.network.ConnectionScalingBenchmark 5000
+ * </pre>
+ * Large counts may need a higher open-file limit ({@code ulimit -n}).
+ */
+public class ConnectionScalingBenchmark {
+    public static void main(String[] args) throws Exception {
+        int clients = args.length > 0 ? Integer.parseInt(args[0]) : 2000;
+        System.out.printf("%-16s %8s %10s %9s %9s%n", "mode", "clients", "join ms", "threads", "heap MB");
+        for (IoMode mode : IoMode.values()) {
+            run(mode, clients);
+        }
+    }
+
+    private static void run(IoMode mode, int clients) throws Exception {
+        GameServer server = new GameServer(new ServerConfig().port(0).ioMode(mode).eventLoops(2));
+        Thread serverThread = new Thread(server::start, "benchmark-server");
+        serverThread.setDaemon(true);
+        serverThread.start();
+
+        MessageCodec codec = new BinaryMessageCodec();
+        List<Socket> sockets = new ArrayList<>(clients);
+        long start = System.nanoTime();
+        try {
+            for (int i = 0; i < clients; i++) {
+                Socket socket = new Socket("localhost", server.getPort());
+                sockets.add(socket);
+                MessageCodec.Writer out = codec.newWriter(socket.getOutputStream());
+                MessageCodec.Reader in = codec.newReader(socket.getInputStream());
+                out.write(new GameMessage.JoinGameMessage("bench-" + i));
+                in.read(); // WAITING
+            }
+            long joinMs = (System.nanoTime() - start) / 1_000_000;
+
+            System.gc();
+            Runtime rt = Runtime.getRuntime();
+            long heapMb = (rt.totalMemory() - rt.freeMemory()) >> 20;
+            int threads = ManagementFactory.getThreadMXBean().getThreadCount();
+            System.out.printf("%-16s %8d %10d %9d %9d%n", mode, clients, joinMs, threads, heapMb);
+        } finally {
+            for (Socket socket : sockets) {
+                try {
+                    socket.close();
+                } catch (IOException e) {
+                    // Best effort
+                }
+            }
+            server.stop();
+            Thread.sleep(500);
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package com.example.goboard.network;
+
+import java.util.ArrayList;
+import java.util.List;
+import com.example.goboard.controller.GameController;
+import com.example.goboard.model.PackedBoard;
+import com.example.goboard.model.Player;
+import com.example.goboard.model.Stone;
+import com.example.goboard.strategy.RulesMoveValidator;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class GameSessionRegistryTest {
+    // Tasks queued by the test run when it says so
+    private final List<Runnable> pending = new ArrayList<>();
+    private final GameSessionRegistry registry = new GameSessionRegistry(pending::add);
+
+    private GameController newController() {
+        Player black = new Player("b", Stone.Color.BLACK);
+        return new GameController(new PackedBoard(9), new RulesMoveValidator(),
+            black, new Player("w", Stone.Color.WHITE), black);
+    }
+
+    private void runPending() {
+        while (!pending.isEmpty()) {
+            pending.remove(0).run();
+        }
+    }
+
+    @Test
+    void sessionsGetDistinctIdsAndAreFoundById() {
+        GameSession first = registry.create(newController(), null, null);
+        GameSession second = registry.create(newController(), null, null);
+        assertNotEquals(first.getId(), second.getId());
+        assertSame(first, registry.get(first.getId()));
+        assertSame(second, registry.get(second.getId()));
+        assertEquals(2, registry.size());
+    }
+
+    @Test
+    void lifecycleEndsInReclamation() {
+        GameSession session = registry.create(newController(), null, null);
+        assertEquals(GameSession.State.CREATED, session.getState());
+        registry.activate(session);
+        assertEquals(GameSession.State.ACTIVE, session.getState());
+
+        assertTrue(registry.finish(session));
+        assertEquals(GameSession.State.FINISHED, session.getState());
+        assertSame(session, registry.get(session.getId()), "kept until its mailbox drains");
+
+        runPending();
+        assertEquals(GameSession.State.RECLAIMED, session.getState());
+        assertNull(registry.get(session.getId()));
+        assertNull(session.getController());
+        assertEquals(1, registry.getReclaimedCount());
+    }
+
+    @Test
+    void tasksQueuedBeforeTheEndStillRun() {
+        GameSession session = registry.create(newController(), null, null);
+        registry.activate(session);
+        List<GameSession.State> seen = new ArrayList<>();
+        session.execute(() -> seen.add(session.getState()));
+        registry.finish(session);
+        runPending();
+        assertEquals(List.of(GameSession.State.FINISHED), seen);
+        assertEquals(GameSession.State.RECLAIMED, session.getState());
+    }
+
+    @Test
+    void finishingTwiceHasNoEffect() {
+        GameSession session = registry.create(newController(), null, null);
+        registry.activate(session);
+        assertTrue(registry.finish(session));
+        assertFalse(registry.finish(session));
+        assertFalse(registry.finish(null));
+        runPending();
+        assertEquals(1, registry.getReclaimedCount());
+    }
+}
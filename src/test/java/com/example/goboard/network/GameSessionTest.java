@@ -0,0 +1,160 @@
+package com.example.goboard.network;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import com.example.goboard.network.codec.EncodedMessage;
+import com.example.goboard.network.transport.Connection;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class GameSessionTest {
+    private final ExecutorService scheduler = Executors.newFixedThreadPool(4);
+
+    @AfterEach
+    void shutdown() {
+        scheduler.shutdownNow();
+    }
+
+    @Test
+    void tasksFromManyThreadsRunOneAtATime() throws Exception {
+        GameSession session = new GameSession(0, null, null, null, scheduler);
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger overlaps = new AtomicInteger();
+        int[] counter = new int[1]; // deliberately unsynchronized
+        int threads = 8;
+        int perThread = 2000;
+        CountDownLatch done = new CountDownLatch(threads * perThread);
+
+        for (int t = 0; t < threads; t++) {
+            new Thread(() -> {
+                for (int i = 0; i < perThread; i++) {
+                    session.execute(() -> {
+                        if (running.incrementAndGet() > 1) overlaps.incrementAndGet();
+                        counter[0]++;
+                        running.decrementAndGet();
+                        done.countDown();
+                    });
+                }
+            }).start();
+        }
+        assertTrue(done.await(10, TimeUnit.SECONDS));
+        assertEquals(0, overlaps.get());
+        assertEquals(threads * perThread, counter[0]);
+    }
+
+    @Test
+    void tasksRunInSubmissionOrder() throws Exception {
+        GameSession session = new GameSession(0, null, null, null, scheduler);
+        List<Integer> order = new ArrayList<>();
+        CountDownLatch done = new CountDownLatch(1);
+        for (int i = 0; i < 500; i++) {
+            int n = i;
+            session.execute(() -> order.add(n));
+        }
+        session.execute(done::countDown);
+        assertTrue(done.await(5, TimeUnit.SECONDS));
+        for (int i = 0; i < 500; i++) {
+            assertEquals(i, order.get(i));
+        }
+    }
+
+    @Test
+    void separateSessionsRunInParallel() throws Exception {
+        GameSession first = new GameSession(0, null, null, null, scheduler);
+        GameSession second = new GameSession(0, null, null, null, scheduler);
+        CountDownLatch bothStarted = new CountDownLatch(2);
+        CountDownLatch done = new CountDownLatch(2);
+        Runnable task = () -> {
+            bothStarted.countDown();
+            try {
+                if (bothStarted.await(5, TimeUnit.SECONDS)) done.countDown();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        };
+        first.execute(task);
+        second.execute(task);
+        assertTrue(done.await(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void aFailingTaskDoesNotStopTheSession() throws Exception {
+        GameSession session = new GameSession(0, null, null, null, scheduler);
+        CountDownLatch done = new CountDownLatch(1);
+        session.execute(() -> { throw new IllegalStateException("boom"); });
+        session.execute(done::countDown);
+        assertTrue(done.await(5, TimeUnit.SECONDS));
+    }
+
+    /** Records what would be sent without a socket. */
+    private static final class RecordingConnection implements Connection {
+        final List<EncodedMessage> sent = new ArrayList<>();
+
+        @Override public void send(GameMessage message) { sent.add(EncodedMessage.wrap(message)); }
+        @Override public void send(EncodedMessage message) { sent.add(message); }
+        @Override public void close() { }
+        @Override public boolean isOpen() { return true; }
+        @Override public String getRemoteAddress() { return "test"; }
+    }
+
+    @Test
+    void spectatorsShareOneEncodedFrame() {
+        GameSession session = new GameSession(0, null, null, null, scheduler);
+        List<RecordingConnection> connections = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            RecordingConnection connection = new RecordingConnection();
+            connections.add(connection);
+            session.addSpectator(new ClientHandler(connection, null));
+        }
+        session.broadcast(new GameMessage.BoardDeltaMessage(GameMessage.MessageType.GAME_UPDATE,
+            3, 4, 1, new int[0], 1, 42L, "a played at E4"));
+
+        byte[] frame = connections.get(0).sent.get(0).getFrame();
+        assertNotNull(frame);
+        for (RecordingConnection connection : connections) {
+            assertEquals(1, connection.sent.size());
+            assertSame(frame, connection.sent.get(0).getFrame());
+        }
+    }
+
+    private static GameMessage.BoardDeltaMessage update(int version) {
+        return new GameMessage.BoardDeltaMessage(GameMessage.MessageType.GAME_UPDATE,
+            version % 9, version / 9 % 9, 2 - version % 2, new int[0], version, version * 31L, null);
+    }
+
+    @Test
+    void eventLogReplaysOnlyTheMovesMissed() {
+        GameSession session = new GameSession(0, null, null, null, scheduler);
+        assertEquals(List.of(), session.eventsSince(0));
+        for (int v = 1; v <= 10; v++) {
+            session.recordMove(update(v));
+        }
+        List<EncodedMessage> missed = session.eventsSince(7);
+        assertEquals(3, missed.size());
+        for (int i = 0; i < 3; i++) {
+            assertEquals(8 + i, ((GameMessage.BoardDeltaMessage) missed.get(i).getMessage()).getVersion());
+        }
+        assertEquals(List.of(), session.eventsSince(10));
+        assertNull(session.eventsSince(11), "a version the game never reached");
+        assertNull(session.eventsSince(-1));
+    }
+
+    @Test
+    void eventLogFallsBackToASnapshotOnceMovesHaveRolledOff() {
+        GameSession session = new GameSession(0, null, null, null, scheduler);
+        int last = GameSession.EVENT_LOG_SIZE + 20;
+        for (int v = 1; v <= last; v++) {
+            session.recordMove(update(v));
+        }
+        assertNull(session.eventsSince(19));
+        List<EncodedMessage> missed = session.eventsSince(20);
+        assertEquals(GameSession.EVENT_LOG_SIZE, missed.size());
+        assertEquals(21, ((GameMessage.BoardDeltaMessage) missed.get(0).getMessage()).getVersion());
+    }
+}
@@ -0,0 +1,51 @@
+package com.example.goboard.network;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PremovesTest {
+    private final Premoves premoves = new Premoves();
+
+    @Test
+    void conditionalReplyWinsOverTheUnconditionalPremove() {
+        GameMessage.PremoveMessage fallback = new GameMessage.PremoveMessage(4, 4);
+        GameMessage.PremoveMessage reply = new GameMessage.PremoveMessage(2, 3, 2, 2);
+        premoves.add(fallback);
+        premoves.add(reply);
+        assertSame(reply, premoves.take(2, 2));
+        assertEquals(0, premoves.size());
+    }
+
+    @Test
+    void unconditionalPremoveAnswersAnyOtherMoveOrAPass() {
+        premoves.add(new GameMessage.PremoveMessage(2, 3, 2, 2));
+        premoves.add(new GameMessage.PremoveMessage(4, 4));
+        assertEquals(4, premoves.take(6, 6).getRow());
+        premoves.add(new GameMessage.PremoveMessage(4, 4));
+        assertEquals(4, premoves.take(-1, -1).getRow());
+    }
+
+    @Test
+    void unansweredConditionsAreDroppedAfterTheOpponentsMove() {
+        premoves.add(new GameMessage.PremoveMessage(2, 3, 2, 2));
+        assertNull(premoves.take(5, 5));
+        assertNull(premoves.take(2, 2));
+    }
+
+    @Test
+    void aPremoveReplacesOneWithTheSameCondition() {
+        premoves.add(new GameMessage.PremoveMessage(1, 1));
+        premoves.add(new GameMessage.PremoveMessage(7, 7));
+        assertEquals(1, premoves.size());
+        assertEquals(7, premoves.take(0, 0).getRow());
+    }
+
+    @Test
+    void queueIsBounded() {
+        for (int i = 0; i < Premoves.MAX_QUEUED; i++) {
+            assertTrue(premoves.add(new GameMessage.PremoveMessage(0, 0, i, 0)));
+        }
+        assertFalse(premoves.add(new GameMessage.PremoveMessage(0, 0, 0, 1)));
+        assertTrue(premoves.add(new GameMessage.PremoveMessage(1, 1, 0, 0)));
+    }
+}
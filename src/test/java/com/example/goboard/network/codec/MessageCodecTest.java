@@ -0,0 +1,236 @@
+package com.example.goboard.network.codec;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InvalidClassException;
+import java.io.ObjectOutputStream;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import com.example.goboard.network.GameMessage;
+import com.example.goboard.network.GameMessage.MessageType;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class MessageCodecTest {
+    private static int[][] board(int size) {
+        int[][] b = new int[size][size];
+        for (int r = 0; r < size; r++) {
+            for (int c = 0; c < size; c++) {
+                b[r][c] = (r * 7 + c * 3) % 3;
+            }
+        }
+        return b;
+    }
+
+    private static List<GameMessage> allKinds() {
+        List<GameMessage> messages = new ArrayList<>();
+        messages.add(new GameMessage.SimpleMessage(MessageType.PASS));
+        messages.add(new GameMessage.TextMessage(MessageType.ERROR, "Invalid move – try again"));
+        messages.add(new GameMessage.TextMessage(MessageType.GAME_OVER, null));
+        messages.add(new GameMessage.MoveMessage(MessageType.MOVE, 18, 3));
+        messages.add(new GameMessage.JoinGameMessage("alice"));
+        messages.add(new GameMessage.BoardStateMessage(MessageType.YOUR_TURN, board(19), "Black"));
+        messages.add(new GameMessage.BoardStateMessage(MessageType.OPPONENT_PASS, null));
+        GameMessage.MoveResponseMessage response = new GameMessage.MoveResponseMessage(true, "ok", board(9));
+        response.setVersion(12);
+        messages.add(response);
+        GameMessage.OpponentMoveMessage opponentMove = new GameMessage.OpponentMoveMessage(4, 5, "E6", board(9));
+        opponentMove.setVersion(13);
+        messages.add(opponentMove);
+        messages.add(new GameMessage.BoardDeltaMessage(MessageType.OPPONENT_MOVE, 2, 3, 1,
+            new int[] { 2, 4, 1, 3 }, 17, 0x9E3779B97F4A7C15L, "D3"));
+        messages.add(new GameMessage.BoardDeltaMessage(MessageType.OPPONENT_PASS, -1, -1, 2,
+            new int[0], 18, -5L, null));
+        messages.add(new GameMessage.PremoveMessage(2, 6));
+        messages.add(new GameMessage.PremoveMessage(2, 6, 3, 5));
+        messages.add(new GameMessage.ResumeMessage("q1xPf0-2vZ", 57));
+        GameMessage numbered = new GameMessage.MoveMessage(MessageType.MOVE, 0, 8);
+        numbered.setSeq(41);
+        messages.add(numbered);
+        GameMessage ack = new GameMessage.SimpleMessage(MessageType.ACK);
+        ack.setSeq(-7);
+        messages.add(ack);
+        return messages;
+    }
+
+    private static List<GameMessage> roundTrip(MessageCodec codec, List<GameMessage> messages) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        MessageCodec.Writer writer = codec.newWriter(bytes);
+        for (GameMessage m : messages) writer.write(m);
+        MessageCodec.Reader reader = codec.newReader(new ByteArrayInputStream(bytes.toByteArray()));
+        List<GameMessage> read = new ArrayList<>();
+        for (int i = 0; i < messages.size(); i++) read.add(reader.read());
+        assertThrows(EOFException.class, reader::read);
+        return read;
+    }
+
+    private static void assertSameMessages(List<GameMessage> expected, List<GameMessage> actual) {
+        for (int i = 0; i < expected.size(); i++) {
+            GameMessage e = expected.get(i);
+            GameMessage a = actual.get(i);
+            assertEquals(e.getClass(), a.getClass());
+            assertEquals(e.toString(), a.toString());
+            assertEquals(e.getSeq(), a.getSeq());
+            if (e instanceof GameMessage.BoardStateMessage) {
+                assertArrayEquals(((GameMessage.BoardStateMessage) e).getBoardState(),
+                    ((GameMessage.BoardStateMessage) a).getBoardState());
+            } else if (e instanceof GameMessage.BoardDeltaMessage) {
+                GameMessage.BoardDeltaMessage ed = (GameMessage.BoardDeltaMessage) e;
+                GameMessage.BoardDeltaMessage ad = (GameMessage.BoardDeltaMessage) a;
+                assertEquals(ed.isPass(), ad.isPass());
+                assertEquals(ed.getColor(), ad.getColor());
+                assertEquals(ed.getHash(), ad.getHash());
+                assertEquals(ed.getMessage(), ad.getMessage());
+                for (int k = 0; k < ed.getCapturedCount(); k++) {
+                    assertEquals(ed.getCapturedRow(k), ad.getCapturedRow(k));
+                    assertEquals(ed.getCapturedCol(k), ad.getCapturedCol(k));
+                }
+            } else if (e instanceof GameMessage.OpponentMoveMessage) {
+                assertArrayEquals(((GameMessage.OpponentMoveMessage) e).getBoardState(),
+                    ((GameMessage.OpponentMoveMessage) a).getBoardState());
+                assertEquals(((GameMessage.OpponentMoveMessage) e).getVersion(),
+                    ((GameMessage.OpponentMoveMessage) a).getVersion());
+            } else if (e instanceof GameMessage.MoveResponseMessage) {
+                assertArrayEquals(((GameMessage.MoveResponseMessage) e).getBoardState(),
+                    ((GameMessage.MoveResponseMessage) a).getBoardState());
+                assertEquals(((GameMessage.MoveResponseMessage) e).getVersion(),
+                    ((GameMessage.MoveResponseMessage) a).getVersion());
+            }
+        }
+    }
+
+    @Test
+    void binaryCodecRoundTripsEveryMessageClass() throws IOException {
+        List<GameMessage> messages = allKinds();
+        assertSameMessages(messages, roundTrip(new BinaryMessageCodec(), messages));
+    }
+
+    @Test
+    void serializationFallbackRoundTripsEveryMessageClass() throws IOException {
+        List<GameMessage> messages = allKinds();
+        assertSameMessages(messages, roundTrip(new SerializationCodec(), messages));
+    }
+
+    @Test
+    void binaryFramesAreCompact() throws IOException {
+        // length + class + type + row + col
+        assertEquals(8, BinaryMessageCodec.encodeFrame(new GameMessage.MoveMessage(MessageType.MOVE, 3, 3)).length);
+        byte[] state = BinaryMessageCodec.encodeFrame(
+            new GameMessage.BoardStateMessage(MessageType.GAME_STATE, board(19)));
+        assertEquals(4 + 2 + 1 + 91 + 2 + 4, state.length);
+    }
+
+    @Test
+    void onlyNumberedFramesCarryASeq() throws IOException {
+        GameMessage move = new GameMessage.MoveMessage(MessageType.MOVE, 3, 3);
+        move.setSeq(1);
+        assertEquals(12, BinaryMessageCodec.encodeFrame(move).length);
+        // length + class + type + move + condition
+        assertEquals(10, BinaryMessageCodec.encodeFrame(new GameMessage.PremoveMessage(3, 3)).length);
+    }
+
+    @Test
+    void binaryReaderRejectsForeignStreams() {
+        byte[] junk = { (byte) 0xAC, (byte) 0xED, 0, 5 };
+        assertThrows(IOException.class, () -> new BinaryMessageCodec().newReader(new ByteArrayInputStream(junk)));
+    }
+
+    @Test
+    void preEncodedFramesMatchWhatTheWriterEncodes() throws IOException {
+        for (MessageCodec codec : new MessageCodec[] { new BinaryMessageCodec(), new SerializationCodec() }) {
+            ByteArrayOutputStream direct = new ByteArrayOutputStream();
+            ByteArrayOutputStream shared = new ByteArrayOutputStream();
+            MessageCodec.Writer directWriter = codec.newWriter(direct);
+            MessageCodec.Writer sharedWriter = codec.newWriter(shared);
+            for (GameMessage m : allKinds()) {
+                directWriter.append(m);
+                sharedWriter.append(EncodedMessage.encode(m));
+            }
+            directWriter.flush();
+            sharedWriter.flush();
+            assertArrayEquals(direct.toByteArray(), shared.toByteArray(), codec.getName());
+        }
+    }
+
+    @Test
+    void binaryReaderRejectsFramesOverTheLimit() throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        MessageCodec.Writer writer = new BinaryMessageCodec().newWriter(bytes);
+        writer.write(new GameMessage.MoveMessage(MessageType.MOVE, 3, 3));
+        writer.write(new GameMessage.BoardStateMessage(MessageType.GAME_STATE, board(19), null));
+        MessageCodec.Reader reader = new BinaryMessageCodec().newReader(new ByteArrayInputStream(bytes.toByteArray()), 64);
+        assertEquals(MessageType.MOVE, reader.read().getType());
+        assertThrows(MessageTooLargeException.class, reader::read);
+    }
+
+    @Test
+    void binaryDecodeChecksCountsBeforeAllocating() throws IOException {
+        byte[] delta = BinaryMessageCodec.encodeFrame(new GameMessage.BoardDeltaMessage(MessageType.GAME_UPDATE,
+            3, 4, 1, new int[] { 2, 4 }, 17, 5L, null));
+        // kind, type, row, col, color, then the capture count
+        delta[4 + 5] = (byte) 0xFF;
+        delta[4 + 6] = (byte) 0xFF;
+        assertThrows(IOException.class, () -> BinaryMessageCodec.decode(ByteBuffer.wrap(delta, 4, delta.length - 4)));
+
+        byte[] board = BinaryMessageCodec.encodeFrame(new GameMessage.MoveResponseMessage(true, null, board(9)));
+        // kind, type, success, null string (2 bytes), then the board size
+        board[4 + 5] = (byte) 200;
+        assertThrows(IOException.class, () -> BinaryMessageCodec.decode(ByteBuffer.wrap(board, 4, board.length - 4)));
+        board[4 + 5] = 19;
+        assertThrows(IOException.class, () -> BinaryMessageCodec.decode(ByteBuffer.wrap(board, 4, board.length - 4)));
+    }
+
+    @Test
+    void binaryWriterRefusesBoardsNoReaderAccepts() {
+        assertThrows(IOException.class, () -> BinaryMessageCodec.encodeFrame(
+            new GameMessage.BoardStateMessage(MessageType.GAME_STATE, board(26))));
+    }
+
+    @Test
+    void serverReadersRejectServerMessages() throws IOException {
+        assertFalse(MessageType.START_GAME.isFromClient());
+        for (MessageCodec codec : new MessageCodec[] { new BinaryMessageCodec(), new SerializationCodec() }) {
+            for (GameMessage sent : new GameMessage[] {
+                    new GameMessage.BoardStateMessage(MessageType.GAME_STATE, board(9)),
+                    new GameMessage.TextMessage(MessageType.ERROR, "no"),
+                    new GameMessage.TextMessage(MessageType.START_GAME, "bob"),
+                    new GameMessage.MoveMessage(MessageType.MOVE, 2, 2) }) {
+                ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+                MessageCodec.Writer writer = codec.newWriter(bytes);
+                writer.write(new GameMessage.SimpleMessage(MessageType.PASS));
+                writer.write(sent);
+                MessageCodec.Reader reader = codec.newServerReader(new ByteArrayInputStream(bytes.toByteArray()), 4096);
+                assertEquals(MessageType.PASS, reader.read().getType());
+                if (sent.getType().isFromClient()) {
+                    assertEquals(sent.getType(), reader.read().getType());
+                } else {
+                    assertThrows(IOException.class, reader::read, codec.getName() + " " + sent.getType());
+                }
+            }
+        }
+    }
+
+    @Test
+    void serializationReaderRejectsMessagesOverTheLimit() throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        MessageCodec.Writer writer = new SerializationCodec().newWriter(bytes);
+        writer.write(new GameMessage.TextMessage(MessageType.ERROR, "short"));
+        writer.write(new GameMessage.TextMessage(MessageType.ERROR, "x".repeat(4096)));
+        MessageCodec.Reader reader = new SerializationCodec().newReader(new ByteArrayInputStream(bytes.toByteArray()), 1024);
+        assertEquals("short", ((GameMessage.TextMessage) reader.read()).getMessage());
+        assertThrows(MessageTooLargeException.class, reader::read);
+    }
+
+    @Test
+    void serializationReaderRejectsClassesOutsideTheProtocol() throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+            out.writeObject(new java.util.HashMap<>(java.util.Map.of("a", 1)));
+        }
+        MessageCodec.Reader reader = new SerializationCodec().newReader(new ByteArrayInputStream(bytes.toByteArray()));
+        assertThrows(InvalidClassException.class, reader::read);
+    }
+}
@@ -0,0 +1,72 @@
+package com.example.goboard.network.handler;
+
+import java.util.ArrayList;
+import java.util.List;
+import com.example.goboard.model.Player;
+import com.example.goboard.model.Stone;
+import com.example.goboard.network.ClientHandler;
+import com.example.goboard.network.GameMessage;
+import com.example.goboard.network.GameServer;
+import com.example.goboard.network.GameSession;
+import com.example.goboard.network.ServerConfig;
+import com.example.goboard.network.transport.Connection;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class StartGameHandlerTest {
+    private final GameServer server = new GameServer(new ServerConfig().port(0));
+
+    @AfterEach
+    void stop() {
+        server.stop();
+    }
+
+    private static final class RecordingConnection implements Connection {
+        final List<GameMessage> sent = new ArrayList<>();
+
+        @Override public void send(GameMessage message) { sent.add(message); }
+        @Override public void close() { }
+        @Override public boolean isOpen() { return true; }
+        @Override public String getRemoteAddress() { return "test"; }
+    }
+
+    private ClientHandler join(String name, RecordingConnection connection) {
+        ClientHandler handler = new ClientHandler(connection, server);
+        handler.setPlayer(new Player(name, Stone.Color.UNASSIGNED));
+        server.registerClient(name, handler);
+        return handler;
+    }
+
+    private static GameMessage last(RecordingConnection connection) {
+        return connection.sent.get(connection.sent.size() - 1);
+    }
+
+    @Test
+    void refusesAGameAgainstYourself() {
+        RecordingConnection connection = new RecordingConnection();
+        ClientHandler alice = join("alice", connection);
+        alice.initiateGameStart("alice");
+        assertEquals(GameMessage.MessageType.ERROR, last(connection).getType());
+        assertFalse(alice.isGameActive());
+        assertNull(alice.getSession());
+    }
+
+    @Test
+    void refusesASecondGameWhileInOne() {
+        RecordingConnection connection = new RecordingConnection();
+        ClientHandler alice = join("alice", connection);
+        ClientHandler bob = join("bob", new RecordingConnection());
+        ClientHandler carol = join("carol", new RecordingConnection());
+        alice.initiateGameStart("bob");
+        GameSession game = alice.getSession();
+        assertNotNull(game);
+        assertSame(game, bob.getSession());
+
+        alice.initiateGameStart("carol");
+        assertEquals(GameMessage.MessageType.ERROR, last(connection).getType());
+        assertSame(game, alice.getSession());
+        assertSame(bob, alice.getOpponent());
+        assertFalse(carol.isGameActive());
+    }
+}
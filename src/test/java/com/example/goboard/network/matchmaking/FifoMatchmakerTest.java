@@ -0,0 +1,53 @@
+package com.example.goboard.network.matchmaking;
+
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class FifoMatchmakerTest {
+    private final List<String> games = new ArrayList<>();
+    private final FifoMatchmaker<String> matchmaker = new FifoMatchmaker<>((a, b) -> games.add(a + "-" + b));
+
+    @Test
+    void pairsOnArrivalInFifoOrder() {
+        matchmaker.enqueue("a");
+        assertTrue(games.isEmpty());
+        matchmaker.enqueue("b");
+        assertEquals(List.of("a-b"), games);
+        matchmaker.enqueue("c");
+        matchmaker.enqueue("d");
+        assertEquals(List.of("a-b", "c-d"), games);
+        assertEquals(0, matchmaker.getQueueDepth());
+    }
+
+    @Test
+    void enqueueTwiceDoesNotMatchAPlayerWithItself() {
+        matchmaker.enqueue("a");
+        matchmaker.enqueue("a");
+        assertTrue(games.isEmpty());
+        assertEquals(1, matchmaker.getQueueDepth());
+    }
+
+    @Test
+    void removedPlayersAreSkipped() {
+        matchmaker.enqueue("a");
+        assertTrue(matchmaker.remove("a"));
+        assertFalse(matchmaker.remove("a"));
+        matchmaker.enqueue("b");
+        matchmaker.enqueue("c");
+        assertEquals(List.of("b-c"), games);
+    }
+
+    @Test
+    void statsTrackDepthAndMatches() {
+        matchmaker.enqueue("a");
+        assertEquals(1, matchmaker.getStats().getQueueDepth());
+        matchmaker.enqueue("b");
+        MatchmakingStats stats = matchmaker.getStats();
+        assertEquals(0, stats.getQueueDepth());
+        assertEquals(1, stats.getPeakQueueDepth());
+        assertEquals(1, stats.getMatches());
+        assertTrue(stats.getMaxWaitMillis() >= stats.getAverageWaitMillis());
+    }
+}
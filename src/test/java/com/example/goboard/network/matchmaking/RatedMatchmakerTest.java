@@ -0,0 +1,113 @@
+package com.example.goboard.network.matchmaking;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class RatedMatchmakerTest {
+    private final Map<String, Integer> ratings = new HashMap<>();
+    private final List<String> games = new ArrayList<>();
+    private long now;
+    private final RatedMatchmaker<String> matchmaker = new RatedMatchmaker<>(
+        ratings::get, (a, b) -> games.add(a + "-" + b), 100, 50, () -> now);
+
+    private void join(String name, int rating) {
+        ratings.put(name, rating);
+        matchmaker.enqueue(name);
+    }
+
+    @Test
+    void pairsCloseRatingsOnArrival() {
+        join("a", 1500);
+        join("b", 2000);
+        join("c", 1560);
+        assertEquals(List.of("a-c"), games);
+        assertEquals(1, matchmaker.getQueueDepth());
+    }
+
+    @Test
+    void prefersTheClosestRating() {
+        join("a", 1400);
+        join("b", 1590);
+        join("c", 1520);
+        assertEquals(List.of("b-c"), games);
+    }
+
+    @Test
+    void windowWidensWhileWaiting() {
+        join("a", 1500);
+        join("b", 1800);
+        matchmaker.tick();
+        assertTrue(games.isEmpty());
+
+        now += 3_000_000_000L; // window 100 + 3 * 50 = 250
+        matchmaker.tick();
+        assertTrue(games.isEmpty());
+
+        now += 1_000_000_000L; // 300
+        matchmaker.tick();
+        assertEquals(List.of("a-b"), games);
+        assertEquals(0, matchmaker.getQueueDepth());
+        assertEquals(4000.0, matchmaker.getStats().getMaxWaitMillis(), 1e-9);
+    }
+
+    @Test
+    void longWaiterAcceptsAWiderGapFromANewcomer() {
+        join("a", 1500);
+        now += 4_000_000_000L;
+        join("b", 1780);
+        assertEquals(List.of("a-b"), games);
+    }
+
+    @Test
+    void looksPastABucketsOldestPlayer() {
+        RatedMatchmaker<String> narrow = new RatedMatchmaker<>(
+            ratings::get, (a, b) -> games.add(a + "-" + b), 10, 50, () -> now);
+        for (String[] p : new String[][] { { "a", "1549" }, { "b", "1500" }, { "c", "1495" } }) {
+            ratings.put(p[0], Integer.parseInt(p[1]));
+            narrow.enqueue(p[0]);
+        }
+        // a is first in c's neighbouring bucket but 54 points away; b is 5
+        assertEquals(List.of("b-c"), games);
+    }
+
+    @Test
+    void removedPlayersAreNotMatched() {
+        join("a", 1500);
+        assertTrue(matchmaker.remove("a"));
+        join("b", 1500);
+        assertTrue(games.isEmpty());
+    }
+
+    @Test
+    void handlesManyWaitingPlayers() {
+        for (int i = 0; i < 20000; i++) {
+            join("p" + i, 1000 + (i % 10) * 200);
+        }
+        assertEquals(10000, games.size());
+        assertEquals(0, matchmaker.getQueueDepth());
+    }
+
+    @Test
+    void eloUpdatesArePersisted(@TempDir Path dir) throws Exception {
+        Path file = dir.resolve("ratings.properties");
+        RatingStore store = new RatingStore(file);
+        assertEquals(RatingStore.INITIAL_RATING, store.getRating("a"));
+        store.recordResult("a", "b", 1);
+        assertEquals(1516, store.getRating("a"));
+        assertEquals(1484, store.getRating("b"));
+        assertFalse(Files.exists(file));  // written behind, not on the game's thread
+        store.flush();
+
+        RatingStore reloaded = new RatingStore(file);
+        assertEquals(1516, reloaded.getRating("a"));
+        assertEquals(1484, reloaded.getRating("b"));
+        assertEquals(0.5, RatingStore.expectedScore(1700, 1700), 1e-9);
+    }
+}
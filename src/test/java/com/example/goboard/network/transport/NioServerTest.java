@@ -0,0 +1,91 @@
+package com.example.goboard.network.transport;
+
+import java.io.IOException;
+import java.net.Socket;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import com.example.goboard.network.GameMessage;
+import com.example.goboard.network.GameMessage.MessageType;
+import com.example.goboard.network.codec.BinaryMessageCodec;
+import com.example.goboard.network.codec.MessageCodec;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class NioServerTest {
+    /** Echoes every message back on the same connection. */
+    private static ConnectionListener echo(Connection connection, CountDownLatch closed) {
+        return new ConnectionListener() {
+            @Override
+            public void onMessage(GameMessage message) {
+                connection.send(message);
+            }
+
+            @Override
+            public void onDisconnect() {
+                closed.countDown();
+            }
+        };
+    }
+
+    @Test
+    void serverMessagesFromAClientCloseTheConnection() throws Exception {
+        CountDownLatch closed = new CountDownLatch(1);
+        NioServer server = new NioServer(0, 1, 1024, OverflowPolicy.DISCONNECT, c -> echo(c, closed));
+        server.start();
+        MessageCodec codec = new BinaryMessageCodec();
+        try (Socket socket = new Socket("localhost", server.getPort())) {
+            MessageCodec.Writer out = codec.newWriter(socket.getOutputStream());
+            out.write(new GameMessage.BoardStateMessage(MessageType.GAME_STATE, new int[9][9]));
+            assertTrue(closed.await(5, TimeUnit.SECONDS));
+        } finally {
+            server.stop();
+        }
+    }
+
+    @Test
+    void eventLoopsFrameAndEchoMessages() throws Exception {
+        CountDownLatch closed = new CountDownLatch(2);
+        NioServer server = new NioServer(0, 2, 1024, OverflowPolicy.DISCONNECT, c -> echo(c, closed));
+        server.start();
+        MessageCodec codec = new BinaryMessageCodec();
+        try {
+            for (int client = 0; client < 2; client++) {
+                try (Socket socket = new Socket("localhost", server.getPort())) {
+                    MessageCodec.Writer out = codec.newWriter(socket.getOutputStream());
+                    MessageCodec.Reader in = codec.newReader(socket.getInputStream());
+                    // Enough traffic to split frames across reads and grow the read buffer
+                    for (int i = 0; i < 200; i++) {
+                        out.write(new GameMessage.MoveMessage(MessageType.MOVE, i % 19, client));
+                        out.write(new GameMessage.JoinGameMessage("x".repeat(i * 10)));
+                    }
+                    for (int i = 0; i < 200; i++) {
+                        GameMessage.MoveMessage move = (GameMessage.MoveMessage) in.read();
+                        assertEquals(i % 19, move.getRow());
+                        assertEquals(client, move.getCol());
+                        GameMessage.JoinGameMessage join = (GameMessage.JoinGameMessage) in.read();
+                        assertEquals(i * 10, join.getPlayerName().length());
+                    }
+                }
+            }
+            assertTrue(closed.await(5, TimeUnit.SECONDS));
+        } finally {
+            server.stop();
+        }
+    }
+
+    @Test
+    void closesConnectionsThatDoNotSpeakTheProtocol() throws Exception {
+        CountDownLatch closed = new CountDownLatch(1);
+        NioServer server = new NioServer(0, 1, 1024, OverflowPolicy.DISCONNECT, c -> echo(c, closed));
+        server.start();
+        try (Socket socket = new Socket("localhost", server.getPort())) {
+            socket.getOutputStream().write(new byte[] { (byte) 0xAC, (byte) 0xED, 0, 5 });
+            socket.getOutputStream().flush();
+            assertTrue(closed.await(5, TimeUnit.SECONDS));
+        } catch (IOException e) {
+            fail(e);
+        } finally {
+            server.stop();
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package com.example.goboard.network.transport;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import com.example.goboard.network.GameMessage;
+import com.example.goboard.network.GameMessage.MessageType;
+import com.example.goboard.network.codec.BinaryMessageCodec;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class OutboundQueueTest {
+    private static final class CountingConnection implements Connection {
+        int closes;
+
+        @Override public void send(GameMessage message) { }
+        @Override public void close() { closes++; }
+        @Override public boolean isOpen() { return closes == 0; }
+        @Override public String getRemoteAddress() { return "test"; }
+    }
+
+    private static GameMessage numbered(MessageType type, int seq) {
+        GameMessage message = new GameMessage.SimpleMessage(type);
+        message.setSeq(seq);
+        return message;
+    }
+
+    private static List<MessageType> drain(OutboundQueue<GameMessage> queue) {
+        List<MessageType> types = new ArrayList<>();
+        GameMessage m;
+        while ((m = queue.poll()) != null) types.add(m.getType());
+        return types;
+    }
+
+    @Test
+    void resyncKeepsGameEndsAndNumberedReplies() {
+        CountingConnection connection = new CountingConnection();
+        OutboundQueue<GameMessage> queue = new OutboundQueue<>(4, OverflowPolicy.RESYNC, GameMessage::mustDeliver);
+        queue.offer(new GameMessage.SimpleMessage(MessageType.HEARTBEAT), connection, null);
+        queue.offer(numbered(MessageType.ACK, 3), connection, null);
+        queue.offer(new GameMessage.SimpleMessage(MessageType.OPPONENT_PASS), connection, null);
+        queue.offer(new GameMessage.TextMessage(MessageType.GAME_OVER, "over"), connection, null);
+
+        assertTrue(queue.offer(numbered(MessageType.ERROR, 4), connection, null));
+        assertEquals(List.of(MessageType.ACK, MessageType.GAME_OVER, MessageType.ERROR), drain(queue));
+        assertEquals(0, connection.closes);
+    }
+
+    @Test
+    void resyncClosesWhenWhatMustBeDeliveredNoLongerFits() {
+        CountingConnection connection = new CountingConnection();
+        OutboundQueue<GameMessage> queue = new OutboundQueue<>(2, OverflowPolicy.RESYNC, GameMessage::mustDeliver);
+        queue.offer(numbered(MessageType.ACK, 1), connection, null);
+        queue.offer(numbered(MessageType.ACK, 2), connection, null);
+        assertFalse(queue.offer(numbered(MessageType.ACK, 3), connection, null));
+        assertEquals(1, connection.closes);
+    }
+
+    @Test
+    void encodedFramesAgreeWithTheirMessages() throws Exception {
+        for (GameMessage m : new GameMessage[] {
+                new GameMessage.SimpleMessage(MessageType.HEARTBEAT),
+                new GameMessage.TextMessage(MessageType.GAME_OVER, "over"),
+                numbered(MessageType.ACK, 9),
+                new GameMessage.BoardStateMessage(MessageType.GAME_STATE, new int[9][9]) }) {
+            assertEquals(m.mustDeliver(), BinaryMessageCodec.mustDeliver(ByteBuffer.wrap(BinaryMessageCodec.encodeFrame(m))),
+                m.toString());
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package com.example.goboard.network.transport;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.time.Duration;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import com.example.goboard.network.GameMessage;
+import com.example.goboard.network.GameMessage.MessageType;
+import com.example.goboard.network.codec.BinaryMessageCodec;
+import com.example.goboard.network.codec.MessageCodec;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class StreamConnectionTest {
+    private static GameMessage bigMessage() {
+        return new GameMessage.BoardStateMessage(MessageType.GAME_STATE, new int[19][19], "x".repeat(4000));
+    }
+
+    @Test
+    void slowReaderNeverBlocksTheSender() throws Exception {
+        ExecutorService writers = Executors.newCachedThreadPool();
+        try (ServerSocket listener = new ServerSocket(0);
+             Socket client = new Socket("localhost", listener.getLocalPort());
+             Socket accepted = listener.accept()) {
+            StreamConnection connection = new StreamConnection(accepted, new BinaryMessageCodec(),
+                writers, 8, OverflowPolicy.RESYNC);
+            AtomicInteger resyncs = new AtomicInteger();
+            connection.setListener(new ConnectionListener() {
+                @Override public void onMessage(GameMessage message) { }
+                @Override public void onDisconnect() { }
+                @Override public void onOutboundOverflow() { resyncs.incrementAndGet(); }
+            });
+
+            // The client reads nothing, so its TCP buffers fill after a few hundred KB
+            assertTimeoutPreemptively(Duration.ofSeconds(5), () -> {
+                for (int i = 0; i < 5000; i++) {
+                    connection.send(bigMessage());
+                }
+            });
+            assertTrue(resyncs.get() > 0);
+            assertEquals(resyncs.get(), connection.getOutbound().getOverflowCount());
+
+            // Once the client reads again, what is still queued arrives intact
+            MessageCodec.Reader in = new BinaryMessageCodec().newReader(client.getInputStream());
+            assertEquals(MessageType.GAME_STATE, in.read().getType());
+        } finally {
+            writers.shutdownNow();
+        }
+    }
+
+    @Test
+    void disconnectPolicyClosesTheConnection() throws IOException {
+        ExecutorService writers = Executors.newCachedThreadPool();
+        try (ServerSocket listener = new ServerSocket(0);
+             Socket client = new Socket("localhost", listener.getLocalPort());
+             Socket accepted = listener.accept()) {
+            StreamConnection connection = new StreamConnection(accepted, new BinaryMessageCodec(),
+                writers, 4, OverflowPolicy.DISCONNECT);
+            // The client never reads, so its queue overflows once the TCP buffers fill
+            client.setReceiveBufferSize(4096);
+            for (int i = 0; i < 5000 && connection.isOpen(); i++) {
+                connection.send(bigMessage());
+            }
+            assertFalse(connection.isOpen());
+        } finally {
+            writers.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package com.example.goboard.scoring;
+
+import com.example.goboard.model.Board;
+import com.example.goboard.model.PackedBoard;
+import com.example.goboard.model.Stone;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BensonAnalyzerTest {
+    // Black block on rows 0-2, columns 0-4, with eyes at (0,1) and (0,3)
+    private Board twoEyedGroup() {
+        Board b = new PackedBoard(9);
+        for (int r = 0; r < 3; r++) {
+            for (int c = 0; c < 5; c++) {
+                if (r == 0 && (c == 1 || c == 3)) continue;
+                b.setStone(r, c, Stone.BLACK);
+            }
+        }
+        return b;
+    }
+
+    @Test
+    void twoEyedGroupIsPassAliveWithItsEyes() {
+        Board b = twoEyedGroup();
+        b.setStone(6, 6, Stone.WHITE);
+        byte[] owner = new BensonAnalyzer().analyze(b);
+        assertEquals(Board.BLACK, owner[b.pointIndex(1, 1)]);
+        assertEquals(Board.BLACK, owner[b.pointIndex(0, 1)]);
+        assertEquals(Board.BLACK, owner[b.pointIndex(0, 3)]);
+        assertEquals(Board.EMPTY, owner[b.pointIndex(5, 5)]);
+        assertEquals(Board.EMPTY, owner[b.pointIndex(6, 6)]);
+        assertFalse(new BensonAnalyzer().isSettled(b));
+    }
+
+    @Test
+    void oneEyedGroupIsNotPassAlive() {
+        Board b = twoEyedGroup();
+        b.setStone(0, 3, Stone.BLACK);
+        byte[] owner = new BensonAnalyzer().analyze(b);
+        assertEquals(Board.EMPTY, owner[b.pointIndex(1, 1)]);
+        assertEquals(Board.EMPTY, owner[b.pointIndex(0, 1)]);
+    }
+
+    @Test
+    void deadStonesAreRemovedBeforeCounting() {
+        Board b = new PackedBoard(9);
+        for (int r = 0; r < 9; r++) {
+            b.setStone(r, 2, Stone.BLACK);
+            b.setStone(r, 5, Stone.WHITE);
+        }
+        b.setStone(4, 7, Stone.BLACK);
+        b.setStone(3, 7, Stone.WHITE);
+        b.setStone(5, 7, Stone.WHITE);
+        b.setStone(4, 6, Stone.WHITE);
+
+        boolean[] dead = new DeadStoneEstimator().estimate(b);
+        assertTrue(dead[b.pointIndex(4, 7)]);
+        assertFalse(dead[b.pointIndex(4, 2)]);
+        assertFalse(dead[b.pointIndex(4, 5)]);
+        assertFalse(dead[b.pointIndex(3, 7)]);
+
+        ScoreResult score = new ScoringEngine(ScoringMethod.AREA, 0).score(b, dead, 0, 0);
+        assertEquals(1, score.getBlackDead());
+        assertEquals(9, score.getBlackStones());
+        assertEquals(1, score.getWhitePrisoners());
+        // columns 6-8 are white's, including the point the dead stone stood on
+        assertEquals(9 * 3 - 3, score.getWhiteTerritory());
+    }
+}
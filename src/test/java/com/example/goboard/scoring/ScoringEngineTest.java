@@ -0,0 +1,69 @@
+package com.example.goboard.scoring;
+
+import java.util.ArrayList;
+import java.util.List;
+import com.example.goboard.model.Board;
+import com.example.goboard.model.PackedBoard;
+import com.example.goboard.model.BoardView;
+import com.example.goboard.model.Stone;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ScoringEngineTest {
+    // 5x5 split by a black wall on column 1 and a white wall on column 3
+    private Board splitBoard() {
+        Board b = new PackedBoard(5);
+        for (int r = 0; r < 5; r++) {
+            b.setStone(r, 1, Stone.BLACK);
+            b.setStone(r, 3, Stone.WHITE);
+        }
+        return b;
+    }
+
+    @Test
+    void areaScoringCountsStonesAndSurroundedPoints() {
+        ScoreResult score = new ScoringEngine(ScoringMethod.AREA, 0.5).score(splitBoard());
+        assertEquals(5, score.getBlackStones());
+        assertEquals(5, score.getWhiteStones());
+        assertEquals(5, score.getBlackTerritory());
+        assertEquals(5, score.getWhiteTerritory());
+        assertEquals(5, score.getDame());
+        assertEquals(10.0, score.getBlackScore());
+        assertEquals(10.5, score.getWhiteScore());
+        assertEquals(Stone.Color.WHITE, score.getWinner());
+        assertEquals("W+0.5", score.toString());
+    }
+
+    @Test
+    void territoryScoringUsesPrisonersInsteadOfStones() {
+        ScoreResult score = new ScoringEngine(ScoringMethod.TERRITORY, 0).score(splitBoard(), 3, 1);
+        assertEquals(8.0, score.getBlackScore());
+        assertEquals(6.0, score.getWhiteScore());
+        assertEquals("B+2", score.toString());
+    }
+
+    @Test
+    void emptyBoardIsAllDame() {
+        ScoreResult score = new ScoringEngine(ScoringMethod.AREA, 0).score(new PackedBoard(9));
+        assertEquals(81, score.getDame());
+        assertEquals(Stone.Color.UNASSIGNED, score.getWinner());
+    }
+
+    @Test
+    void batchScoringKeepsInputOrder() {
+        List<BoardView> boards = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            Board b = new PackedBoard(9);
+            for (int c = 0; c < 9; c++) {
+                b.setStone(i % 8, c, Stone.BLACK);
+            }
+            boards.add(b.snapshot());
+        }
+        ScoringEngine engine = new ScoringEngine(ScoringMethod.AREA, 0);
+        List<ScoreResult> scores = engine.scoreAll(boards);
+        assertEquals(50, scores.size());
+        for (int i = 0; i < 50; i++) {
+            assertEquals(engine.score(boards.get(i)).getBlackScore(), scores.get(i).getBlackScore());
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package com.example.goboard.strategy;
+
+import java.util.SplittableRandom;
+import com.example.goboard.model.BitboardBoard;
+import com.example.goboard.model.Board;
+import com.example.goboard.model.PackedBoard;
+import com.example.goboard.model.Stone;
+
+/**
+ * Times the per-point {@link RulesMoveValidator#legalMoves} against the
+ * shift-and-mask {@link BitboardBoard#legalMoves} on positions reached by
+ * random legal play, for a few game lengths.
+ * Not a unit test; run it by hand:
+ * <pre>
+ *   java -cp target/classes:target/test-classes com.example.goboard.strategy.LegalMovesBenchmark 19
+ * </pre>
+ */
+public class LegalMovesBenchmark {
+    private static final int POSITIONS = 200;
+    private static final int CALLS = 200;
+
+    public static void main(String[] args) {
+        int size = args.length > 0 ? Integer.parseInt(args[0]) : 19;
+        MoveValidator validator = new RulesMoveValidator();
+        System.out.printf("%-8s %14s %14s%n", "moves", "per-point ns", "bitboard ns");
+        for (int round = 0; round < 2; round++) {  // the first round is warm-up
+            for (int moves : new int[] { size * size / 8, size * size / 3, size * size * 2 / 3 }) {
+                long packed = 0;
+                long bitboard = 0;
+                SplittableRandom random = new SplittableRandom(moves);
+                for (int i = 0; i < POSITIONS; i++) {
+                    Board a = new PackedBoard(size);
+                    Board b = new BitboardBoard(size);
+                    playRandom(a, b, moves, random);
+                    packed += time(validator, a);
+                    bitboard += time((BitboardBoard) b);
+                }
+                if (round == 1) {
+                    System.out.printf("%-8d %14d %14d%n", moves,
+                        packed / (POSITIONS * CALLS), bitboard / (POSITIONS * CALLS));
+                }
+            }
+        }
+    }
+
+    /** Plays the same random legal moves on both boards. */
+    private static void playRandom(Board a, Board b, int moves, SplittableRandom random) {
+        byte color = Board.BLACK;
+        for (int played = 0, tries = 0; played < moves && tries < moves * 20; tries++) {
+            int p = a.pointIndex(random.nextInt(a.getSize()), random.nextInt(a.getSize()));
+            if (a.get(p) == Board.EMPTY && !a.isKo(p, color) && !a.isSuicide(p, color)) {
+                a.play(p, color);
+                b.play(p, color);
+                color = color == Board.BLACK ? Board.WHITE : Board.BLACK;
+                played++;
+            }
+        }
+    }
+
+    private static long time(MoveValidator validator, Board board) {
+        long sink = 0;
+        long start = System.nanoTime();
+        for (int i = 0; i < CALLS; i++) {
+            sink += validator.legalMoves(board, Stone.Color.BLACK)[0];
+        }
+        return finish(start, sink);
+    }
+
+    private static long time(BitboardBoard board) {
+        long sink = 0;
+        long start = System.nanoTime();
+        for (int i = 0; i < CALLS; i++) {
+            sink += board.legalMoves(Board.BLACK)[0];
+        }
+        return finish(start, sink);
+    }
+
+    /** Elapsed time since {@code start}, keeping {@code sink} alive so the calls aren't dropped. */
+    private static long finish(long start, long sink) {
+        long elapsed = System.nanoTime() - start;
+        if (sink == 42) System.out.print("");
+        return elapsed;
+    }
+}
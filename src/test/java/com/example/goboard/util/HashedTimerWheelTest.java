@@ -0,0 +1,87 @@
+package com.example.goboard.util;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class HashedTimerWheelTest {
+    private long now;
+    private final List<String> fired = new ArrayList<>();
+    // 10 ms ticks, 8 buckets: one turn of the wheel is 80 ms
+    private final HashedTimerWheel wheel = new HashedTimerWheel(10, TimeUnit.MILLISECONDS, 8, () -> now);
+
+    private void advanceMillis(long millis) {
+        now += TimeUnit.MILLISECONDS.toNanos(millis);
+        wheel.advance();
+    }
+
+    @Test
+    void firesAtTheDeadlineAndNotBefore() {
+        wheel.schedule(() -> fired.add("a"), 25, TimeUnit.MILLISECONDS);
+        advanceMillis(20);
+        assertTrue(fired.isEmpty());
+        advanceMillis(10);
+        assertEquals(List.of("a"), fired);
+        assertEquals(0, wheel.pendingTimeouts());
+    }
+
+    @Test
+    void deadlinesBeyondOneTurnWaitForTheirRound() {
+        wheel.schedule(() -> fired.add("late"), 250, TimeUnit.MILLISECONDS);
+        wheel.schedule(() -> fired.add("early"), 15, TimeUnit.MILLISECONDS);
+        advanceMillis(100);
+        assertEquals(List.of("early"), fired);
+        advanceMillis(140);
+        assertEquals(List.of("early"), fired);
+        advanceMillis(20);
+        assertEquals(List.of("early", "late"), fired);
+    }
+
+    @Test
+    void cancelledTimeoutsNeverRun() {
+        HashedTimerWheel.Timeout timeout = wheel.schedule(() -> fired.add("x"), 30, TimeUnit.MILLISECONDS);
+        assertTrue(timeout.cancel());
+        assertFalse(timeout.cancel());
+        advanceMillis(100);
+        assertTrue(fired.isEmpty());
+        assertEquals(0, wheel.pendingTimeouts());
+    }
+
+    @Test
+    void tasksMayScheduleMore() {
+        wheel.schedule(() -> {
+            fired.add("first");
+            wheel.schedule(() -> fired.add("second"), 10, TimeUnit.MILLISECONDS);
+        }, 10, TimeUnit.MILLISECONDS);
+        advanceMillis(20);
+        assertEquals(List.of("first"), fired);
+        advanceMillis(20);
+        assertEquals(List.of("first", "second"), fired);
+    }
+
+    @Test
+    void manyTimeoutsCostOneEntryEach() {
+        for (int i = 0; i < 50_000; i++) {
+            wheel.schedule(() -> { }, i % 1000, TimeUnit.MILLISECONDS);
+        }
+        assertEquals(50_000, wheel.pendingTimeouts());
+        advanceMillis(1010);
+        assertEquals(0, wheel.pendingTimeouts());
+    }
+
+    @Test
+    void wheelThreadRunsTimeouts() throws InterruptedException {
+        HashedTimerWheel real = new HashedTimerWheel(5, TimeUnit.MILLISECONDS, 64);
+        real.start();
+        try {
+            CountDownLatch done = new CountDownLatch(1);
+            real.schedule(done::countDown, 20, TimeUnit.MILLISECONDS);
+            assertTrue(done.await(2, TimeUnit.SECONDS));
+        } finally {
+            real.stop();
+        }
+    }
+}